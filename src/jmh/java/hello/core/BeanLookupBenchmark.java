@@ -0,0 +1,65 @@
+package hello.core;
+
+import hello.core.member.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AnnotationConfigApplicationContext.getBean 조회 비용
+ * => 이름으로 조회 / 타입으로 조회 (타입 조회는 후보 빈을 찾는 과정이 추가된다)
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanLookupBenchmark {
+
+    AnnotationConfigApplicationContext ac;
+
+    @Setup
+    public void setup() {
+        ac = new AnnotationConfigApplicationContext(AppConfig.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ac.close();
+    }
+
+    @Benchmark
+    public MemberService getBeanByName() {
+        return ac.getBean("memberService", MemberService.class);
+    }
+
+    @Benchmark
+    public MemberService getBeanByType() {
+        return ac.getBean(MemberService.class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public MemberService getBeanByName_threads() {
+        return getBeanByName();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public MemberService getBeanByType_threads() {
+        return getBeanByType();
+    }
+}
@@ -0,0 +1,68 @@
+package hello.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컴포넌트 스캔: 클래스패스 스캔 vs 컴포넌트 인덱스(META-INF/spring.components)
+ * => spring.index.ignore는 JVM 시작 시 한 번만 읽으므로 scan_* 은 -Dspring.index.ignore=true 로 따로 fork 한다.
+ * => *_candidates: AutoAppConfig와 같은 필터로 hello.core 후보 컴포넌트를 찾는 시간만 잰다.
+ * => *_context: AutoAppConfig 컨테이너 생성 + 종료 전체 시간
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComponentIndexBenchmark {
+
+    private static final String SCAN = "-Dspring.index.ignore=true";
+
+    @Benchmark
+    @Fork(1)
+    public Set<BeanDefinition> index_candidates() {
+        return findCandidates();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCAN)
+    public Set<BeanDefinition> scan_candidates() {
+        return findCandidates();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public int index_context() {
+        return startAndClose();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = SCAN)
+    public int scan_context() {
+        return startAndClose();
+    }
+
+    private static Set<BeanDefinition> findCandidates() {
+        ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+        provider.addExcludeFilter(new AnnotationTypeFilter(Configuration.class));
+        return provider.findCandidateComponents("hello.core");
+    }
+
+    private static int startAndClose() {
+        try (AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AutoAppConfig.class)) {
+            return ac.getBeanDefinitionCount();
+        }
+    }
+}
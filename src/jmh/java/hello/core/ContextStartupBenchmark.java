@@ -0,0 +1,62 @@
+package hello.core;
+
+import hello.core.member.MemberService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스프링 컨테이너 생성(refresh) + memberService 조회 + 종료까지의 시간
+ * => annotation: AppConfig (CGLIB + @Bean 리플렉션)
+ * => scan: AutoAppConfig (@ComponentScan)
+ * => xml: appConfig.xml
+ * => functional: FunctionalAppConfig (registerBean + 람다)
+ *
+ * 기본 설정은 JIT 워밍업이 끝난 뒤의 생성 비용이다.
+ * 처음 한 번의 비용(클래스 로딩 포함)은 -bm ss -f 20 으로, 생성 한 번에 할당되는 메모리는 -prof gc (gc.alloc.rate.norm)로 본다.
+ * ./gradlew jmh -PjmhIncludes=ContextStartupBenchmark
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextStartupBenchmark {
+
+    @Benchmark
+    public MemberService annotation() {
+        return startAndClose(new AnnotationConfigApplicationContext(AppConfig.class));
+    }
+
+    @Benchmark
+    public MemberService scan() {
+        return startAndClose(new AnnotationConfigApplicationContext(AutoAppConfig.class));
+    }
+
+    @Benchmark
+    public MemberService xml() {
+        return startAndClose(new GenericXmlApplicationContext("appConfig.xml"));
+    }
+
+    @Benchmark
+    public MemberService functional() {
+        return startAndClose(FunctionalAppConfig.createContext());
+    }
+
+    private static MemberService startAndClose(ConfigurableApplicationContext ac) {
+        try {
+            return ac.getBean("memberService", MemberService.class);
+        } finally {
+            ac.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package hello.core.bulk;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 회원 1000만 명 파일(CSV 약 255MB, 바이너리 약 188MB) 가져오기 시간과 최대 힙 사용량
+ * => 저장소는 저장된 회원 수만 센다. (1000만 명을 실제로 들고 있으면 힙 대부분이 저장소 몫이 되어 가져오기 비용이 가려진다)
+ * => readLineBySaving은 비교 기준: BufferedReader로 한 줄씩 읽어 split하고 save를 한 번씩 부른다.
+ * => 각 측정이 끝나면 힙 영역의 최대 사용량(peak)을 출력한다. 파일 크기와 관계없이 -Xmx64m 안에서 끝나야 한다.
+ *
+ * 참고 (1 CPU 환경): csv 약 8M 행/s, 바이너리 약 12M 행/s, peak heap 60MB 이하
+ * => CPU가 여러 개면 구간이 나눠 읽히므로 그만큼 빨라진다. 기준 방식은 한 스레드로만 읽는다.
+ * */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+@State(Scope.Benchmark)
+public class MemberBulkBenchmark {
+
+    static final int ROWS = 10_000_000;
+
+    Path directory;
+    Path csv;
+    Path binary;
+    CountingRepository repository = new CountingRepository();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("member-bulk");
+        csv = directory.resolve("members.csv");
+        binary = directory.resolve("members.bin");
+        GeneratedRepository generated = new GeneratedRepository(ROWS);
+        try (OutputStream out = Files.newOutputStream(csv)) {
+            new MemberExporter(generated).exportCsv(out);
+        }
+        try (OutputStream out = Files.newOutputStream(binary)) {
+            new MemberExporter(generated).exportBinary(out);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(directory);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("peak heap: %d MB, saved: %d%n", peak >> 20, repository.saved.sumThenReset());
+    }
+
+    @Benchmark
+    public long importCsv() {
+        return new MemberImporter(repository).importCsv(csv);
+    }
+
+    @Benchmark
+    public long importBinary() {
+        return new MemberImporter(repository).importBinary(binary);
+    }
+
+    @Benchmark
+    public long readLineBySaving() throws IOException {
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                Grade grade = fields.length < 3 || fields[2].isEmpty() ? null : Grade.valueOf(fields[2]);
+                repository.save(new Member(Long.parseLong(fields[0]), fields[1], grade));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long exportBinary() throws IOException {
+        return new MemberExporter(new GeneratedRepository(ROWS)).exportBinary(OutputStream.nullOutputStream());
+    }
+
+    static final class CountingRepository implements MemberRepository {
+
+        final LongAdder saved = new LongAdder();
+
+        @Override
+        public void save(Member member) {
+            saved.increment();
+        }
+
+        @Override
+        public void saveAll(List<Member> members) {
+            saved.add(members.size());
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            return null;
+        }
+
+        @Override
+        public void forEach(Consumer<? super Member> action) {
+        }
+    }
+
+    /**
+     * 회원을 들고 있지 않고 forEach 때마다 만들어 내는 저장소 (파일 생성, 내보내기 측정용)
+     * */
+    static final class GeneratedRepository implements MemberRepository {
+
+        private final int rows;
+
+        GeneratedRepository(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void save(Member member) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            return null;
+        }
+
+        @Override
+        public void forEach(Consumer<? super Member> action) {
+            for (int i = 0; i < rows; i++) {
+                action.accept(new Member(3_000_000_000L + i, "member" + i, i % 2 == 0 ? Grade.VIP : Grade.BASIC));
+            }
+        }
+    }
+}
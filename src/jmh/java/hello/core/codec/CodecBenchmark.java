@@ -0,0 +1,136 @@
+package hello.core.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.order.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원/주문 한 건당 인코딩, 디코딩 시간
+ * => heap: ByteBuffer.allocate, direct: ByteBuffer.allocateDirect (소켓/파일 채널에 바로 쓰는 버퍼)
+ * => jsonMemberEncode: 같은 회원을 Jackson으로 byte[]로 쓸 때 (비교용)
+ * => 시작할 때 회원/주문 한 건의 평균 크기(binary vs JSON)를 출력한다.
+ * ==> -prof gc 로 보면 encode는 할당이 없어야 한다. (decode는 Member/Order와 String만 만든다)
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    static final int SIZE = 1024;
+
+    @Param({"heap", "direct"})
+    String bufferType;
+
+    Member[] members;
+    Order[] orders;
+    ByteBuffer memberBuffer;
+    ByteBuffer orderBuffer;
+    ByteBuffer encodedMembers;
+    ByteBuffer encodedOrders;
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        Random random = new Random(42);
+        members = new Member[SIZE];
+        orders = new Order[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            long id = random.nextInt(10_000_000);
+            String name = random.nextBoolean() ? "member" + id : "회원" + id;
+            members[i] = new Member(id, name, random.nextBoolean() ? Grade.VIP : Grade.BASIC);
+            orders[i] = new Order(id, "item" + random.nextInt(1000), 1000 + random.nextInt(100_000), random.nextInt(10_000));
+        }
+
+        int memberBytes = 0;
+        int orderBytes = 0;
+        long jsonBytes = 0;
+        for (int i = 0; i < SIZE; i++) {
+            memberBytes += MemberCodec.encodedSize(members[i]);
+            orderBytes += OrderCodec.encodedSize(orders[i]);
+            jsonBytes += objectMapper.writeValueAsBytes(members[i]).length;
+        }
+        System.out.printf("bytes/member: binary=%.1f, json=%.1f, bytes/order: binary=%.1f%n",
+                (double) memberBytes / SIZE, (double) jsonBytes / SIZE, (double) orderBytes / SIZE);
+
+        memberBuffer = allocate(memberBytes);
+        orderBuffer = allocate(orderBytes);
+        encodedMembers = allocate(memberBytes);
+        encodedOrders = allocate(orderBytes);
+        for (int i = 0; i < SIZE; i++) {
+            MemberCodec.encode(members[i], encodedMembers);
+            OrderCodec.encode(orders[i], encodedOrders);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public ByteBuffer memberEncode() {
+        memberBuffer.clear();
+        for (int i = 0; i < SIZE; i++) {
+            MemberCodec.encode(members[i], memberBuffer);
+        }
+        return memberBuffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void memberDecode(Blackhole blackhole) {
+        encodedMembers.flip();
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(MemberCodec.decode(encodedMembers));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public ByteBuffer orderEncode() {
+        orderBuffer.clear();
+        for (int i = 0; i < SIZE; i++) {
+            OrderCodec.encode(orders[i], orderBuffer);
+        }
+        return orderBuffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void orderDecode(Blackhole blackhole) {
+        encodedOrders.flip();
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(OrderCodec.decode(encodedOrders));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void jsonMemberEncode(Blackhole blackhole) throws JsonProcessingException {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(objectMapper.writeValueAsBytes(members[i]));
+        }
+    }
+
+    private ByteBuffer allocate(int size) {
+        return "direct".equals(bufferType) ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+}
@@ -0,0 +1,172 @@
+package hello.core.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * request scope 프록시(MyLogger)와 ThreadLocal(LogContext)의 비용 비교
+ * => *_log: 요청이 이미 시작된 상태에서 log 한 번 호출하는 비용 (프록시 -> request attribute 조회 vs ThreadLocal 조회)
+ * => *_request: /log-demo 요청 하나를 흉내 낸다. (요청 시작 + log 2번 + 요청 종료, MyLogger는 빈 생성/소멸 콜백 포함)
+ * 로그 출력은 둘 다 같은 AsyncLogWriter(DROP)가 처리하므로 출력 비용은 같다.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LogContextBenchmark {
+
+    static final String REQUEST_URL = "http://localhost:8080/log-demo";
+
+    AnnotationConfigApplicationContext ac;
+    AsyncLogWriter logWriter;
+    MyLogger myLogger;
+    MapRequestAttributes requestAttributes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ac = new AnnotationConfigApplicationContext();
+        ac.getBeanFactory().registerScope("request", new RequestScope());
+        ac.register(AsyncLogWriter.class, MyLogger.class);
+        ac.refresh();
+        logWriter = ac.getBean(AsyncLogWriter.class);
+        myLogger = ac.getBean("myLogger", MyLogger.class);
+    }
+
+    /**
+     * *_log 벤치마크를 위해 요청 하나를 열어 둔다.
+     * */
+    @Setup(Level.Iteration)
+    public void openRequest() {
+        requestAttributes = new MapRequestAttributes();
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        myLogger.setRequestURL(REQUEST_URL);
+        LogContext.bind(new LogContext(UUID.randomUUID().toString(), REQUEST_URL, logWriter));
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRequest() {
+        requestAttributes.requestCompleted();
+        RequestContextHolder.resetRequestAttributes();
+        LogContext.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ac.close();
+    }
+
+    @Benchmark
+    public void proxy_log() {
+        myLogger.log("controller test");
+    }
+
+    @Benchmark
+    public void context_log() {
+        LogContext.current().log("controller test");
+    }
+
+    @Benchmark
+    public void proxy_request() {
+        MapRequestAttributes attributes = new MapRequestAttributes();
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            myLogger.setRequestURL(REQUEST_URL);
+            myLogger.log("controller test");
+            myLogger.log("service id = testId");
+        } finally {
+            attributes.requestCompleted();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+        }
+    }
+
+    @Benchmark
+    public void context_request() {
+        LogContext outer = LogContext.current();
+        LogContext.bind(new LogContext(UUID.randomUUID().toString(), REQUEST_URL, logWriter));
+        try {
+            LogContext.current().log("controller test");
+            LogContext.current().log("service id = testId");
+        } finally {
+            LogContext.bind(outer);
+        }
+    }
+
+    /**
+     * 서블릿 컨테이너 없이 request scope를 쓰기 위한 최소한의 RequestAttributes
+     * => 스프링의 ServletRequestAttributes처럼 요청이 끝나면 등록된 소멸 콜백(@PreDestroy)을 실행한다.
+     * */
+    static class MapRequestAttributes implements RequestAttributes {
+
+        private final Map<String, Object> attributes = new HashMap<>();
+        private final List<Runnable> destructionCallbacks = new ArrayList<>();
+
+        void requestCompleted() {
+            destructionCallbacks.forEach(Runnable::run);
+            destructionCallbacks.clear();
+            attributes.clear();
+        }
+
+        @Override
+        public Object getAttribute(String name, int scope) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope) {
+            attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope) {
+            return attributes.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        public void registerDestructionCallback(String name, Runnable callback, int scope) {
+            destructionCallbacks.add(callback);
+        }
+
+        @Override
+        public Object resolveReference(String key) {
+            return null;
+        }
+
+        @Override
+        public String getSessionId() {
+            return "benchmark";
+        }
+
+        @Override
+        public Object getSessionMutex() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package hello.core.common;
+
+import hello.core.common.AsyncLogWriter.OverflowPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /log-demo 요청 한 번이 남기는 로그(controller, service 2줄)를 여러 스레드가 동시에 남길 때의 처리량
+ * => println: 변경 전 MyLogger.log (문자열 연결 + PrintStream.println, 전역 락)
+ * => async: AsyncLogWriter (링 버퍼에 넣고 반환)
+ * 출력 대상은 둘 다 버리는 스트림이라서 순수하게 요청 스레드가 로그 때문에 쓰는 비용만 비교한다.
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class MyLoggerBenchmark {
+
+    static final String REQUEST_URL = "http://localhost:8080/log-demo";
+
+    @Param({"DROP", "BLOCK"})
+    OverflowPolicy overflowPolicy;
+
+    PrintStream printStream;
+    AsyncLogWriter logWriter;
+
+    @State(Scope.Thread)
+    public static class Request {
+        final String uuid = UUID.randomUUID().toString();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        printStream = new PrintStream(OutputStream.nullOutputStream());
+        logWriter = new AsyncLogWriter(8192, overflowPolicy, OutputStream.nullOutputStream());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logWriter.close();
+        System.out.println("dropped = " + logWriter.dropped());
+    }
+
+    @Benchmark
+    public void println(Request request) {
+        printStream.println("[" + request.uuid + "]" + "[" + REQUEST_URL + "] " + "controller test");
+        printStream.println("[" + request.uuid + "]" + "[" + REQUEST_URL + "] " + "service id = testId");
+    }
+
+    @Benchmark
+    public void async(Request request) {
+        logWriter.log(request.uuid, REQUEST_URL, "controller test");
+        logWriter.log(request.uuid, REQUEST_URL, "service id = testId");
+    }
+}
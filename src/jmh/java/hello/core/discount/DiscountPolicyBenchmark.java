@@ -0,0 +1,113 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 할인 정책 한 건당 계산 시간
+ * => VIP/BASIC이 섞인 회원 배열을 돌면서 계산한다. (분기 예측이 항상 맞지 않도록)
+ * => ruleTable은 RateDiscountPolicy와 같은 규칙(VIP 10%)을, ruleTable_bands는 등급마다 가격 구간 4개짜리 규칙을 계산한다.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscountPolicyBenchmark {
+
+    static final int SIZE = 1024;
+
+    final DiscountPolicy rateDiscountPolicy = new RateDiscountPolicy();
+    final DiscountPolicy fixDiscountPolicy = new FixDiscountPolicy();
+    final DiscountPolicy ruleTableDiscountPolicy = new RuleTableDiscountPolicy(List.of(DiscountRule.rate(Grade.VIP, 10)));
+    final DiscountPolicy bandedDiscountPolicy = new RuleTableDiscountPolicy(List.of(
+            new DiscountRule(Grade.BASIC, 30_000, 60_000, 0, 500),
+            new DiscountRule(Grade.BASIC, 60_000, DiscountRule.NO_LIMIT, 3, 0),
+            new DiscountRule(Grade.VIP, 0, 10_000, 5, 0),
+            new DiscountRule(Grade.VIP, 10_000, 50_000, 10, 0),
+            new DiscountRule(Grade.VIP, 50_000, DiscountRule.NO_LIMIT, 10, 1000)));
+
+    Member[] members;
+    int[] prices;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        members = new Member[SIZE];
+        prices = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            members[i] = new Member((long) i, "member" + i, random.nextBoolean() ? Grade.VIP : Grade.BASIC);
+            prices[i] = 1000 + random.nextInt(100_000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int rate() {
+        return sum(rateDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int fix() {
+        return sum(fixDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int ruleTable() {
+        return sum(ruleTableDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int ruleTable_bands() {
+        return sum(bandedDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    @Threads(Threads.MAX)
+    public int rate_threads() {
+        return sum(rateDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    @Threads(Threads.MAX)
+    public int fix_threads() {
+        return sum(fixDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    @Threads(Threads.MAX)
+    public int ruleTable_threads() {
+        return sum(ruleTableDiscountPolicy);
+    }
+
+    private int sum(DiscountPolicy discountPolicy) {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += discountPolicy.discount(members[i], prices[i]);
+        }
+        return sum;
+    }
+}
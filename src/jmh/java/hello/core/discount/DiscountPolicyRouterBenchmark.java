@@ -0,0 +1,103 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 할인 코드로 정책을 골라 계산하는 시간 (요청 한 건당)
+ * => map: AllBeanTest.DiscountService 방식, 요청마다 policyMap.get(discountCode)
+ * ==> 요청의 할인 코드는 요청마다 새로 만들어진 문자열이다. (맵의 키와 같은 객체가 아니므로 equals로 글자를 비교한다)
+ * => routerByHandle: 할인 코드를 미리 handle로 바꿔 두고 배열로 고른다.
+ * => routerByCode: 요청마다 handleOf(discountCode)를 거친다. (map과 비슷해야 한다)
+ * => 정책 8개, 요청마다 정책이 무작위로 바뀐다.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscountPolicyRouterBenchmark {
+
+    static final int SIZE = 1024;
+
+    Map<String, DiscountPolicy> policyMap;
+    DiscountPolicyRouter router;
+
+    Member[] members;
+    int[] prices;
+    String[] codes;
+    int[] handles;
+
+    @Setup
+    public void setup() {
+        policyMap = new LinkedHashMap<>();
+        policyMap.put("fixDiscountPolicy", new FixDiscountPolicy());
+        policyMap.put("rateDiscountPolicy", new RateDiscountPolicy());
+        for (int percent = 5; percent <= 30; percent += 5) {
+            policyMap.put("campaignDiscountPolicy" + percent,
+                    new RuleTableDiscountPolicy(List.of(DiscountRule.rate(Grade.VIP, percent))));
+        }
+        router = new DiscountPolicyRouter(policyMap);
+        String[] names = policyMap.keySet().toArray(new String[0]);
+
+        Random random = new Random(42);
+        members = new Member[SIZE];
+        prices = new int[SIZE];
+        codes = new String[SIZE];
+        handles = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            members[i] = new Member((long) i, "member" + i, random.nextBoolean() ? Grade.VIP : Grade.BASIC);
+            prices[i] = 1000 + random.nextInt(100_000);
+            codes[i] = new String(names[random.nextInt(names.length)].toCharArray());
+            handles[i] = router.handleOf(codes[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int map() {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += policyMap.get(codes[i]).discount(members[i], prices[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int routerByHandle() {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += router.discount(members[i], prices[i], handles[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int routerByCode() {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += router.discount(members[i], prices[i], codes[i]);
+        }
+        return sum;
+    }
+}
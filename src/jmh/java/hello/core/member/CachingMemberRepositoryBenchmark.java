@@ -0,0 +1,92 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MappedMemberRepository 조회 vs 그 앞에 CachingMemberRepository(10만 명)를 둔 조회
+ * => 회원 100만 명 중 일부가 주문의 대부분을 차지하도록 id를 치우치게(지수 분포) 고른다.
+ * => 끝날 때 캐시 적중률과 교체 횟수를 출력한다.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachingMemberRepositoryBenchmark {
+
+    static final int MEMBERS = 1_000_000;
+    static final int CACHE_SIZE = 100_000;
+
+    Path file;
+    MappedMemberRepository mappedRepository;
+    CachingMemberRepository cachingRepository;
+
+    @State(Scope.Thread)
+    public static class Ids {
+        final SplittableRandom random = new SplittableRandom();
+
+        long next() {
+            // 평균 2만 번째 회원 근처에 몰리는 지수 분포
+            return (long) (-Math.log(1 - random.nextDouble()) * 20_000) % MEMBERS;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("member-cache-bench", ".dat");
+        Files.delete(file);
+        mappedRepository = new MappedMemberRepository(file, MEMBERS * 2, 64 << 20);
+        for (long id = 0; id < MEMBERS; id++) {
+            mappedRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        cachingRepository = new CachingMemberRepository(mappedRepository, CACHE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("hitRate=%.3f, evictions=%d%n", cachingRepository.hitRate(), cachingRepository.evictionCount());
+        mappedRepository.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Member mapped(Ids ids) {
+        return mappedRepository.findById(ids.next());
+    }
+
+    @Benchmark
+    public Member cached(Ids ids) {
+        return cachingRepository.findById(ids.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Member mapped_threads(Ids ids) {
+        return mapped(ids);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Member cached_threads(Ids ids) {
+        return cached(ids);
+    }
+}
@@ -0,0 +1,71 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재시작 복구 시간 (스냅샷 + 로그 replay)
+ * => 회원의 절반은 스냅샷에, 나머지 절반은 스냅샷 이후 로그에 남긴 상태에서 다시 연다.
+ * */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class DurableMemberRecoveryBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int members;
+
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("member-recovery-bench");
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory, null)) {
+            List<Member> batch = new ArrayList<>(10_000);
+            for (long id = 0; id < members; id++) {
+                batch.add(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+                if (batch.size() == 10_000) {
+                    repository.saveAll(batch);
+                    batch.clear();
+                }
+                if (id == members / 2) {
+                    repository.snapshot();
+                }
+            }
+            repository.saveAll(batch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        DurableMemberRepositoryBenchmark.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int recover() {
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory, null)) {
+            return repository.count();
+        }
+    }
+}
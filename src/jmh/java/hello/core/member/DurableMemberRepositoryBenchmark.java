@@ -0,0 +1,76 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * write-ahead log 저장 처리량 (초당 save 수)
+ * => group commit은 동시에 저장하는 스레드가 많을수록 효과가 커지므로 1 / 8 / 32 스레드를 비교한다.
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurableMemberRepositoryBenchmark {
+
+    Path directory;
+    DurableMemberRepository repository;
+    final AtomicLong ids = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("member-wal-bench");
+        repository = new DurableMemberRepository(directory, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void save() {
+        long id = ids.incrementAndGet() & 0xFFFFF;
+        repository.save(new Member(id, "member", Grade.BASIC));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void save_8threads() {
+        save();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void save_32threads() {
+        save();
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * joinAll / findMembers 배치 호출과 join / findMember 반복 호출 비교 (배치 하나 기준)
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberBatchBenchmark {
+
+    @Param({"100", "1000"})
+    int batchSize;
+
+    MemberService memberService;
+    List<Member> members;
+    long[] ids;
+
+    @Setup
+    public void setup() {
+        memberService = new MemberServiceImpl(new MemoryMemberRepository());
+        members = new ArrayList<>(batchSize);
+        ids = new long[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            ids[i] = i * 31L;
+            members.add(new Member(ids[i], "member" + i, Grade.BASIC));
+        }
+        memberService.joinAll(members);
+    }
+
+    @Benchmark
+    public void joinAll() {
+        memberService.joinAll(members);
+    }
+
+    @Benchmark
+    public void joinLoop() {
+        for (Member member : members) {
+            memberService.join(member);
+        }
+    }
+
+    @Benchmark
+    public Member[] findMembers() {
+        return memberService.findMembers(ids);
+    }
+
+    @Benchmark
+    public void findMemberLoop(Blackhole blackhole) {
+        for (long id : ids) {
+            blackhole.consume(memberService.findMember(id));
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void joinAll_threads() {
+        joinAll();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void joinLoop_threads() {
+        joinLoop();
+    }
+}
@@ -0,0 +1,92 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 저장(save) 경로에 변경 피드를 붙였을 때의 비용
+ * => subscribers = -1: 피드 없이 VersionedMemberRepository만 (기준)
+ * => subscribers = 0, 1, 4: PublishingMemberRepository로 감싸고 이벤트 수만 세는 구독자를 그만큼 붙인다.
+ * => publish: 저장소 없이 피드에 발행만 하는 비용
+ *
+ * 구독자가 발행 속도를 따라가지 못하면 배압 때문에 save 처리량이 구독자 처리량으로 떨어진다.
+ * (코어가 적은 환경에서는 구독 스레드와 측정 스레드가 CPU를 나눠 쓰므로 구독자가 많을수록 느려진다)
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberChangeFeedBenchmark {
+
+    static final int MEMBERS = 1 << 16;
+    static final int MASK = MEMBERS - 1;
+
+    @Param({"-1", "0", "1", "4"})
+    int subscribers;
+
+    MemberChangeFeed feed;
+    MemberRepository memberRepository;
+    final LongAdder delivered = new LongAdder();
+    final Member member = new Member(0L, "member", Grade.BASIC);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        feed = new MemberChangeFeed(8192, 256);
+        VersionedMemberRepository versioned = new VersionedMemberRepository();
+        memberRepository = subscribers < 0 ? versioned : new PublishingMemberRepository(versioned, feed);
+        for (int i = 0; i < subscribers; i++) {
+            feed.subscribe("benchmark-" + i, events -> delivered.add(events.size()));
+        }
+        for (long id = 0; id < MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        feed.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long nextId() {
+            return (next += 7919) & MASK;
+        }
+    }
+
+    @Benchmark
+    public void save(Cursor cursor) {
+        long id = cursor.nextId();
+        memberRepository.save(new Member(id, "member", (id & 1) == 0 ? Grade.VIP : Grade.BASIC));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void save_threads(Cursor cursor) {
+        save(cursor);
+    }
+
+    @Benchmark
+    public long publish() {
+        return feed.publish(member, member);
+    }
+}
@@ -0,0 +1,96 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IndexedMemberRepository 보조 인덱스 조회 시간 (VIP 10%)
+ * => scan_*: 인덱스 없이 저장소 밖에서 id를 전부 훑어서 찾는 방식 (변경 전)
+ * => 10M 명은 힙이 커야 하므로 -Xmx12g 로 fork 한다.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@State(Scope.Benchmark)
+public class MemberQueryBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int members;
+
+    IndexedMemberRepository memberRepository;
+    Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        memberRepository = new IndexedMemberRepository();
+        List<Member> batch = new ArrayList<>(10_000);
+        for (long id = 0; id < members; id++) {
+            batch.add(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+            if (batch.size() == 10_000) {
+                memberRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        memberRepository.saveAll(batch);
+    }
+
+    @Benchmark
+    public long findByGrade() {
+        return memberRepository.findByGrade(Grade.VIP).count();
+    }
+
+    @Benchmark
+    public int countByGrade() {
+        return memberRepository.countByGrade(Grade.VIP);
+    }
+
+    @Benchmark
+    public long findByName() {
+        return memberRepository.findByName("member" + random.nextInt(members)).count();
+    }
+
+    @Benchmark
+    public long findByNamePrefix() {
+        return memberRepository.findByNamePrefix("member" + random.nextInt(members / 1000), 100).count();
+    }
+
+    @Benchmark
+    public long scan_findByGrade() {
+        long count = 0;
+        for (long id = 0; id < members; id++) {
+            if (memberRepository.findById(id).getGrade() == Grade.VIP) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long scan_findByName() {
+        String name = "member" + random.nextInt(members);
+        long count = 0;
+        for (long id = 0; id < members; id++) {
+            if (name.equals(memberRepository.findById(id).getName())) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,73 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberServiceImpl.join / findMember 처리량
+ * => *_threads 는 모든 코어에서 동시에 호출하는 경우 (저장소의 락 경합 확인용)
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberServiceBenchmark {
+
+    static final int MEMBERS = 1 << 20;
+    static final int MASK = MEMBERS - 1;
+
+    MemberService memberService;
+
+    @Setup
+    public void setup() {
+        memberService = new MemberServiceImpl(new MemoryMemberRepository());
+        for (long id = 0; id < MEMBERS; id++) {
+            memberService.join(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long nextId() {
+            return (next += 7919) & MASK;
+        }
+    }
+
+    @Benchmark
+    public void join(Cursor cursor) {
+        long id = cursor.nextId();
+        memberService.join(new Member(id, "member", Grade.BASIC));
+    }
+
+    @Benchmark
+    public Member findMember(Cursor cursor) {
+        return memberService.findMember(cursor.nextId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void join_threads(Cursor cursor) {
+        join(cursor);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Member findMember_threads(Cursor cursor) {
+        return findMember(cursor);
+    }
+}
@@ -0,0 +1,149 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 몇 안 되는 회원(HOT_MEMBERS)의 등급을 여러 스레드가 동시에 읽고 바꿀 때의 처리량
+ * => optimistic: VersionedMemberRepository (읽기는 잠그지 않고, 변경은 update의 compare-and-set)
+ * => synchronized: HashMap + Member.setGrade를 하나의 모니터로 감싼 방식 (읽기도 모니터를 잡는다)
+ * => *_reads: 읽기 3 : 변경 1 스레드, *_writes: 읽기 1 : 변경 3 스레드
+ *
+ * 결과는 그룹 전체와 메서드(read/write)별로 나온다. 변경이 많아질수록 읽기 처리량이 어떻게 바뀌는지를 본다.
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class MemberUpdateBenchmark {
+
+    static final int HOT_MEMBERS = 16;
+    static final int MASK = HOT_MEMBERS - 1;
+
+    VersionedMemberRepository versioned;
+    SynchronizedMembers synchronizedMembers;
+
+    @Setup
+    public void setup() {
+        versioned = new VersionedMemberRepository();
+        synchronizedMembers = new SynchronizedMembers();
+        for (long id = 0; id < HOT_MEMBERS; id++) {
+            versioned.save(new Member(id, "member" + id, Grade.BASIC));
+            synchronizedMembers.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long nextId() {
+            return (next += 7) & MASK;
+        }
+    }
+
+    Grade optimisticRead(Cursor cursor) {
+        return versioned.findSnapshot(cursor.nextId()).getGrade();
+    }
+
+    MemberSnapshot optimisticWrite(Cursor cursor) {
+        return versioned.update(cursor.nextId(), snapshot -> snapshot.withGrade(toggle(snapshot.getGrade())));
+    }
+
+    @Benchmark
+    @Group("optimistic_reads")
+    @GroupThreads(3)
+    public Grade optimisticReads_read(Cursor cursor) {
+        return optimisticRead(cursor);
+    }
+
+    @Benchmark
+    @Group("optimistic_reads")
+    @GroupThreads(1)
+    public MemberSnapshot optimisticReads_write(Cursor cursor) {
+        return optimisticWrite(cursor);
+    }
+
+    @Benchmark
+    @Group("optimistic_writes")
+    @GroupThreads(1)
+    public Grade optimisticWrites_read(Cursor cursor) {
+        return optimisticRead(cursor);
+    }
+
+    @Benchmark
+    @Group("optimistic_writes")
+    @GroupThreads(3)
+    public MemberSnapshot optimisticWrites_write(Cursor cursor) {
+        return optimisticWrite(cursor);
+    }
+
+    @Benchmark
+    @Group("synchronized_reads")
+    @GroupThreads(3)
+    public Grade synchronizedReads_read(Cursor cursor) {
+        return synchronizedMembers.grade(cursor.nextId());
+    }
+
+    @Benchmark
+    @Group("synchronized_reads")
+    @GroupThreads(1)
+    public void synchronizedReads_write(Cursor cursor) {
+        synchronizedMembers.toggleGrade(cursor.nextId());
+    }
+
+    @Benchmark
+    @Group("synchronized_writes")
+    @GroupThreads(1)
+    public Grade synchronizedWrites_read(Cursor cursor) {
+        return synchronizedMembers.grade(cursor.nextId());
+    }
+
+    @Benchmark
+    @Group("synchronized_writes")
+    @GroupThreads(3)
+    public void synchronizedWrites_write(Cursor cursor) {
+        synchronizedMembers.toggleGrade(cursor.nextId());
+    }
+
+    static Grade toggle(Grade grade) {
+        return grade == Grade.VIP ? Grade.BASIC : Grade.VIP;
+    }
+
+    /**
+     * 비교 기준: 공유 Member를 모니터 하나로 보호한다.
+     * */
+    static final class SynchronizedMembers {
+
+        private final Map<Long, Member> store = new HashMap<>();
+
+        synchronized void save(Member member) {
+            store.put(member.getId(), member);
+        }
+
+        synchronized Grade grade(long id) {
+            return store.get(id).getGrade();
+        }
+
+        synchronized void toggleGrade(long id) {
+            Member member = store.get(id);
+            member.setGrade(toggle(member.getGrade()));
+        }
+    }
+}
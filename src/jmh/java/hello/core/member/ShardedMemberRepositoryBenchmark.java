@@ -0,0 +1,128 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파티션 수 / 스레드 수에 따른 저장소 처리량 (스케일링 곡선)
+ * => repository: memory = MemoryMemberRepository(기준), 숫자 = ShardedMemberRepository의 파티션 수
+ * => mixed_tN: N개 스레드가 동시에 조회 7번 + 저장 1번을 반복한다. 스레드 수별 결과를 이으면 곡선이 된다.
+ * => countByGrade: 전체 조회 한 번 (memory는 forEach로 한 스레드가 훑고, sharded는 파티션을 병렬로 훑는다)
+ *
+ * 스레드 수가 코어 수보다 많으면 처리량은 더 늘지 않는다. 이때 줄어드는 폭이 락 경합의 크기다.
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedMemberRepositoryBenchmark {
+
+    static final int MEMBERS = 1 << 20;
+    static final int MASK = MEMBERS - 1;
+    // MemoryMemberRepository의 store가 static이므로 다른 벤치마크의 id와 겹치지 않게 한다.
+    static final long BASE_ID = 4_000_000_000L;
+
+    @Param({"memory", "1", "4", "16", "64"})
+    String repository;
+
+    MemberRepository memberRepository;
+
+    @Setup
+    public void setup() {
+        memberRepository = "memory".equals(repository)
+                ? new MemoryMemberRepository()
+                : new ShardedMemberRepository(Integer.parseInt(repository));
+        for (long id = 0; id < MEMBERS; id++) {
+            memberRepository.save(new Member(BASE_ID + id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long nextId() {
+            return BASE_ID + ((next += 7919) & MASK);
+        }
+    }
+
+    Member mixed(Cursor cursor) {
+        long id = cursor.nextId();
+        if ((cursor.next & 7) == 0) {
+            memberRepository.save(new Member(id, "member", Grade.BASIC));
+            return null;
+        }
+        return memberRepository.findById(id);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Member mixed_t1(Cursor cursor) {
+        return mixed(cursor);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Member mixed_t2(Cursor cursor) {
+        return mixed(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Member mixed_t4(Cursor cursor) {
+        return mixed(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Member mixed_t8(Cursor cursor) {
+        return mixed(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Member mixed_t16(Cursor cursor) {
+        return mixed(cursor);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Member mixed_t32(Cursor cursor) {
+        return mixed(cursor);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Member mixed_t64(Cursor cursor) {
+        return mixed(cursor);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int countByGrade() {
+        if (memberRepository instanceof ShardedMemberRepository sharded) {
+            return sharded.countByGrade(Grade.VIP);
+        }
+        int[] count = new int[1];
+        memberRepository.forEach(member -> {
+            if (member.getGrade() == Grade.VIP) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+}
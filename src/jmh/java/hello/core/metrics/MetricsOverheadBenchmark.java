@@ -0,0 +1,106 @@
+package hello.core.metrics;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
+import hello.core.member.MemoryMemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계측(Instrumented*)이 호출 한 번에 더하는 시간
+ * => plain*과 instrumented*의 차이가 계측 비용이다. (목표: 50ns 미만, 지연 시간은 8번에 한 번 잰다)
+ * => instrumentedDiscount_everyCall: 모든 호출의 지연 시간을 잴 때 (samplingInterval = 1)
+ * => histogramRecord: 히스토그램 기록만, nanoTime: System.nanoTime() 한 번
+ * => *_8threads: 8개 스레드가 같은 빈(같은 히스토그램)을 동시에 호출한다. (stripe가 없으면 여기서 크게 느려진다)
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    final MetricsRegistry registry = new MetricsRegistry(8);
+    final MetricsRegistry everyCallRegistry = new MetricsRegistry(1);
+
+    final DiscountPolicy plainDiscountPolicy = new RateDiscountPolicy();
+    final DiscountPolicy instrumentedDiscountPolicy =
+            new InstrumentedDiscountPolicy(new RateDiscountPolicy(), registry, "discountPolicy");
+    final DiscountPolicy everyCallDiscountPolicy =
+            new InstrumentedDiscountPolicy(new RateDiscountPolicy(), everyCallRegistry, "discountPolicy");
+
+    final MemberService plainMemberService = new MemberServiceImpl(new MemoryMemberRepository());
+    final MemberService instrumentedMemberService =
+            new InstrumentedMemberService(new MemberServiceImpl(new MemoryMemberRepository()), registry, "memberService");
+
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final Member member = new Member(3_000_000_000L, "memberA", Grade.VIP);
+
+    @Setup
+    public void setup() {
+        plainMemberService.join(member);
+    }
+
+    @Benchmark
+    public int plainDiscount() {
+        return plainDiscountPolicy.discount(member, 10000);
+    }
+
+    @Benchmark
+    public int instrumentedDiscount() {
+        return instrumentedDiscountPolicy.discount(member, 10000);
+    }
+
+    @Benchmark
+    public int instrumentedDiscount_everyCall() {
+        return everyCallDiscountPolicy.discount(member, 10000);
+    }
+
+    @Benchmark
+    public Member plainFindMember() {
+        return plainMemberService.findMember(3_000_000_000L);
+    }
+
+    @Benchmark
+    public Member instrumentedFindMember() {
+        return instrumentedMemberService.findMember(3_000_000_000L);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int plainDiscount_8threads() {
+        return plainDiscountPolicy.discount(member, 10000);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int instrumentedDiscount_8threads() {
+        return instrumentedDiscountPolicy.discount(member, 10000);
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        histogram.record(123_456);
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
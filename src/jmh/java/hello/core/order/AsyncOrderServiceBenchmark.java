@@ -0,0 +1,105 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 회원 조회에 1ms가 걸릴 때 ORDERS건을 동시에 요청하고 모두 끝날 때까지의 시간 (ms/op)
+ * => executor = bounded: OrderExecutors.newBoundedExecutor(threads, ORDERS)
+ * => executor = default: OrderExecutors.newOrderExecutor() (JDK 21 이상이면 가상 스레드, threads는 무시)
+ * => 동기 방식으로 순서대로 처리하면 ORDERS ms 이상 걸린다.
+ *
+ * 주문 하나의 지연시간 분포는 request 벤치마크를 SampleTime 모드로 본다. (다른 주문과 섞이지 않은 한 건의 비용)
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncOrderServiceBenchmark {
+
+    static final int ORDERS = 10_000;
+
+    @Param({"bounded", "default"})
+    String executorType;
+
+    @Param({"16", "64", "256"})
+    int threads;
+
+    ExecutorService executor;
+    AsyncOrderService asyncOrderService;
+
+    @Setup
+    public void setup() {
+        executor = executorType.equals("bounded")
+                ? OrderExecutors.newBoundedExecutor(threads, ORDERS)
+                : OrderExecutors.newOrderExecutor();
+        asyncOrderService = new AsyncOrderServiceImpl(
+                new OrderServiceImpl(new SlowMemberRepository(), new RateDiscountPolicy()), executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Object concurrentOrders() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            futures[i] = asyncOrderService.createOrder((long) i, "itemA", 10000);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Order request() {
+        return asyncOrderService.createOrder(1L, "itemA", 10000).join();
+    }
+
+    static class SlowMemberRepository implements MemberRepository {
+
+        @Override
+        public void save(Member member) {
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Member(memberId, "member" + memberId, Grade.VIP);
+        }
+
+        /**
+         * 저장하지 않으므로 순회할 회원이 없다.
+         * */
+        @Override
+        public void forEach(Consumer<? super Member> action) {
+        }
+    }
+}
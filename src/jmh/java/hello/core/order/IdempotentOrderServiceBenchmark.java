@@ -0,0 +1,113 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 멱등 키 조회가 createOrder에 더하는 비용 (ns/op)
+ * => plain: 키 없이 OrderServiceImpl.createOrder (기준)
+ * => newKey: 처음 보는 키, stripe 락 + 세대 확인 + map 두 번 조회 + 넣기 후 주문 생성
+ * => retry: setup에서 미리 만든 RETRY_KEYS개의 키, 락 없이 map 조회만 하고 주문은 만들지 않는다.
+ *
+ * newKey는 KEYS개의 키를 돌려 쓴다. 세대당 MAX_KEYS개라서 같은 키가 다시 올 때는 이미 잊은 뒤다. (세대 넘기기와 GC 비용 포함)
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdempotentOrderServiceBenchmark {
+
+    static final int MEMBERS = 1 << 16;
+    static final int KEYS = 1 << 20;
+    static final int MAX_KEYS = KEYS >> 2;
+    static final int RETRY_KEYS = 1 << 16;
+
+    OrderService orderService;
+    IdempotentOrderService idempotentOrderService;
+    String[] keys;
+    String[] retryKeys;
+
+    @Setup
+    public void setup() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        for (long id = 0; id < MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        idempotentOrderService = new IdempotentOrderServiceImpl(orderService, Duration.ofMinutes(1), MAX_KEYS, Duration.ofSeconds(5));
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "order-" + i;
+        }
+        retryKeys = new String[RETRY_KEYS];
+        for (int i = 0; i < RETRY_KEYS; i++) {
+            retryKeys[i] = "retry-" + i;
+            idempotentOrderService.createOrder(retryKeys[i], memberId(i), "itemA", 10000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    /**
+     * 스레드마다 다른 키를 쓰도록 스레드별 시작 위치를 섞는다.
+     * */
+    @State(Scope.Thread)
+    public static class KeyCursor {
+        int next = (int) (Thread.currentThread().getId() * 0x9E3779B9L);
+    }
+
+    @Benchmark
+    public Order plain(Cursor cursor) {
+        int i = cursor.next++;
+        return orderService.createOrder(memberId(i), "itemA", 10000);
+    }
+
+    @Benchmark
+    public Order newKey(KeyCursor cursor) {
+        int i = cursor.next++;
+        return idempotentOrderService.createOrder(keys[i & (KEYS - 1)], memberId(i), "itemA", 10000);
+    }
+
+    @Benchmark
+    public Order retry(Cursor cursor) {
+        int i = cursor.next++ & (RETRY_KEYS - 1);
+        return idempotentOrderService.createOrder(retryKeys[i], memberId(i), "itemA", 10000);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Order newKey_threads(KeyCursor cursor) {
+        return newKey(cursor);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Order retry_threads(Cursor cursor) {
+        return retry(cursor);
+    }
+
+    static long memberId(int i) {
+        return (i * 7919L) & (MEMBERS - 1);
+    }
+}
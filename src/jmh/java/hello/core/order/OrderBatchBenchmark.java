@@ -0,0 +1,74 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 장바구니 하나(batchSize 건, 회원 distinctMembers 명)를 처리하는 시간
+ * => createOrders 한 번과 createOrder 반복 호출 비교
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBatchBenchmark {
+
+    @Param({"100", "500"})
+    int batchSize;
+
+    @Param({"1", "10"})
+    int distinctMembers;
+
+    OrderService orderService;
+    long[] memberIds;
+    String[] itemNames;
+    int[] itemPrices;
+
+    @Setup
+    public void setup() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        for (long id = 0; id < distinctMembers; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+
+        memberIds = new long[batchSize];
+        itemNames = new String[batchSize];
+        itemPrices = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            memberIds[i] = i % distinctMembers;
+            itemNames[i] = "item" + i;
+            itemPrices[i] = 1000 + i;
+        }
+    }
+
+    @Benchmark
+    public OrderBatch createOrders() {
+        return orderService.createOrders(memberIds, itemNames, itemPrices);
+    }
+
+    @Benchmark
+    public void createOrderLoop(Blackhole blackhole) {
+        for (int i = 0; i < batchSize; i++) {
+            blackhole.consume(orderService.createOrder(memberIds[i], itemNames[i], itemPrices[i]));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package hello.core.order;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderLedger(컬럼 장부) vs List<Order>
+ * => append*: 주문 한 건 추가 시간 (장부는 측정 동안 계속 커진다)
+ * => scan*: 주문 1,000만 건의 결제 금액 합 (정산)
+ * => 시작할 때 1,000만 건을 쌓으면서 주문 한 건당 힙 사용량(bytes/order)을 출력한다.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class OrderLedgerBenchmark {
+
+    static final int ROWS = 10_000_000;
+    static final String[] ITEMS = {"itemA", "itemB", "itemC", "itemD"};
+
+    OrderLedger scanLedger;
+    List<Order> scanList;
+
+    OrderLedger appendLedger;
+    List<Order> appendList;
+    long next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long before = usedHeap();
+        scanLedger = new OrderLedger();
+        for (int i = 0; i < ROWS; i++) {
+            scanLedger.append(i % 100_000, ITEMS[i & 3], 1000 + (i & 1023), i & 63);
+        }
+        long ledgerBytes = usedHeap() - before;
+
+        before = usedHeap();
+        scanList = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            scanList.add(new Order((long) (i % 100_000), ITEMS[i & 3], 1000 + (i & 1023), i & 63));
+        }
+        long listBytes = usedHeap() - before;
+
+        System.out.printf("bytes/order: ledger=%.1f, List<Order>=%.1f%n",
+                (double) ledgerBytes / ROWS, (double) listBytes / ROWS);
+    }
+
+    /**
+     * 추가 벤치마크는 iteration마다 새로 시작해서 힙이 무한히 커지지 않게 한다.
+     * */
+    @Setup(Level.Iteration)
+    public void resetAppend() {
+        appendLedger = new OrderLedger();
+        appendList = new ArrayList<>();
+        next = 0;
+    }
+
+    @Benchmark
+    public long append_ledger() {
+        long i = next++;
+        return appendLedger.append(i % 100_000, ITEMS[(int) i & 3], 1000, 100);
+    }
+
+    @Benchmark
+    public boolean append_list() {
+        long i = next++;
+        return appendList.add(new Order(i % 100_000, ITEMS[(int) i & 3], 1000, 100));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long append_ledger_threads() {
+        return appendLedger.append(1L, "itemA", 1000, 100);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scan_ledger() {
+        return scanLedger.totalPrice();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scan_list() {
+        long total = 0;
+        for (Order order : scanList) {
+            total += order.calculatePrice();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scan_ledger_member() {
+        return scanLedger.totalPriceOf(42L);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
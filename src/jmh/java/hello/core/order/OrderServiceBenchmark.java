@@ -0,0 +1,64 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderServiceImpl.createOrder 처리량 (회원 조회 + 할인 계산 + Order 생성)
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    static final int MEMBERS = 1 << 16;
+
+    OrderService orderService;
+
+    @Setup
+    public void setup() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        for (long id = 0; id < MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long nextId() {
+            return (next += 7919) & (MEMBERS - 1);
+        }
+    }
+
+    @Benchmark
+    public Order createOrder(Cursor cursor) {
+        return orderService.createOrder(cursor.nextId(), "itemA", 10000);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Order createOrder_threads(Cursor cursor) {
+        return createOrder(cursor);
+    }
+}
@@ -0,0 +1,86 @@
+package hello.core.order;
+
+import hello.core.member.Grade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 생산자 64개 스레드가 동시에 주문을 누적할 때의 처리량
+ * => striped: RevenueAggregator (stripe 락)
+ * => global: 락 하나로 보호하는 같은 집계 (비교 기준)
+ * => striped_with_reader: 생산자 64개 + 스냅샷을 계속 뜨는 대시보드 스레드 1개
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RevenueAggregatorBenchmark {
+
+    static final String[] ITEMS = {"itemA", "itemB", "itemC", "itemD"};
+
+    final RevenueAggregator aggregator = new RevenueAggregator();
+    final GlobalLockAggregator globalAggregator = new GlobalLockAggregator();
+
+    @Benchmark
+    @Threads(64)
+    public void striped() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        aggregator.record(random.nextBoolean() ? Grade.VIP : Grade.BASIC, ITEMS[random.nextInt(4)], 10000, 1000);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void global() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        globalAggregator.record(random.nextBoolean() ? Grade.VIP : Grade.BASIC, ITEMS[random.nextInt(4)], 10000, 1000);
+    }
+
+    @Benchmark
+    @Group("striped_with_reader")
+    @GroupThreads(64)
+    public void producer() {
+        striped();
+    }
+
+    @Benchmark
+    @Group("striped_with_reader")
+    @GroupThreads(1)
+    public RevenueSnapshot dashboard() {
+        return aggregator.snapshot();
+    }
+
+    static class GlobalLockAggregator {
+        final long[] count = new long[Grade.values().length];
+        final long[] gross = new long[Grade.values().length];
+        final long[] discount = new long[Grade.values().length];
+        final Map<String, long[]> items = new HashMap<>();
+
+        synchronized void record(Grade grade, String itemName, int itemPrice, int discountPrice) {
+            int g = grade.ordinal();
+            count[g]++;
+            gross[g] += itemPrice;
+            discount[g] += discountPrice;
+            long[] item = items.computeIfAbsent(itemName, key -> new long[3]);
+            item[0]++;
+            item[1] += itemPrice;
+            item[2] += discountPrice;
+        }
+    }
+}
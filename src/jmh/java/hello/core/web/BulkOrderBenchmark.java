@@ -0,0 +1,135 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.AppConfig;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 주문 API에 100만 줄(약 60MB)을 올렸을 때의 처리 시간과 최대 힙 사용량
+ * => 요청 본문은 메모리에 만들어 두지 않고 읽을 때마다 한 줄씩 생성하는 InputStream을 쓴다.
+ * => 응답은 버린다. (OutputStream.nullOutputStream)
+ * => 각 측정이 끝나면 힙 영역의 최대 사용량(peak)을 출력한다. 줄 수를 늘려도 이 값이 일정해야 한다.
+ * ==> -Xmx256m에서도 끝까지 처리되어야 한다. (요청 전체를 버퍼링하면 OOM)
+ *
+ * 줄 하나당 할당량은 -prof gc (gc.alloc.rate.norm / LINES)로 본다.
+ * */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@State(Scope.Benchmark)
+public class BulkOrderBenchmark {
+
+    static final int LINES = 1_000_000;
+    static final int MEMBERS = 1000;
+
+    BulkOrderController controller;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AppConfig appConfig = new AppConfig();
+        MemberRepository memberRepository = appConfig.memberRepository();
+        for (int i = 0; i < MEMBERS; i++) {
+            memberRepository.save(new Member(2_000_000_000L + i, "member" + i, i % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        controller = new BulkOrderController(appConfig.orderService(), new ObjectMapper());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("peak heap: %d MB%n", peak >> 20);
+    }
+
+    @Benchmark
+    public long bulkOrders() throws IOException {
+        return controller.process(new GeneratedLines(LINES), OutputStream.nullOutputStream());
+    }
+
+    /**
+     * {"memberId":...,"itemName":"itemN","itemPrice":...} 줄을 count 개 만들어 내는 InputStream
+     * */
+    static final class GeneratedLines extends InputStream {
+
+        private final int count;
+        private int next;
+        private byte[] current = new byte[0];
+        private int position;
+
+        GeneratedLines(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return current[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int read = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        private boolean fill() {
+            if (position < current.length) {
+                return true;
+            }
+            if (next == count) {
+                return false;
+            }
+            int i = next++;
+            current = ("{\"memberId\":" + (2_000_000_000L + i % MEMBERS) + ",\"itemName\":\"item" + (i & 15)
+                    + "\",\"itemPrice\":" + (1000 + (i & 1023)) + "}\n").getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
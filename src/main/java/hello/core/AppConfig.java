@@ -3,14 +3,36 @@ package hello.core;
 import hello.core.discount.DiscountPolicy;
 import hello.core.discount.FixDiscountPolicy;
 import hello.core.discount.RateDiscountPolicy;
+import hello.core.discount.RuleTableDiscountPolicy;
+import hello.core.member.CachingMemberRepository;
+import hello.core.member.DurableMemberRepository;
+import hello.core.member.IndexedMemberRepository;
+import hello.core.member.MappedMemberRepository;
+import hello.core.member.MemberChangeFeed;
+import hello.core.member.MemberRepository;
 import hello.core.member.MemberService;
 import hello.core.member.MemberServiceImpl;
 import hello.core.member.MemoryMemberRepository;
+import hello.core.member.PublishingMemberRepository;
+import hello.core.member.ShardedMemberRepository;
+import hello.core.member.VersionedMemberRepository;
+import hello.core.order.AggregatingOrderService;
+import hello.core.order.AsyncOrderService;
+import hello.core.order.AsyncOrderServiceImpl;
+import hello.core.order.IdempotentOrderService;
+import hello.core.order.IdempotentOrderServiceImpl;
+import hello.core.order.LedgerOrderService;
+import hello.core.order.OrderLedger;
+import hello.core.order.OrderExecutors;
 import hello.core.order.OrderService;
 import hello.core.order.OrderServiceImpl;
+import hello.core.order.RevenueAggregator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
 /**
  * AppConfig의 등장으로 애플리케이션이 크게
  * (1) 사용 영역
@@ -38,24 +60,82 @@ public class AppConfig {
         return new MemberServiceImpl(memberRepository());
     }
 
+    /**
+     * 만들어진 주문을 장부(OrderLedger)에 남기려면 LedgerOrderService로 감싼다.
+     * 등급별/상품별 매출 합계를 누적하려면 AggregatingOrderService로 감싼다.
+     * */
     @Bean
     public OrderService orderService() {
         System.out.println("call AppConfig.orderService");
+//        return new LedgerOrderService(new OrderServiceImpl(memberRepository(), discountPolicy()), new OrderLedger());
+//        return new AggregatingOrderService(new OrderServiceImpl(memberRepository(), discountPolicy()), memberRepository(), new RevenueAggregator());
         return new OrderServiceImpl(memberRepository(), discountPolicy());
     }
 
+    /**
+     * 비동기 주문은 기존 orderService를 그대로 감싸고, 실행할 executor만 따로 주입한다.
+     * */
     @Bean
-    public MemoryMemberRepository memberRepository() {
+    public AsyncOrderService asyncOrderService() {
+        return new AsyncOrderServiceImpl(orderService(), orderExecutor());
+    }
+
+    /**
+     * 멱등 키 주문도 기존 orderService를 그대로 감싼다.
+     * => 키를 1분 동안, 세대당 최대 100만 개 기억하고, 처리 중인 같은 키의 주문은 최대 5초 기다린다.
+     * */
+    @Bean
+    public IdempotentOrderService idempotentOrderService() {
+        return new IdempotentOrderServiceImpl(orderService(), Duration.ofMinutes(1), 1_000_000, Duration.ofSeconds(5));
+    }
+
+    /**
+     * 컨테이너 종료 시 shutdown이 자동으로 호출된다. (destroyMethod 추론)
+     * */
+    @Bean
+    public ExecutorService orderExecutor() {
+        return OrderExecutors.newOrderExecutor();
+    }
+
+    /**
+     * 저장소도 할인 정책처럼 이 부분만 바꾸면 된다.
+     * MappedMemberRepository는 회원을 메모리 맵 파일에 저장하므로 재시작해도 유지된다. (close는 컨테이너 종료 시 자동 호출)
+     * DurableMemberRepository는 메모리에 두되 write-ahead log와 스냅샷으로 재시작 시 복구한다.
+     * IndexedMemberRepository는 등급/이름 인덱스를 함께 관리한다. (MemberQueryRepository)
+     * CachingMemberRepository는 느린 저장소 앞에 자주 조회되는 회원을 캐시한다. (다른 저장소를 감싸서 사용)
+     * ShardedMemberRepository는 회원을 id 해시로 나눈 파티션에 저장하고 전체 조회를 병렬로 한다. (인자가 파티션 수)
+     * VersionedMemberRepository는 불변 스냅샷을 저장하고 등급/이름 변경을 compare-and-set으로 한다. (MemberUpdateRepository)
+     * PublishingMemberRepository는 저장할 때마다 memberChangeFeed에 변경 이벤트를 발행한다. (다른 저장소를 감싸서 사용)
+     * */
+    @Bean
+    public MemberRepository memberRepository() {
         System.out.println("call AppConfig.memberRepository");
+//        return new MappedMemberRepository(java.nio.file.Path.of("members.dat"), 1 << 20, 32 << 20);
+//        return new DurableMemberRepository(java.nio.file.Path.of("member-store"), Duration.ofMinutes(5));
+//        return new IndexedMemberRepository();
+//        return new CachingMemberRepository(new MappedMemberRepository(java.nio.file.Path.of("members.dat"), 1 << 20, 32 << 20), 100_000);
+//        return new ShardedMemberRepository(64);
+//        return new VersionedMemberRepository();
+//        return new PublishingMemberRepository(new VersionedMemberRepository(), memberChangeFeed());
         return new MemoryMemberRepository();
     }
 
+    /**
+     * 회원 변경 이벤트 피드, 구독은 memberChangeFeed().subscribe로 한다.
+     * 컨테이너 종료 시 close가 자동으로 호출된다. (구독 전달 스레드 종료)
+     * */
+    @Bean
+    public MemberChangeFeed memberChangeFeed() {
+        return new MemberChangeFeed(8192, 256);
+    }
+
     /**
      * 할인 정책만 변경하면 나머지 모든 코드의 변경없이 할인 정책을 변경할 수 있게 되었다.
      * */
     @Bean
     public DiscountPolicy discountPolicy() {
 //        return new FixDiscountPolicy();
+//        return RuleTableDiscountPolicy.load("discount-rules.csv");
         return new RateDiscountPolicy();
     }
 }
@@ -4,6 +4,12 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 
+/**
+ * 컴포넌트 스캔은 빌드 시점에 만든 인덱스(META-INF/spring.components, spring-context-indexer)가 있으면 인덱스를 읽는다.
+ * => 클래스패스의 .class 파일을 하나하나 읽지 않으므로 패키지가 커져도 시작 시간이 늘지 않는다.
+ * => includeFilters의 애노테이션은 @Indexed가 붙어 있어야 인덱스를 쓰고, 아니면 예전처럼 스캔한다. (excludeFilters는 인덱스 결과에 그대로 적용된다)
+ * => -Dspring.index.ignore=true 로 인덱스를 끄고 스캔할 수 있다.
+ * */
 @Configuration
 @ComponentScan(
         excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Configuration.class)
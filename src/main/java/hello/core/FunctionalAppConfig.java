@@ -0,0 +1,47 @@
+package hello.core;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.OrderService;
+import hello.core.order.OrderServiceImpl;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * AppConfig와 같은 빈 구성을 함수형(람다)으로 등록한다.
+ * => AppConfig: @Configuration 클래스를 CGLIB으로 상속한 프록시를 만들고, @Bean 메서드를 리플렉션으로 찾아서 호출한다.
+ * => AutoAppConfig: 여기에 더해 클래스패스의 모든 클래스를 읽어서(@ComponentScan) 빈 후보를 찾는다.
+ * => FunctionalAppConfig: 빈 이름, 타입, 생성 람다(Supplier)를 직접 넘긴다.
+ * ==> 애노테이션 처리기(ConfigurationClassPostProcessor 등)를 등록하지 않으므로 스캔, CGLIB, 리플렉션이 없다.
+ *
+ * 싱글톤 보장은 CGLIB 대신 컨테이너가 한다.
+ * => memberService, orderService는 memberRepository()를 직접 호출하지 않고 컨테이너에서 꺼내므로 같은 인스턴스를 공유한다.
+ * */
+public class FunctionalAppConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    /**
+     * 빈을 등록하고 refresh까지 끝낸 컨테이너를 반환한다.
+     * */
+    public static GenericApplicationContext createContext() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        new FunctionalAppConfig().initialize(context);
+        context.refresh();
+        return context;
+    }
+
+    @Override
+    public void initialize(GenericApplicationContext context) {
+        context.registerBean("memberRepository", MemberRepository.class, MemoryMemberRepository::new);
+        context.registerBean("discountPolicy", DiscountPolicy.class, RateDiscountPolicy::new);
+        context.registerBean("memberService", MemberService.class,
+                () -> new MemberServiceImpl(context.getBean("memberRepository", MemberRepository.class)));
+        context.registerBean("orderService", OrderService.class,
+                () -> new OrderServiceImpl(
+                        context.getBean("memberRepository", MemberRepository.class),
+                        context.getBean("discountPolicy", DiscountPolicy.class)));
+    }
+}
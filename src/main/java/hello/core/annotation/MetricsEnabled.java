@@ -0,0 +1,17 @@
+package hello.core.annotation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.*;
+
+/**
+ * metrics.enabled=true 일 때만 빈으로 등록한다. (hello.core.metrics 패키지의 빈에 붙인다)
+ * => application.properties에서 켜 두므로 애플리케이션에서는 항상 동작하고,
+ *    속성이 없는 순수 스프링 컨테이너(AppConfig, AutoAppConfig 테스트)에서는 등록되지 않아 빈 타입이 바뀌지 않는다.
+ * */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnProperty(name = "metrics.enabled", havingValue = "true")
+public @interface MetricsEnabled {
+}
@@ -0,0 +1,166 @@
+package hello.core.bulk;
+
+import hello.core.codec.MemberCodec;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * MemberRepository의 회원 전체를 CSV/바이너리로 내보낸다. (형식은 MemberFileFormat)
+ *
+ * 저장소를 순회하며 한 명씩 받아 바로 스트림에 쓴다.
+ * => findAll처럼 회원 리스트를 만들지 않는다. 메모리는 쓰기 버퍼(블록 하나)만큼만 쓴다.
+ *
+ * 순회 방식은 Consistency로 정한다.
+ * => CONCURRENT(기본): repository.forEach, 저장소를 구간별로 복사한 뒤 락을 풀고 넘겨 주므로 스트림 쓰기가 느려도 저장을 막지 않는다.
+ * ==> 내보내기 전에 저장된 회원은 모두 들어가고, 내보내는 도중 저장된 회원은 들어갈 수도, 빠질 수도 있다.
+ * => SNAPSHOT: repository.forEachConsistent, 내보내기를 시작한 시점의 회원만 정확히 들어간다. (백업, 정합성 검증용)
+ * ==> 내보내는 동안 저장은 기다린다. 느린 스트림으로 내보내면 그만큼 저장이 막힌다.
+ *
+ * 스트림은 flush만 하고 닫지 않는다. (호출한 쪽이 닫는다)
+ * */
+public class MemberExporter {
+
+    public enum Consistency {
+        CONCURRENT, SNAPSHOT
+    }
+
+    static final int DEFAULT_BLOCK_BYTES = 64 * 1024;
+
+    private final MemberRepository repository;
+    private final int blockBytes;
+    private final Consistency consistency;
+
+    public MemberExporter(MemberRepository repository) {
+        this(repository, DEFAULT_BLOCK_BYTES);
+    }
+
+    public MemberExporter(MemberRepository repository, int blockBytes) {
+        this(repository, blockBytes, Consistency.CONCURRENT);
+    }
+
+    /**
+     * @param consistency SNAPSHOT이면 저장소가 forEachConsistent를 지원해야 한다. (아니면 내보낼 때 UnsupportedOperationException)
+     * */
+    public MemberExporter(MemberRepository repository, int blockBytes, Consistency consistency) {
+        if (blockBytes <= MemberFileFormat.BLOCK_HEADER) {
+            throw new IllegalArgumentException("blockBytes is too small: " + blockBytes);
+        }
+        this.repository = repository;
+        this.blockBytes = blockBytes;
+        this.consistency = consistency;
+    }
+
+    /**
+     * 이름에 줄바꿈이 있는 회원이 있으면 IllegalArgumentException이 발생한다. (그 전까지 쓴 내용은 남는다)
+     *
+     * @return 내보낸 회원 수
+     * */
+    public long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), blockBytes);
+        writer.write(MemberFileFormat.CSV_HEADER);
+        writer.write('\n');
+        long[] count = new long[1];
+        try {
+            forEach(member -> {
+                try {
+                    MemberFileFormat.writeCsvLine(writer, member);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+
+    /**
+     * @return 내보낸 회원 수
+     * */
+    public long exportBinary(OutputStream out) throws IOException {
+        BlockWriter blocks = new BlockWriter(out);
+        ByteBuffer header = ByteBuffer.allocate(MemberFileFormat.BINARY_HEADER);
+        header.putInt(MemberFileFormat.BINARY_MAGIC).putInt(MemberFileFormat.BINARY_VERSION);
+        out.write(header.array());
+        try {
+            forEach(blocks::add);
+            blocks.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return blocks.total;
+    }
+
+    private void forEach(Consumer<? super Member> action) {
+        if (consistency == Consistency.SNAPSHOT) {
+            repository.forEachConsistent(action);
+        } else {
+            repository.forEach(action);
+        }
+    }
+
+    /**
+     * 회원 기록을 블록 버퍼에 모으다가 다음 기록이 들어가지 않으면 블록 하나를 쓴다.
+     * => 블록보다 큰 기록(아주 긴 이름)은 그 기록만 담은 블록으로 따로 쓴다.
+     * */
+    private final class BlockWriter {
+        private final OutputStream out;
+        private final ByteBuffer block = ByteBuffer.allocate(blockBytes);
+        private int count;
+        private long total;
+
+        BlockWriter(OutputStream out) {
+            this.out = out;
+            block.position(MemberFileFormat.BLOCK_HEADER);
+        }
+
+        void add(Member member) {
+            int size = MemberCodec.encodedSize(member);
+            if (size > block.remaining() && count > 0) {
+                flush();
+            }
+            if (size > block.remaining()) {
+                ByteBuffer large = ByteBuffer.allocate(MemberFileFormat.BLOCK_HEADER + size);
+                large.position(MemberFileFormat.BLOCK_HEADER);
+                MemberCodec.encode(member, large);
+                write(large, 1);
+            } else {
+                MemberCodec.encode(member, block);
+                count++;
+            }
+            total++;
+        }
+
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+            write(block, count);
+            block.clear().position(MemberFileFormat.BLOCK_HEADER);
+            count = 0;
+        }
+
+        private void write(ByteBuffer buffer, int records) {
+            buffer.putInt(0, buffer.position() - MemberFileFormat.BLOCK_HEADER);
+            buffer.putInt(4, records);
+            try {
+                out.write(buffer.array(), 0, buffer.position());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package hello.core.bulk;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 대량 가져오기/내보내기 파일 형식
+ *
+ * CSV: 첫 줄은 헤더(id,name,grade), 한 줄에 회원 한 명
+ * => id는 첫 번째 쉼표 앞, grade는 마지막 쉼표 뒤, 그 사이 전체가 name이다. (이름에 쉼표가 있어도 된다)
+ * => name, grade가 null이면 빈 칸으로 쓴다. 이름에 줄바꿈이 있는 회원은 CSV로 내보낼 수 없다. (바이너리 형식을 사용한다)
+ *
+ * 바이너리: [magic 4B][version 4B] 다음에 블록이 이어진다.
+ * => 블록 = [payload 길이 4B][회원 수 4B][MemberCodec 기록 ...]
+ * => 회원 기록은 길이가 제각각이라 파일 중간에서 읽기 시작할 수 없으므로 블록 단위로 나눠서 병렬로 읽는다.
+ * */
+final class MemberFileFormat {
+
+    static final String CSV_HEADER = "id,name,grade";
+
+    static final int BINARY_MAGIC = 0x4D424B31; // "MBK1"
+    static final int BINARY_VERSION = 1;
+    static final int BINARY_HEADER = 8;
+    static final int BLOCK_HEADER = 8;
+
+    private static final long INVALID_ID = Long.MIN_VALUE; // 이 값은 id로 가져올 수 없다.
+    private static final int NO_GRADE = -1;
+    private static final int INVALID_GRADE = -2;
+
+    private static final Grade[] GRADES = Grade.values();
+    private static final byte[][] GRADE_NAMES = new byte[GRADES.length][];
+
+    static {
+        for (int i = 0; i < GRADES.length; i++) {
+            GRADE_NAMES[i] = GRADES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private MemberFileFormat() {
+    }
+
+    /**
+     * bytes[from, to) 한 줄(줄바꿈 제외)을 회원으로 바꾼다. 문자열은 이름 하나만 만든다.
+     *
+     * @param offset 오류 메시지에 쓸 파일 위치
+     * */
+    static Member parseCsvLine(byte[] bytes, int from, int to, long offset) {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        int firstComma = indexOf(bytes, from, to, (byte) ',');
+        int lastComma = lastIndexOf(bytes, from, to, (byte) ',');
+        if (firstComma < 0 || firstComma == lastComma) {
+            throw invalidLine(bytes, from, to, offset);
+        }
+        long id = parseLong(bytes, from, firstComma);
+        String name = new String(bytes, firstComma + 1, lastComma - firstComma - 1, StandardCharsets.UTF_8);
+        int grade = gradeIndex(bytes, lastComma + 1, to);
+        if (id == INVALID_ID || grade == INVALID_GRADE) {
+            throw invalidLine(bytes, from, to, offset);
+        }
+        return new Member(id, name, grade == NO_GRADE ? null : GRADES[grade]);
+    }
+
+    /**
+     * 한 줄을 writer에 바로 쓴다. (줄마다 문자열을 이어 붙이지 않는다)
+     * */
+    static void writeCsvLine(Writer writer, Member member) throws IOException {
+        String name = member.getName();
+        if (name != null && (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0)) {
+            throw new IllegalArgumentException("member name has a line break, use the binary format: id=" + member.getId());
+        }
+        writer.write(Long.toString(member.getId()));
+        writer.write(',');
+        if (name != null) {
+            writer.write(name);
+        }
+        writer.write(',');
+        if (member.getGrade() != null) {
+            writer.write(member.getGrade().name());
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * 18자리까지는 넘침 걱정 없이 바로 계산하고, 그보다 긴 값(드물다)만 Long.parseLong에 맡긴다.
+     *
+     * @return 숫자가 아니거나 long 범위를 넘으면 INVALID_ID
+     * */
+    private static long parseLong(byte[] bytes, int from, int to) {
+        boolean negative = from < to && bytes[from] == '-';
+        int i = negative ? from + 1 : from;
+        if (i == to) {
+            return INVALID_ID;
+        }
+        if (to - i > 18) {
+            try {
+                return Long.parseLong(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                return INVALID_ID;
+            }
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_ID;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return GRADES 안의 위치, 빈 칸이면 NO_GRADE, 없는 등급이면 INVALID_GRADE
+     * */
+    private static int gradeIndex(byte[] bytes, int from, int to) {
+        if (from == to) {
+            return NO_GRADE;
+        }
+        for (int g = 0; g < GRADE_NAMES.length; g++) {
+            byte[] gradeName = GRADE_NAMES[g];
+            if (gradeName.length == to - from && regionMatches(bytes, from, gradeName)) {
+                return g;
+            }
+        }
+        return INVALID_GRADE;
+    }
+
+    private static boolean regionMatches(byte[] bytes, int from, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = to - 1; i >= from; i--) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static IllegalArgumentException invalidLine(byte[] bytes, int from, int to, long offset) {
+        return new IllegalArgumentException("invalid member line at byte " + offset + ": "
+                + new String(bytes, from, Math.min(to - from, 100), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,332 @@
+package hello.core.bulk;
+
+import hello.core.codec.MemberCodec;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 회원 파일(CSV, 바이너리)을 병렬로 읽어서 MemberRepository에 저장한다. (형식은 MemberFileFormat)
+ *
+ * 파일을 chunkBytes 크기의 구간으로 나눠 ForkJoinPool에서 동시에 읽는다.
+ * => 구간마다 FileChannel의 위치 지정 읽기(read(buffer, position))로 자기 구간만 읽는다. (채널 하나를 공유해도 서로 위치를 건드리지 않는다)
+ * => 파일 전체나 회원 전체를 메모리에 올리지 않는다. 한 번에 메모리에 있는 것은 스레드마다 구간 하나와 배치 하나뿐이다.
+ * => 회원은 batchSize 명씩 모아 saveAll로 저장한다. (저장소의 락/로그 쓰기를 배치마다 한 번만 한다)
+ *
+ * CSV 구간 나누기
+ * => 구간 경계가 줄 중간에 떨어질 수 있다. 줄은 "첫 바이트가 들어 있는 구간"이 맡는다.
+ * ==> 구간은 시작 바로 앞 바이트부터 읽어서 첫 줄바꿈 뒤부터 처리하고, 구간 끝을 넘는 마지막 줄은 줄바꿈이 나올 때까지 더 읽는다.
+ *
+ * 바이너리 구간 나누기
+ * => 블록 헤더(8B)만 따라가며 블록 위치를 먼저 모은 뒤 블록 묶음 단위로 나눈다.
+ *
+ * 잘못된 줄/블록이 있으면 IllegalArgumentException이 발생한다. 그 전에 저장된 배치는 그대로 남는다.
+ * */
+public class MemberImporter {
+
+    static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+    static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final MemberRepository repository;
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    private final int batchSize;
+
+    public MemberImporter(MemberRepository repository) {
+        this(repository, ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES, DEFAULT_BATCH_SIZE);
+    }
+
+    public MemberImporter(MemberRepository repository, ForkJoinPool pool, int chunkBytes, int batchSize) {
+        if (chunkBytes < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("chunkBytes and batchSize must be positive");
+        }
+        this.repository = repository;
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return 저장한 회원 수
+     * */
+    public long importCsv(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            return pool.invoke(new CsvTask(channel, skipCsvHeader(channel, size), size));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 저장한 회원 수
+     * */
+    public long importBinary(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] blocks = scanBlocks(channel, size);
+            if (blocks.length == 1) {
+                return 0;
+            }
+            return pool.invoke(new BlockTask(channel, blocks, 0, blocks.length - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 첫 데이터 줄의 위치 (헤더가 없으면 0)
+     * */
+    private static long skipCsvHeader(FileChannel channel, long size) throws IOException {
+        byte[] header = (MemberFileFormat.CSV_HEADER.substring(0, 3)).getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, 256));
+        readFully(channel, buffer, 0);
+        byte[] head = buffer.array();
+        if (buffer.position() < header.length || !Arrays.equals(head, 0, header.length, header, 0, header.length)) {
+            return 0;
+        }
+        int newline = MemberFileFormat.indexOf(head, 0, buffer.position(), (byte) '\n');
+        return newline < 0 ? size : newline + 1;
+    }
+
+    /**
+     * @return 블록 시작 위치들, 마지막 원소는 파일 끝
+     * */
+    private static long[] scanBlocks(FileChannel channel, long size) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Math.max(MemberFileFormat.BINARY_HEADER, MemberFileFormat.BLOCK_HEADER));
+        header.limit(MemberFileFormat.BINARY_HEADER);
+        if (readFully(channel, header, 0) < MemberFileFormat.BINARY_HEADER
+                || header.getInt(0) != MemberFileFormat.BINARY_MAGIC) {
+            throw new IllegalArgumentException("not a member binary file");
+        }
+        if (header.getInt(4) != MemberFileFormat.BINARY_VERSION) {
+            throw new IllegalArgumentException("unsupported member binary version: " + header.getInt(4));
+        }
+        long[] blocks = new long[64];
+        int count = 0;
+        long position = MemberFileFormat.BINARY_HEADER;
+        while (position < size) {
+            header.clear().limit(MemberFileFormat.BLOCK_HEADER);
+            if (readFully(channel, header, position) < MemberFileFormat.BLOCK_HEADER) {
+                throw new IllegalArgumentException("truncated block header at byte " + position);
+            }
+            int payload = header.getInt(0);
+            if (payload < 0 || position + MemberFileFormat.BLOCK_HEADER + payload > size) {
+                throw new IllegalArgumentException("invalid block length " + payload + " at byte " + position);
+            }
+            if (count == blocks.length) {
+                blocks = Arrays.copyOf(blocks, count * 2);
+            }
+            blocks[count++] = position;
+            position += MemberFileFormat.BLOCK_HEADER + payload;
+        }
+        long[] result = Arrays.copyOf(blocks, count + 1);
+        result[count] = size;
+        return result;
+    }
+
+    /**
+     * buffer가 가득 차거나 파일이 끝날 때까지 읽는다.
+     *
+     * @return 읽은 바이트 수
+     * */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * 스레드(작업)마다 하나씩 쓰는 저장 배치
+     * => saveAll에 넘긴 리스트를 저장소가 들고 있을 수 있으므로 배치마다 새 리스트를 만든다.
+     * */
+    private final class Batch {
+        private List<Member> members = new ArrayList<>(batchSize);
+        private long saved;
+
+        void add(Member member) {
+            members.add(member);
+            if (members.size() == batchSize) {
+                flush();
+            }
+        }
+
+        long finish() {
+            flush();
+            return saved;
+        }
+
+        private void flush() {
+            if (members.isEmpty()) {
+                return;
+            }
+            repository.saveAll(members);
+            saved += members.size();
+            members = new ArrayList<>(batchSize);
+        }
+    }
+
+    private final class CsvTask extends RecursiveTask<Long> {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        CsvTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Long compute() {
+            if (end - start <= chunkBytes) {
+                try {
+                    return parse();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            long middle = start + (end - start) / 2;
+            CsvTask left = new CsvTask(channel, start, middle);
+            left.fork();
+            long right = new CsvTask(channel, middle, end).compute();
+            return left.join() + right;
+        }
+
+        /**
+         * [start, end) 안에서 시작하는 줄을 모두 저장한다.
+         * */
+        private long parse() throws IOException {
+            // 앞 구간 마지막 바이트가 줄바꿈인지 봐야 start에서 줄이 시작하는지 알 수 있다.
+            long from = start == 0 ? 0 : start - 1;
+            ByteBuffer buffer = ByteBuffer.allocate((int) (end - from));
+            int length = readFully(channel, buffer, from);
+            byte[] bytes = buffer.array();
+
+            int lineStart = 0;
+            if (start != 0) {
+                int newline = MemberFileFormat.indexOf(bytes, 0, length, (byte) '\n');
+                if (newline < 0) {
+                    return 0;
+                }
+                lineStart = newline + 1;
+            }
+            Batch batch = new Batch();
+            while (lineStart < length) {
+                int newline = MemberFileFormat.indexOf(bytes, lineStart, length, (byte) '\n');
+                if (newline < 0) {
+                    // 구간 끝을 넘어가는 마지막 줄
+                    byte[] line = completeLine(bytes, lineStart, length, from + length);
+                    save(batch, line, 0, line.length, from + lineStart);
+                    break;
+                }
+                save(batch, bytes, lineStart, newline, from + lineStart);
+                lineStart = newline + 1;
+            }
+            return batch.finish();
+        }
+
+        private void save(Batch batch, byte[] bytes, int lineStart, int lineEnd, long offset) {
+            if (lineEnd == lineStart || (lineEnd == lineStart + 1 && bytes[lineStart] == '\r')) {
+                return;
+            }
+            batch.add(MemberFileFormat.parseCsvLine(bytes, lineStart, lineEnd, offset));
+        }
+
+        /**
+         * @return bytes[lineStart, length) 뒤에 파일의 position부터 줄바꿈(또는 파일 끝)까지를 붙인 줄
+         * */
+        private byte[] completeLine(byte[] bytes, int lineStart, int length, long position) throws IOException {
+            byte[] line = Arrays.copyOfRange(bytes, lineStart, length + 256);
+            int lineLength = length - lineStart;
+            ByteBuffer buffer = ByteBuffer.allocate(256);
+            while (true) {
+                buffer.clear();
+                int read = readFully(channel, buffer, position);
+                int newline = MemberFileFormat.indexOf(buffer.array(), 0, read, (byte) '\n');
+                int take = newline < 0 ? read : newline;
+                if (lineLength + take > line.length) {
+                    line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + take));
+                }
+                System.arraycopy(buffer.array(), 0, line, lineLength, take);
+                lineLength += take;
+                if (newline >= 0 || read < buffer.capacity()) {
+                    return Arrays.copyOf(line, lineLength);
+                }
+                position += read;
+            }
+        }
+    }
+
+    private final class BlockTask extends RecursiveTask<Long> {
+
+        private final FileChannel channel;
+        private final long[] blocks;
+        private final int from;
+        private final int to;
+
+        /**
+         * blocks[from, to) 블록을 맡는다.
+         * */
+        BlockTask(FileChannel channel, long[] blocks, int from, int to) {
+            this.channel = channel;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from == 1 || blocks[to] - blocks[from] <= chunkBytes) {
+                try {
+                    return decode();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            BlockTask left = new BlockTask(channel, blocks, from, middle);
+            left.fork();
+            long right = new BlockTask(channel, blocks, middle, to).compute();
+            return left.join() + right;
+        }
+
+        private long decode() throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (blocks[to] - blocks[from]));
+            readFully(channel, buffer, blocks[from]);
+            buffer.flip();
+            Batch batch = new Batch();
+            for (int b = from; b < to; b++) {
+                int payload = buffer.getInt();
+                int count = buffer.getInt();
+                int blockEnd = buffer.position() + payload;
+                for (int i = 0; i < count; i++) {
+                    batch.add(MemberCodec.decode(buffer));
+                }
+                if (buffer.position() != blockEnd) {
+                    throw new IllegalArgumentException("corrupted block at byte " + blocks[b]);
+                }
+            }
+            return batch.finish();
+        }
+    }
+}
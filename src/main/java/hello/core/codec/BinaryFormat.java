@@ -0,0 +1,186 @@
+package hello.core.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MemberCodec, OrderCodec이 함께 쓰는 기본 인코딩
+ * => varint: 7bit씩 나눠 낮은 자리부터 쓰고, 뒤에 바이트가 더 있으면 최상위 bit를 1로 둔다. (LEB128, long은 최대 10B)
+ * => zigzag: 부호 있는 값을 0, -1, 1, -2, ... → 0, 1, 2, 3, ... 으로 바꿔서 작은 음수도 1B로 쓴다.
+ * => 문자열: [UTF-8 길이 + 1 (varint)][UTF-8], 길이 자리가 0이면 null
+ * ==> String.getBytes로 byte[]를 만들지 않고 char를 바로 ByteBuffer에 쓴다. (길이를 먼저 쓰기 위해 utf8Length로 한 번 더 센다)
+ *
+ * 버퍼가 모자라면 ByteBuffer의 BufferOverflowException / BufferUnderflowException이 그대로 발생한다.
+ * */
+final class BinaryFormat {
+
+    private BinaryFormat() {
+    }
+
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint is longer than 10 bytes");
+    }
+
+    static int varLongSize(long value) {
+        int bits = 64 - Long.numberOfLeadingZeros(value | 1);
+        return (bits + 6) / 7;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        writeVarLong(buffer, utf8Length(value) + 1L);
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >>> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >>> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    // 짝이 없는 surrogate는 String.getBytes(UTF_8)와 같이 '?'로 쓴다.
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >>> 12)));
+                buffer.put((byte) (0x80 | ((c >>> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * 힙 버퍼는 버퍼의 배열에서 바로 String을 만든다. direct 버퍼는 char를 직접 풀어서 만든다.
+     * => 잘못된 UTF-8은 U+FFFD로 바꾼다.
+     * */
+    static String readString(ByteBuffer buffer) {
+        long lengthPlusOne = readVarLong(buffer);
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        long length = lengthPlusOne - 1;
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("string length " + length + " exceeds remaining " + buffer.remaining());
+        }
+        int byteLength = (int) length;
+        int start = buffer.position();
+        buffer.position(start + byteLength);
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, byteLength, StandardCharsets.UTF_8);
+        }
+        return decodeUtf8(buffer, start, start + byteLength);
+    }
+
+    static int stringSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int length = utf8Length(value);
+        return varLongSize(length + 1L) + length;
+    }
+
+    static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // 4B, char 두 개
+                    bytes += 2;
+                    i++;
+                }
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private static String decodeUtf8(ByteBuffer buffer, int start, int end) {
+        char[] chars = new char[end - start];
+        int count = 0;
+        int i = start;
+        while (i < end) {
+            int b = buffer.get(i++);
+            if (b >= 0) {
+                chars[count++] = (char) b;
+                continue;
+            }
+            int extra;
+            int codePoint;
+            if ((b & 0xE0) == 0xC0) {
+                extra = 1;
+                codePoint = b & 0x1F;
+            } else if ((b & 0xF0) == 0xE0) {
+                extra = 2;
+                codePoint = b & 0x0F;
+            } else if ((b & 0xF8) == 0xF0) {
+                extra = 3;
+                codePoint = b & 0x07;
+            } else {
+                chars[count++] = '\uFFFD';
+                continue;
+            }
+            if (i + extra > end) {
+                chars[count++] = '\uFFFD';
+                break;
+            }
+            boolean valid = true;
+            for (int k = 0; k < extra; k++) {
+                int next = buffer.get(i + k);
+                if ((next & 0xC0) != 0x80) {
+                    valid = false;
+                    break;
+                }
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+            if (!valid || !Character.isValidCodePoint(codePoint)) {
+                chars[count++] = '\uFFFD';
+                continue;
+            }
+            i += extra;
+            count += Character.toChars(codePoint, chars, count);
+        }
+        return new String(chars, 0, count);
+    }
+}
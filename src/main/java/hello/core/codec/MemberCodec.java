@@ -0,0 +1,63 @@
+package hello.core.codec;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.nio.ByteBuffer;
+
+import static hello.core.codec.BinaryFormat.*;
+
+/**
+ * Member 바이너리 인코딩 (프로세스 간 전송, 파일 저장용)
+ * => Java 직렬화나 JSON보다 작고 빠르다. 필드 이름, 클래스 정보 없이 값만 순서대로 쓴다.
+ *
+ * 형식: [version 1B][id (zigzag varint)][grade 1B][name (BinaryFormat 문자열)]
+ * => grade는 ordinal, null이면 -1 (MemberWriteAheadLog와 같다)
+ * => id는 필수다. (저장소의 키)
+ * => 형식을 바꾸면 VERSION을 올리고, decode는 이전 버전도 계속 읽을 수 있어야 한다.
+ *
+ * ByteBuffer의 position부터 쓰고/읽고 position을 기록 끝으로 옮긴다. 여러 회원을 한 버퍼에 이어서 쓸 수 있다.
+ * */
+public final class MemberCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private MemberCodec() {
+    }
+
+    public static void encode(Member member, ByteBuffer buffer) {
+        if (member.getId() == null) {
+            throw new IllegalArgumentException("member id is required");
+        }
+        buffer.put(VERSION);
+        writeVarLong(buffer, zigzag(member.getId()));
+        buffer.put(member.getGrade() == null ? (byte) -1 : (byte) member.getGrade().ordinal());
+        writeString(buffer, member.getName());
+    }
+
+    /**
+     * @throws IllegalArgumentException 지원하지 않는 버전이거나 잘못된 값
+     * */
+    public static Member decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported member format version: " + version);
+        }
+        long id = unzigzag(readVarLong(buffer));
+        byte grade = buffer.get();
+        if (grade >= GRADES.length || grade < -1) {
+            throw new IllegalArgumentException("invalid grade: " + grade);
+        }
+        String name = readString(buffer);
+        return new Member(id, name, grade < 0 ? null : GRADES[grade]);
+    }
+
+    /**
+     * @return encode가 쓰는 바이트 수 (버퍼 크기를 정할 때 사용한다)
+     * */
+    public static int encodedSize(Member member) {
+        return 1 + varLongSize(zigzag(member.getId())) + 1 + stringSize(member.getName());
+    }
+}
@@ -0,0 +1,63 @@
+package hello.core.codec;
+
+import hello.core.order.Order;
+
+import java.nio.ByteBuffer;
+
+import static hello.core.codec.BinaryFormat.*;
+
+/**
+ * Order 바이너리 인코딩
+ *
+ * 형식: [version 1B][memberId (zigzag varint)][itemName (BinaryFormat 문자열)][itemPrice (zigzag varint)][discountPrice (zigzag varint)]
+ * => 금액도 varint로 써서 보통의 가격(수천 ~ 수십만 원)은 2~3B에 들어간다.
+ * => memberId는 필수다.
+ *
+ * position 처리와 버전 규칙은 MemberCodec과 같다.
+ * */
+public final class OrderCodec {
+
+    public static final byte VERSION = 1;
+
+    private OrderCodec() {
+    }
+
+    public static void encode(Order order, ByteBuffer buffer) {
+        if (order.getMemberId() == null) {
+            throw new IllegalArgumentException("order memberId is required");
+        }
+        buffer.put(VERSION);
+        writeVarLong(buffer, zigzag(order.getMemberId()));
+        writeString(buffer, order.getItemName());
+        writeVarLong(buffer, zigzag(order.getItemPrice()));
+        writeVarLong(buffer, zigzag(order.getDiscountPrice()));
+    }
+
+    /**
+     * @throws IllegalArgumentException 지원하지 않는 버전이거나 잘못된 값
+     * */
+    public static Order decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported order format version: " + version);
+        }
+        long memberId = unzigzag(readVarLong(buffer));
+        String itemName = readString(buffer);
+        int itemPrice = readInt(buffer);
+        int discountPrice = readInt(buffer);
+        return new Order(memberId, itemName, itemPrice, discountPrice);
+    }
+
+    public static int encodedSize(Order order) {
+        return 1 + varLongSize(zigzag(order.getMemberId())) + stringSize(order.getItemName())
+                + varLongSize(zigzag(order.getItemPrice())) + varLongSize(zigzag(order.getDiscountPrice()));
+    }
+
+    private static int readInt(ByteBuffer buffer) {
+        long value = unzigzag(readVarLong(buffer));
+        if (value != (int) value) {
+            throw new IllegalArgumentException("price out of int range: " + value);
+        }
+        return (int) value;
+    }
+}
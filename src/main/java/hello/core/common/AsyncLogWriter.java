@@ -0,0 +1,252 @@
+package hello.core.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * MyLogger가 사용하는 비동기 로그 출력기
+ * => System.out.println은 전역 락을 잡기 때문에 요청 스레드들이 표준 출력 앞에서 줄을 서게 된다.
+ * => 요청 스레드(producer)는 미리 만들어 둔 링 버퍼 슬롯에 uuid, url, message 참조만 넣고 바로 돌아간다. (문자열 연결, 객체 할당 없음)
+ * => 하나의 소비 스레드가 쌓인 기록을 모아서 문자열로 만들고 한 번에 출력한다. (batch write)
+ *
+ * 슬롯 확보는 tail 번호를 CAS로 하나씩 가져가는 방식이다. (multi producer)
+ * => 슬롯에 값을 다 쓴 뒤 슬롯의 sequence에 자기 번호를 기록(publish)하고, 소비 스레드는 sequence가 기다리던 번호일 때만 읽는다.
+ *
+ * 버퍼가 가득 찼을 때의 동작은 OverflowPolicy로 정한다.
+ * => DROP: 기록을 버리고 dropped 수만 센다. (요청 스레드가 절대 기다리지 않는다)
+ * => BLOCK: 자리가 날 때까지 기다린다. (로그를 잃지 않는다)
+ * ==> 처음 몇 번은 양보만 하고, 그 뒤로는 잠들어서 소비 스레드가 자리를 비우며 깨워 줄 때까지 CPU를 쓰지 않는다.
+ *
+ * => close 이후의 기록은 정책과 상관없이 버리고 dropped로 센다.
+ * */
+@Component
+public class AsyncLogWriter implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = 100_000;
+    /**
+     * BLOCK 정책에서 버퍼가 가득 찬 producer가 잠들기 전에 양보하는 횟수
+     * */
+    private static final int PRODUCER_YIELDS = 8;
+    /**
+     * 잠든 producer가 깨우는 신호 없이도 다시 확인하는 간격 (깨우기를 놓쳐도 이만큼만 늦다)
+     * */
+    private static final long PRODUCER_PARK_NANOS = 1_000_000;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final OutputStream out;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    /**
+     * 버퍼에 자리가 나기를 기다리며 잠든 producer (BLOCK 정책)
+     * */
+    private final ConcurrentLinkedQueue<Thread> waitingProducers = new ConcurrentLinkedQueue<>();
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AsyncLogWriter(@Value("${log.async.capacity:8192}") int capacity,
+                          @Value("${log.async.overflow:DROP}") OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, new FileOutputStream(FileDescriptor.out));
+    }
+
+    /**
+     * @param capacity 링 버퍼 크기, 2의 거듭제곱으로 올림한다.
+     * */
+    public AsyncLogWriter(int capacity, OverflowPolicy overflowPolicy, OutputStream out) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.out = out;
+
+        this.consumer = new Thread(this::consume, "async-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * 출력 형식: [uuid][requestURL] message (requestURL이 null이면 생략)
+     *
+     * @return 기록했으면 true, DROP 정책에서 버퍼가 가득 차서 버렸거나 이미 close 되었으면 false
+     * */
+    public boolean log(String uuid, String requestURL, String message) {
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return false;
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.uuid = uuid;
+        slot.requestURL = requestURL;
+        slot.message = message;
+        slot.publish(sequence);
+        return true;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 남은 기록을 모두 출력한 뒤 소비 스레드를 종료한다.
+     * */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        wakeProducers();
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return 확보한 번호, close 되었거나 DROP 정책에서 버퍼가 가득 찼으면 -1
+     * */
+    private long claim() {
+        int waits = 0;
+        while (true) {
+            if (!running) {
+                return -1;
+            }
+            long sequence = tail.get();
+            if (sequence - head.get() >= slots.length) {
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    return -1;
+                }
+                awaitSpace(sequence, waits++);
+                continue;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * 처음 몇 번은 양보만 하고, 그 뒤로는 waitingProducers에 올라간 다음 잠든다.
+     * => 올라간 뒤에 한 번 더 확인하므로, 그 사이에 소비 스레드가 head를 옮겼으면 잠들지 않는다.
+     * */
+    private void awaitSpace(long sequence, int waits) {
+        if (waits < PRODUCER_YIELDS) {
+            Thread.yield();
+            return;
+        }
+        Thread current = Thread.currentThread();
+        waitingProducers.add(current);
+        try {
+            if (running && sequence - head.get() >= slots.length) {
+                LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+            }
+        } finally {
+            waitingProducers.remove(current);
+        }
+    }
+
+    private void wakeProducers() {
+        for (Thread producer : waitingProducers) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    private void consume() {
+        StringBuilder batch = new StringBuilder(MAX_BATCH * 64);
+        long next = head.get();
+        while (true) {
+            int count = 0;
+            Slot slot;
+            while (count < MAX_BATCH && (slot = slots[(int) next & mask]).isPublished(next)) {
+                format(batch, slot);
+                slot.clear();
+                next++;
+                count++;
+                // 슬롯을 비운 뒤에 head를 옮겨야 producer가 그 슬롯을 다시 쓸 수 있다.
+                head.lazySet(next);
+            }
+            if (count > 0) {
+                // 출력하는 동안 기다리던 producer가 비운 슬롯을 채울 수 있게 먼저 깨운다.
+                if (!waitingProducers.isEmpty()) {
+                    wakeProducers();
+                }
+                write(batch, count);
+                continue;
+            }
+            if (!running && next == tail.get()) {
+                return;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    private static void format(StringBuilder batch, Slot slot) {
+        batch.append('[').append(slot.uuid).append(']');
+        if (slot.requestURL != null) {
+            batch.append('[').append(slot.requestURL).append(']');
+        }
+        batch.append(' ').append(slot.message).append(System.lineSeparator());
+    }
+
+    private void write(StringBuilder batch, int count) {
+        try {
+            out.write(batch.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            // 로그 출력 실패로 소비 스레드가 죽으면 이후 로그가 모두 쌓이기만 하므로 이번 묶음만 버린다.
+            dropped.add(count);
+        }
+        batch.setLength(0);
+    }
+
+    /**
+     * 링 버퍼의 한 칸, 처음에 한 번만 만들고 계속 재사용한다.
+     * */
+    private static final class Slot {
+        private final AtomicLong sequence = new AtomicLong(-1);
+        String uuid;
+        String requestURL;
+        String message;
+
+        void publish(long number) {
+            sequence.set(number);
+        }
+
+        boolean isPublished(long number) {
+            return sequence.get() == number;
+        }
+
+        void clear() {
+            uuid = null;
+            requestURL = null;
+            message = null;
+        }
+    }
+}
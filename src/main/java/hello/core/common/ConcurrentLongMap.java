@@ -0,0 +1,485 @@
+package hello.core.common;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * long 원시 타입을 키로 사용하는 동시성 Map
+ * => HashMap<Long, V> 처럼 키를 Long 객체로 박싱하지 않고 long[] 배열에 그대로 저장한다.
+ * => 전체를 N개의 세그먼트로 나누고(lock striping), 세그먼트마다 StampedLock을 둔다.
+ * ==> 쓰기는 해당 세그먼트만 잠그고, 읽기는 낙관적 읽기(tryOptimisticRead)로 락 없이 수행한다.
+ * ==> 서로 다른 세그먼트에 대한 쓰기/읽기는 서로 경합하지 않으므로 코어 수에 비례해 확장된다.
+ *
+ * null 값은 저장할 수 없다. (빈 슬롯 표시로 사용)
+ * */
+public class ConcurrentLongMap<V> {
+
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+
+    public ConcurrentLongMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongMap(int concurrencyLevel) {
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount < MAX_SEGMENTS) {
+            segmentCount <<= 1;
+        }
+        this.segments = new Segment[segmentCount];
+        // 해시 상위 비트로 세그먼트를 고르고, 하위 비트로 세그먼트 내부 슬롯을 고른다.
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    public V get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return 이전에 저장되어 있던 값, 없었다면 null
+     * */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long hash = hash(key);
+        return segmentFor(hash).put(key, hash, value);
+    }
+
+    /**
+     * 키가 없을 때만 저장한다.
+     *
+     * @return 이미 저장되어 있던 값 (이때는 저장하지 않는다), 없었다면 null
+     * */
+    public V putIfAbsent(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long hash = hash(key);
+        return segmentFor(hash).putIfAbsent(key, hash, value);
+    }
+
+    /**
+     * 저장된 값이 expected와 같은 객체(==)일 때만 newValue로 바꾼다. (compare-and-set)
+     * => 값을 불변 객체로 두면, 읽은 뒤 다른 스레드가 바꿨는지를 이것만으로 알 수 있다.
+     *
+     * @return 바꿨으면 true
+     * */
+    public boolean replace(long key, V expected, V newValue) {
+        if (newValue == null) {
+            throw new NullPointerException("newValue");
+        }
+        long hash = hash(key);
+        return segmentFor(hash).replace(key, hash, expected, newValue);
+    }
+
+    /**
+     * @return 삭제된 값, 없었다면 null
+     * */
+    public V remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     * 여러 키를 한 번에 조회한다.
+     * 키를 세그먼트별로 모아서 세그먼트마다 한 번만 검증(validate)하므로 하나씩 get 하는 것보다 싸다.
+     *
+     * @param result keys와 같은 순서로 결과가 채워진다. (없는 키는 null)
+     * */
+    public void getAll(long[] keys, V[] result) {
+        if (result.length < keys.length) {
+            throw new IllegalArgumentException("result is shorter than keys: " + result.length + " < " + keys.length);
+        }
+        long[] hashes = new long[keys.length];
+        int[] order = new int[keys.length];
+        int[] bounds = groupBySegment(keys, hashes, order);
+        for (int s = 0; s < segments.length; s++) {
+            if (bounds[s] < bounds[s + 1]) {
+                segments[s].getAll(keys, hashes, order, bounds[s], bounds[s + 1], result);
+            }
+        }
+    }
+
+    /**
+     * 여러 엔트리를 한 번에 저장한다.
+     * 세그먼트마다 락을 한 번만 잡는다. 같은 키가 여러 번 나오면 뒤에 나온 값이 남는다.
+     * */
+    public void putAll(long[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values differ in length: " + keys.length + " != " + values.length);
+        }
+        for (V value : values) {
+            if (value == null) {
+                throw new NullPointerException("value");
+            }
+        }
+        long[] hashes = new long[keys.length];
+        int[] order = new int[keys.length];
+        int[] bounds = groupBySegment(keys, hashes, order);
+        for (int s = 0; s < segments.length; s++) {
+            if (bounds[s] < bounds[s + 1]) {
+                segments[s].putAll(keys, hashes, values, order, bounds[s], bounds[s + 1]);
+            }
+        }
+    }
+
+    /**
+     * 세그먼트 단위로 복사본을 떠서 순회한다. (약한 일관성)
+     * => 세그먼트의 읽기 락은 복사하는 동안에만 잡으므로 action이 오래 걸려도 쓰기를 막지 않는다.
+     * => 순회 도중 일어난 변경은 보일 수도, 보이지 않을 수도 있다.
+     * */
+    public void forEach(EntryConsumer<? super V> action) {
+        for (Segment<V> segment : segments) {
+            Table copy = segment.copy();
+            for (int i = 0; i < copy.keys.length; i++) {
+                Object value = copy.values[i];
+                if (value != null) {
+                    action.accept(copy.keys[i], Segment.<V>cast(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * 모든 세그먼트의 읽기 락을 잡은 채로 복사 없이 순회한다. (한 시점의 일관된 스냅샷)
+     * => 순회가 끝날 때까지 쓰기는 기다린다. 조회는 낙관적 읽기라서 막히지 않는다.
+     * => action 안에서 이 Map에 쓰면 교착 상태가 된다.
+     * ==> 대량 내보내기처럼 한 시점의 전체 상태가 필요할 때만 사용하고, 그 외에는 forEach를 사용한다.
+     * */
+    @SuppressWarnings("unchecked")
+    public void forEachConsistent(EntryConsumer<? super V> action) {
+        forEachConsistent(new ConcurrentLongMap[]{this}, action);
+    }
+
+    /**
+     * 여러 Map의 모든 세그먼트 읽기 락을 잡은 채로 순회한다. (Map 여러 개에 걸친 한 시점의 스냅샷)
+     * => 락은 항상 maps 순서, 세그먼트 순서로 잡으므로 같은 maps 배열로 동시에 호출해도 교착 상태가 되지 않는다.
+     * */
+    public static <V> void forEachConsistent(ConcurrentLongMap<V>[] maps, EntryConsumer<? super V> action) {
+        int total = 0;
+        for (ConcurrentLongMap<V> map : maps) {
+            total += map.segments.length;
+        }
+        StampedLock[] locks = new StampedLock[total];
+        long[] stamps = new long[total];
+        int locked = 0;
+        try {
+            for (ConcurrentLongMap<V> map : maps) {
+                for (Segment<V> segment : map.segments) {
+                    stamps[locked] = segment.lock.readLock();
+                    locks[locked++] = segment.lock;
+                }
+            }
+            for (ConcurrentLongMap<V> map : maps) {
+                for (Segment<V> segment : map.segments) {
+                    Table table = segment.table;
+                    for (int i = 0; i < table.keys.length; i++) {
+                        Object value = table.values[i];
+                        if (value != null) {
+                            action.accept(table.keys[i], Segment.<V>cast(value));
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (int s = locked - 1; s >= 0; s--) {
+                locks[s].unlockRead(stamps[s]);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[segmentIndex(hash)];
+    }
+
+    private int segmentIndex(long hash) {
+        if (segmentShift == 64) {
+            return 0;
+        }
+        return (int) (hash >>> segmentShift);
+    }
+
+    /**
+     * 키를 세그먼트 순서로 정렬한 인덱스(order)를 만든다. (counting sort, 같은 세그먼트 안에서는 입력 순서 유지)
+     *
+     * @return 세그먼트 s의 키는 order[bounds[s]] ~ order[bounds[s + 1] - 1]
+     * */
+    private int[] groupBySegment(long[] keys, long[] hashes, int[] order) {
+        int[] bounds = new int[segments.length + 1];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i]);
+            bounds[segmentIndex(hashes[i]) + 1]++;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            bounds[s + 1] += bounds[s];
+        }
+        int[] next = bounds.clone();
+        for (int i = 0; i < keys.length; i++) {
+            order[next[segmentIndex(hashes[i])]++] = i;
+        }
+        return bounds;
+    }
+
+    /**
+     * 연속된 id(1, 2, 3...)가 같은 세그먼트/슬롯에 몰리지 않도록 비트를 섞는다. (MurmurHash3 fmix64)
+     * */
+    static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * keys/values 배열을 하나의 객체로 묶어서 교체한다.
+     * 낙관적 읽기 도중 resize가 일어나도 서로 다른 세대의 배열을 섞어 읽지 않도록 하기 위함이다.
+     * */
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int capacity) {
+            this(new long[capacity], new Object[capacity]);
+        }
+
+        Table(long[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+            this.mask = keys.length - 1;
+        }
+    }
+
+    private static final class Segment<V> {
+
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        private volatile int size;
+
+        V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            Object value = find(table, key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    value = find(table, key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return cast(value);
+        }
+
+        void getAll(long[] keys, long[] hashes, int[] order, int from, int to, Object[] result) {
+            long stamp = lock.tryOptimisticRead();
+            Table t = table;
+            for (int i = from; i < to; i++) {
+                int index = order[i];
+                result[index] = find(t, keys[index], hashes[index]);
+            }
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    for (int i = from; i < to; i++) {
+                        int index = order[i];
+                        result[index] = find(table, keys[index], hashes[index]);
+                    }
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+        }
+
+        Table copy() {
+            long stamp = lock.readLock();
+            try {
+                return new Table(table.keys.clone(), table.values.clone());
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        V put(long key, long hash, V value) {
+            long stamp = lock.writeLock();
+            try {
+                return putLocked(key, hash, value);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        V putIfAbsent(long key, long hash, V value) {
+            long stamp = lock.writeLock();
+            try {
+                Object existing = find(table, key, hash);
+                if (existing != null) {
+                    return cast(existing);
+                }
+                return putLocked(key, hash, value);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean replace(long key, long hash, V expected, V newValue) {
+            long stamp = lock.writeLock();
+            try {
+                if (expected == null || find(table, key, hash) != expected) {
+                    return false;
+                }
+                putLocked(key, hash, newValue);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void putAll(long[] keys, long[] hashes, Object[] values, int[] order, int from, int to) {
+            long stamp = lock.writeLock();
+            try {
+                for (int i = from; i < to; i++) {
+                    int index = order[i];
+                    putLocked(keys[index], hashes[index], values[index]);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private V putLocked(long key, long hash, Object value) {
+            Table t = table;
+            int index = (int) hash & t.mask;
+            while (t.values[index] != null) {
+                if (t.keys[index] == key) {
+                    Object previous = t.values[index];
+                    t.values[index] = value;
+                    return cast(previous);
+                }
+                index = (index + 1) & t.mask;
+            }
+            t.keys[index] = key;
+            t.values[index] = value;
+            int newSize = size + 1;
+            size = newSize;
+            if (newSize > (t.keys.length >> 1) + (t.keys.length >> 2)) {
+                table = resize(t);
+            }
+            return null;
+        }
+
+        V remove(long key, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int index = (int) hash & t.mask;
+                while (t.values[index] != null) {
+                    if (t.keys[index] == key) {
+                        Object previous = t.values[index];
+                        shiftBack(t, index);
+                        size = size - 1;
+                        return cast(previous);
+                    }
+                    index = (index + 1) & t.mask;
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 선형 탐사(linear probing)에서 삭제 표시(tombstone)를 남기지 않도록
+         * 뒤따르는 엔트리들을 빈 자리로 당겨온다.
+         * */
+        private static void shiftBack(Table t, int hole) {
+            int index = hole;
+            while (true) {
+                index = (index + 1) & t.mask;
+                Object value = t.values[index];
+                if (value == null) {
+                    break;
+                }
+                int home = (int) hash(t.keys[index]) & t.mask;
+                // home이 (hole, index] 구간 밖에 있으면 hole 자리로 옮겨도 탐색 경로가 끊기지 않는다.
+                boolean movable = hole <= index
+                        ? (home <= hole || home > index)
+                        : (home <= hole && home > index);
+                if (movable) {
+                    t.keys[hole] = t.keys[index];
+                    t.values[hole] = value;
+                    hole = index;
+                }
+            }
+            t.values[hole] = null;
+            t.keys[hole] = 0L;
+        }
+
+        private static Table resize(Table old) {
+            Table resized = new Table(old.keys.length << 1);
+            for (int i = 0; i < old.keys.length; i++) {
+                Object value = old.values[i];
+                if (value != null) {
+                    long key = old.keys[i];
+                    int index = (int) hash(key) & resized.mask;
+                    while (resized.values[index] != null) {
+                        index = (index + 1) & resized.mask;
+                    }
+                    resized.keys[index] = key;
+                    resized.values[index] = value;
+                }
+            }
+            return resized;
+        }
+
+        /**
+         * 낙관적 읽기 중에는 쓰기와 겹칠 수 있으므로 탐색 길이를 배열 크기로 제한한다.
+         * (결과는 호출한 쪽에서 validate로 검증한다.)
+         * */
+        private static Object find(Table t, long key, long hash) {
+            int index = (int) hash & t.mask;
+            for (int probes = 0; probes < t.keys.length; probes++) {
+                Object value = t.values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (t.keys[index] == key) {
+                    return value;
+                }
+                index = (index + 1) & t.mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V cast(Object value) {
+            return (V) value;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package hello.core.common;
+
+/**
+ * 요청 하나의 로그 문맥(uuid, requestURL)을 현재 스레드에 묶어 두는 클래스
+ * => MyLogger(request scope + CGLIB 프록시)는 호출할 때마다 프록시 -> RequestContextHolder -> request attribute 조회를 거치고,
+ *    요청마다 빈을 새로 만들고 @PostConstruct / @PreDestroy 콜백을 실행한다.
+ * => LogContext는 LogContextFilter가 요청마다 한 번 만들어서 ThreadLocal에 넣고, 요청이 끝나면 지운다.
+ * ==> 컨트롤러/서비스는 LogContext.current()로 꺼내서 필드를 바로 읽는다. (프록시, 스코프 조회 없음)
+ *
+ * 요청 스레드 안에서만 유효하다. 다른 스레드(비동기 처리 등)로 넘길 때는 LogContext 객체를 직접 넘겨야 한다.
+ * */
+public final class LogContext {
+
+    private static final ThreadLocal<LogContext> CURRENT = new ThreadLocal<>();
+
+    private final String uuid;
+    private final String requestURL;
+    private final AsyncLogWriter logWriter;
+
+    public LogContext(String uuid, String requestURL, AsyncLogWriter logWriter) {
+        this.uuid = uuid;
+        this.requestURL = requestURL;
+        this.logWriter = logWriter;
+    }
+
+    /**
+     * 현재 스레드에 context를 묶는다. 반드시 finally에서 clear()를 호출해야 한다. (스레드 풀 재사용)
+     * */
+    public static void bind(LogContext context) {
+        CURRENT.set(context);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @throws IllegalStateException 요청 스레드가 아니라서(LogContextFilter를 거치지 않아서) context가 없는 경우
+     * */
+    public static LogContext current() {
+        LogContext context = CURRENT.get();
+        if (context == null) {
+            throw new IllegalStateException("no LogContext bound to thread " + Thread.currentThread().getName());
+        }
+        return context;
+    }
+
+    public void log(String message) {
+        logWriter.log(uuid, requestURL, message);
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getRequestURL() {
+        return requestURL;
+    }
+}
@@ -0,0 +1,40 @@
+package hello.core.common;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * 요청마다 한 번 LogContext를 만들어서 요청 스레드에 묶고, 요청이 끝나면 지운다.
+ * => 스프링 부트가 Filter 타입의 빈을 서블릿 필터로 자동 등록한다.
+ * */
+@Component
+public class LogContextFilter implements Filter {
+
+    private final AsyncLogWriter logWriter;
+
+    public LogContextFilter(AsyncLogWriter logWriter) {
+        this.logWriter = logWriter;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String requestURL = request instanceof HttpServletRequest httpRequest
+                ? httpRequest.getRequestURL().toString()
+                : null;
+        LogContext.bind(new LogContext(UUID.randomUUID().toString(), requestURL, logWriter));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            LogContext.clear();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package hello.core.common;
+
+import java.util.Arrays;
+
+/**
+ * long 원시 타입 집합 (스레드 안전하지 않음)
+ * => HashSet<Long>처럼 원소마다 Long 객체와 노드를 만들지 않고 long[] 하나에 선형 탐사로 저장한다.
+ * => 동시성이 필요하면 사용하는 쪽에서 락으로 보호한다.
+ * */
+public class LongHashSet {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    public LongHashSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity - (capacity >> 2) < expectedSize) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return 새로 추가되었으면 true, 이미 있었으면 false
+     * */
+    public boolean add(long key) {
+        int index = (int) ConcurrentLongMap.hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        used[index] = true;
+        if (++size > keys.length - (keys.length >> 2)) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        int index = (int) ConcurrentLongMap.hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return 삭제되었으면 true, 없었으면 false
+     * */
+    public boolean remove(long key) {
+        int index = (int) ConcurrentLongMap.hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                shiftBack(index);
+                size--;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size];
+        int i = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                result[i++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ConcurrentLongMap.Segment.shiftBack과 같은 방식 (tombstone 없는 삭제)
+     * */
+    private void shiftBack(int hole) {
+        int index = hole;
+        while (true) {
+            index = (index + 1) & mask;
+            if (!used[index]) {
+                break;
+            }
+            int home = (int) ConcurrentLongMap.hash(keys[index]) & mask;
+            boolean movable = hole <= index
+                    ? (home <= hole || home > index)
+                    : (home <= hole && home > index);
+            if (movable) {
+                keys[hole] = keys[index];
+                hole = index;
+            }
+        }
+        used[hole] = false;
+        keys[hole] = 0L;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length << 1];
+        used = new boolean[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                int index = (int) ConcurrentLongMap.hash(oldKeys[slot]) & mask;
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[slot];
+                used[index] = true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        long[] values = toArray();
+        Arrays.sort(values);
+        return Arrays.toString(values);
+    }
+}
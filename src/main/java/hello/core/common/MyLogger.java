@@ -16,30 +16,40 @@ import java.util.UUID;
  * ==> CGLIB 이라는 라이브러리를 이용해서 내 클래스를 상속받은 가짜 프록시 객체를 만들어서 주입한다. (의존관계 주입 단계에서 가짜 Proxy 객체가 주입되는 것)
  * ==> 가짜 프록시 객체는 요청이 오면 그 때 내부에서 진짜 Bean을 요청하는 위임 로직을 가지고 있다.
  * ==> 가짜 프록시 객체는 원본 클래스를 상속받아서 만들어졌기 때문에 이 객체를 사용하는 클라이언트 입장에서는 원본인지 상관없이 동일하게 사용할 수 있다. (다형성!!)
+ *
+ * 출력은 System.out.println 대신 AsyncLogWriter(싱글톤)에 맡긴다.
+ * => 요청 스레드는 문자열을 연결하지 않고 uuid, requestURL, message만 넘긴다.
+ *
+ * LogDemoController / LogDemoService는 이제 LogContext(프록시 없는 ThreadLocal)를 사용한다.
+ * => MyLogger는 request scope + 프록시 방식과 비교하기 위해 남겨 둔다. (LogContextBenchmark)
  * */
 @Component
 @Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS) // MyLogger -> Proxy로 생성
 public class MyLogger {
+    private final AsyncLogWriter logWriter;
     private String uuid;
     private String requestURL;
 
+    public MyLogger(AsyncLogWriter logWriter) {
+        this.logWriter = logWriter;
+    }
+
     public void setRequestURL(String requestURL) {
         this.requestURL = requestURL;
     }
 
     public void log(String message) {
-        System.out.println("[" + uuid + "]" + "[" + requestURL + "] " +
-                message);
+        logWriter.log(uuid, requestURL, message);
     }
 
     @PostConstruct
     public void init() {
         uuid = UUID.randomUUID().toString();
-        System.out.println("[" + uuid + "] request scope bean create:" + this);
+        logWriter.log(uuid, null, "request scope bean create:" + this);
     }
 
     @PreDestroy
     public void close() {
-        System.out.println("[" + uuid + "] request scope bean close:" + this);
+        logWriter.log(uuid, null, "request scope bean close:" + this);
     }
 }
\ No newline at end of file
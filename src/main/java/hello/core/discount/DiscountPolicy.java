@@ -9,4 +9,12 @@ public interface DiscountPolicy {
      * */
     int discount(Member member, int price);
 
+    /**
+     * 여러 건의 할인 금액을 한 번에 계산해서 discountPrices에 채운다.
+     * */
+    default void discount(Member[] members, int[] prices, int[] discountPrices) {
+        for (int i = 0; i < members.length; i++) {
+            discountPrices[i] = discount(members[i], prices[i]);
+        }
+    }
 }
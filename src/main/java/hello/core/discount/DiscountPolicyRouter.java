@@ -0,0 +1,72 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 할인 코드(빈 이름)로 할인 정책을 골라 계산한다. (AllBeanTest.DiscountService의 Map<String, DiscountPolicy> 방식)
+ * => Map 방식은 요청마다 할인 코드 문자열의 hashCode/equals를 계산한다.
+ * => 시작할 때 모든 DiscountPolicy 빈을 배열에 넣고, 할인 코드를 배열 번호(handle)로 바꿔 둔다.
+ * ==> 호출하는 쪽은 handleOf로 handle을 한 번만 구해 두고(설정 로딩, 캠페인 등록 시점), 요청마다 handle로 계산한다. (배열 조회 한 번)
+ *
+ * handle은 할인 코드의 사전 순서라서 같은 빈 구성이면 항상 같은 값이다.
+ * */
+@Component
+public class DiscountPolicyRouter {
+
+    private final String[] codes;
+    private final DiscountPolicy[] policies;
+    private final Map<String, Integer> handles = new HashMap<>();
+
+    public DiscountPolicyRouter(Map<String, DiscountPolicy> policyMap) {
+        this.codes = policyMap.keySet().toArray(new String[0]);
+        Arrays.sort(codes);
+        this.policies = new DiscountPolicy[codes.length];
+        for (int handle = 0; handle < codes.length; handle++) {
+            policies[handle] = policyMap.get(codes[handle]);
+            handles.put(codes[handle], handle);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException 없는 할인 코드
+     * */
+    public int handleOf(String discountCode) {
+        Integer handle = handles.get(discountCode);
+        if (handle == null) {
+            throw new IllegalArgumentException("unknown discount code: " + discountCode);
+        }
+        return handle;
+    }
+
+    public String codeOf(int handle) {
+        return codes[handle];
+    }
+
+    public DiscountPolicy policyOf(int handle) {
+        return policies[handle];
+    }
+
+    public int size() {
+        return policies.length;
+    }
+
+    public int discount(Member member, int price, int handle) {
+        return policies[handle].discount(member, price);
+    }
+
+    public void discount(Member[] members, int[] prices, int[] discountPrices, int handle) {
+        policies[handle].discount(members, prices, discountPrices);
+    }
+
+    /**
+     * 요청마다 코드를 바꾸는 비용이 드는 편의 메서드, 반복 호출하는 곳에서는 handle을 사용한다.
+     * */
+    public int discount(Member member, int price, String discountCode) {
+        return discount(member, price, handleOf(discountCode));
+    }
+}
@@ -0,0 +1,96 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+/**
+ * 할인 규칙 한 줄: 등급 + 가격 구간[minPrice, maxPrice) + 정률(%) / 정액 할인
+ * => 정률과 정액이 둘 다 있으면 더해서 할인한다.
+ * */
+public class DiscountRule {
+
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private final Grade grade;
+    private final int minPrice;
+    private final int maxPrice;
+    private final int ratePercent;
+    private final int fixedAmount;
+
+    public DiscountRule(Grade grade, int minPrice, int maxPrice, int ratePercent, int fixedAmount) {
+        if (grade == null) {
+            throw new IllegalArgumentException("grade is required");
+        }
+        if (minPrice < 0 || maxPrice <= minPrice) {
+            throw new IllegalArgumentException("invalid price band: [" + minPrice + ", " + maxPrice + ")");
+        }
+        if (ratePercent < 0 || ratePercent > 100 || fixedAmount < 0) {
+            throw new IllegalArgumentException("invalid discount: rate=" + ratePercent + "%, fixed=" + fixedAmount);
+        }
+        this.grade = grade;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.ratePercent = ratePercent;
+        this.fixedAmount = fixedAmount;
+    }
+
+    public static DiscountRule rate(Grade grade, int ratePercent) {
+        return new DiscountRule(grade, 0, NO_LIMIT, ratePercent, 0);
+    }
+
+    public static DiscountRule fixed(Grade grade, int fixedAmount) {
+        return new DiscountRule(grade, 0, NO_LIMIT, 0, fixedAmount);
+    }
+
+    /**
+     * CSV 한 줄을 규칙으로 바꾼다.
+     * 형식: grade,minPrice,maxPrice,ratePercent,fixedAmount (maxPrice가 비어 있으면 상한 없음)
+     * 예: VIP,0,,10,0
+     * */
+    public static DiscountRule parse(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 5) {
+            throw new IllegalArgumentException("expected 5 columns: " + line);
+        }
+        try {
+            Grade grade = Grade.valueOf(columns[0].trim());
+            int minPrice = Integer.parseInt(columns[1].trim());
+            int maxPrice = columns[2].isBlank() ? NO_LIMIT : Integer.parseInt(columns[2].trim());
+            int ratePercent = Integer.parseInt(columns[3].trim());
+            int fixedAmount = Integer.parseInt(columns[4].trim());
+            return new DiscountRule(grade, minPrice, maxPrice, ratePercent, fixedAmount);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid discount rule: " + line, e);
+        }
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    public int getRatePercent() {
+        return ratePercent;
+    }
+
+    public int getFixedAmount() {
+        return fixedAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "DiscountRule{" +
+                "grade=" + grade +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", ratePercent=" + ratePercent +
+                ", fixedAmount=" + fixedAmount +
+                '}';
+    }
+}
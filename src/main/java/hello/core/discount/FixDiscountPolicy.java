@@ -17,4 +17,11 @@ public class FixDiscountPolicy implements DiscountPolicy {
             return 0;
         }
     }
+
+    @Override
+    public void discount(Member[] members, int[] prices, int[] discountPrices) {
+        for (int i = 0; i < members.length; i++) {
+            discountPrices[i] = members[i].getGrade() == Grade.VIP ? discountFixAmount : 0;
+        }
+    }
 }
@@ -20,4 +20,11 @@ public class RateDiscountPolicy implements DiscountPolicy {
             return 0;
         }
     }
+
+    @Override
+    public void discount(Member[] members, int[] prices, int[] discountPrices) {
+        for (int i = 0; i < members.length; i++) {
+            discountPrices[i] = members[i].getGrade() == Grade.VIP ? prices[i] * discountPercent / 100 : 0;
+        }
+    }
 }
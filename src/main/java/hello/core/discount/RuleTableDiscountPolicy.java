@@ -0,0 +1,118 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 규칙 테이블로 동작하는 할인 정책
+ * => 규칙이 늘어날 때마다 if (grade == VIP) 분기와 새 빈, @Qualifier를 추가하지 않아도 된다.
+ *
+ * 생성 시점에 규칙을 등급(Grade.ordinal()) 별로 모아서 가격 구간 시작점 순으로 정렬된 평평한 배열로 컴파일한다.
+ * [등급0 구간들][등급1 구간들]... 이고, 규칙이 없는 가격 구간은 할인 0인 구간으로 채운다.
+ * => 계산은 등급으로 구간 범위를 찾고, 가격보다 작거나 같은 시작점의 개수를 세서 구간을 고른다. (객체 할당 없음)
+ * */
+public class RuleTableDiscountPolicy implements DiscountPolicy {
+
+    private static final int GRADES = Grade.values().length;
+
+    private final int[] gradeOffsets;
+    private final int[] lowerBounds;
+    private final int[] ratePercents;
+    private final int[] fixedAmounts;
+
+    public RuleTableDiscountPolicy(List<DiscountRule> rules) {
+        List<DiscountRule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparing(DiscountRule::getGrade).thenComparingInt(DiscountRule::getMinPrice));
+
+        // 규칙마다 최대 두 구간(빈 구간 + 규칙 구간) + 등급마다 마지막 빈 구간
+        int capacity = sorted.size() * 2 + GRADES;
+        int[] lower = new int[capacity];
+        int[] rates = new int[capacity];
+        int[] fixed = new int[capacity];
+        this.gradeOffsets = new int[GRADES + 1];
+
+        int size = 0;
+        int index = 0;
+        for (int grade = 0; grade < GRADES; grade++) {
+            gradeOffsets[grade] = size;
+            int covered = 0;
+            DiscountRule previous = null;
+            while (index < sorted.size() && sorted.get(index).getGrade().ordinal() == grade) {
+                DiscountRule rule = sorted.get(index++);
+                if (rule.getMinPrice() < covered) {
+                    throw new IllegalArgumentException("overlapping discount rules: " + previous + ", " + rule);
+                }
+                if (rule.getMinPrice() > covered) {
+                    lower[size++] = covered;
+                }
+                lower[size] = rule.getMinPrice();
+                rates[size] = rule.getRatePercent();
+                fixed[size] = rule.getFixedAmount();
+                size++;
+                covered = rule.getMaxPrice();
+                previous = rule;
+            }
+            if (size == gradeOffsets[grade] || covered != DiscountRule.NO_LIMIT) {
+                lower[size++] = covered;
+            }
+        }
+        gradeOffsets[GRADES] = size;
+
+        this.lowerBounds = Arrays.copyOf(lower, size);
+        this.ratePercents = Arrays.copyOf(rates, size);
+        this.fixedAmounts = Arrays.copyOf(fixed, size);
+    }
+
+    /**
+     * 클래스패스의 CSV 파일에서 규칙을 읽는다. 빈 줄과 #으로 시작하는 줄은 무시한다.
+     * */
+    public static RuleTableDiscountPolicy load(String resource) {
+        InputStream in = RuleTableDiscountPolicy.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("discount rule table not found: " + resource);
+        }
+        List<DiscountRule> rules = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    rules.add(DiscountRule.parse(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new RuleTableDiscountPolicy(rules);
+    }
+
+    /**
+     * 등급이 없는(null) 회원에게는 적용되는 규칙이 없으므로 할인하지 않는다. (RateDiscountPolicy와 같다)
+     * */
+    @Override
+    public int discount(Member member, int price) {
+        Grade memberGrade = member.getGrade();
+        if (memberGrade == null) {
+            return 0;
+        }
+        int grade = memberGrade.ordinal();
+        int from = gradeOffsets[grade];
+        int to = gradeOffsets[grade + 1];
+
+        int band = from;
+        for (int i = from + 1; i < to; i++) {
+            band += lowerBounds[i] <= price ? 1 : 0;
+        }
+        return fixedAmounts[band] + (int) ((long) price * ratePercents[band] / 100);
+    }
+}
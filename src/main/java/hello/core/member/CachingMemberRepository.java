@@ -0,0 +1,434 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 다른 MemberRepository 앞에 두는 조회 캐시 (데코레이터)
+ * => 주문마다 findById가 호출되므로, 느린 저장소(파일, 원격 등)를 쓸 때 자주 주문하는 회원은 메모리에서 바로 꺼낸다.
+ * => AppConfig.memberRepository()에서 감싸기만 하면 되고 서비스 코드는 바뀌지 않는다.
+ *
+ * 크기 제한과 교체 정책 (TinyLFU)
+ * => 모든 조회를 count-min sketch(FrequencySketch)에 기록해서 id별 최근 조회 빈도를 근사한다.
+ * => 캐시가 가득 차면 새 회원(candidate)과 가장 오래된 회원(victim)의 빈도를 비교해서 더 자주 조회된 쪽을 남긴다.
+ * ==> 한 번 조회되고 마는 회원들이 자주 조회되는 회원을 밀어내지 못한다. (scan 저항)
+ * => victim이 이기면 맨 뒤로 보내서 다음에는 다른 회원과 비교되게 한다.
+ *
+ * 저장(save)은 write-through
+ * => 원래 저장소에 먼저 저장하고, 캐시에 있던 회원이면 새 값으로 바꾼다.
+ * => 캐시 miss로 원래 저장소에서 읽어 오는 사이에 같은 id가 저장되면 읽어 온 (이전) 값은 캐시에 넣지 않는다.
+ *
+ * 캐시 조회(hit)는 락 없이 ConcurrentLongMap에서 읽고, 캐시 변경(추가/교체/갱신)만 락을 잡는다.
+ * => 조회 기록도 sketch를 바로 고치지 않고 스레드별로 나뉜 ReadBuffer에 id만 넣는다. (Caffeine과 같은 방식)
+ * ==> 버퍼가 반쯤 차면 policyLock을 tryLock 해서 잡은 스레드 하나가 모아서 sketch에 반영한다. (sketch는 policyLock 안에서만 바뀐다)
+ * ==> 버퍼가 가득 찼거나 다른 스레드와 같은 칸을 두고 경합하면 그 기록은 버린다. 빈도는 근사치라서 일부 유실은 문제되지 않는다.
+ *
+ * findAllById는 캐시에 있는 회원은 캐시에서 꺼내고, 없는 회원만 모아서 원래 저장소의 findAllById를 한 번 호출한다.
+ * */
+public class CachingMemberRepository implements MemberRepository {
+
+    private static final int STRIPES = 64;
+
+    private final MemberRepository delegate;
+    private final int maximumSize;
+    private final ConcurrentLongMap<Member> cache = new ConcurrentLongMap<>();
+    private final FrequencySketch sketch;
+    private final ReadBuffer readBuffer = new ReadBuffer();
+
+    /**
+     * id 구간(stripe)별 저장 횟수와 락. 같은 id의 저장/캐시 반영 순서를 맞추기 위함이다.
+     * */
+    private final long[] writeEpochs = new long[STRIPES];
+    private final ReentrantLock[] stripeLocks = new ReentrantLock[STRIPES];
+
+    /**
+     * 캐시에 들어온 순서대로 id를 담는 원형 큐 (policyLock으로 보호)
+     * */
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final long[] order;
+    private int head;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingMemberRepository(MemberRepository delegate, int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.order = new long[maximumSize];
+        this.sketch = new FrequencySketch(maximumSize);
+        for (int i = 0; i < STRIPES; i++) {
+            stripeLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        long id = member.getId();
+        ReentrantLock stripeLock = stripeLocks[stripe(id)];
+        stripeLock.lock();
+        try {
+            delegate.save(member);
+            writeEpochs[stripe(id)]++;
+            updateIfCached(id, member);
+        } finally {
+            stripeLock.unlock();
+        }
+    }
+
+    /**
+     * 원래 저장소의 saveAll은 한 번만 호출한다. 배치가 어느 구간에 걸칠지 모르므로 그동안 모든 구간의 락을 잡는다.
+     * */
+    @Override
+    public void saveAll(List<Member> members) {
+        for (int s = 0; s < STRIPES; s++) {
+            stripeLocks[s].lock();
+        }
+        try {
+            delegate.saveAll(members);
+            for (Member member : members) {
+                long id = member.getId();
+                writeEpochs[stripe(id)]++;
+                updateIfCached(id, member);
+            }
+        } finally {
+            for (int s = STRIPES - 1; s >= 0; s--) {
+                stripeLocks[s].unlock();
+            }
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        long id = memberId;
+        recordRead(id);
+        Member member = cache.get(id);
+        if (member != null) {
+            hits.increment();
+            return member;
+        }
+        misses.increment();
+
+        int stripe = stripe(id);
+        long epoch = readEpoch(stripe);
+        member = delegate.findById(memberId);
+        if (member != null) {
+            admit(id, member, stripe, epoch);
+        }
+        return member;
+    }
+
+    /**
+     * 캐시에 없는 회원만 원래 저장소에서 한 번에 읽어 온다. (읽어 온 회원은 findById와 같은 규칙으로 캐시에 넣는다)
+     * */
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        cache.getAll(memberIds, members);
+        int missing = 0;
+        for (int i = 0; i < memberIds.length; i++) {
+            recordRead(memberIds[i]);
+            if (members[i] == null) {
+                missing++;
+            }
+        }
+        hits.add(memberIds.length - missing);
+        if (missing == 0) {
+            return members;
+        }
+        misses.add(missing);
+
+        long[] missingIds = new long[missing];
+        int[] positions = new int[missing];
+        long[] epochs = new long[missing];
+        for (int i = 0, m = 0; i < memberIds.length; i++) {
+            if (members[i] == null) {
+                missingIds[m] = memberIds[i];
+                positions[m] = i;
+                epochs[m] = readEpoch(stripe(memberIds[i]));
+                m++;
+            }
+        }
+        Member[] loaded = delegate.findAllById(missingIds);
+        for (int m = 0; m < missing; m++) {
+            Member member = loaded[m];
+            members[positions[m]] = member;
+            if (member != null) {
+                admit(missingIds[m], member, stripe(missingIds[m]), epochs[m]);
+            }
+        }
+        return members;
+    }
+
+    /**
+     * 캐시는 일부만 들고 있으므로 원래 저장소를 순회한다.
+     * */
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        delegate.forEachConsistent(action);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 1.0 : (double) hit / total;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private void admit(long id, Member member, int stripe, long epoch) {
+        ReentrantLock stripeLock = stripeLocks[stripe];
+        stripeLock.lock();
+        try {
+            // 읽어 오는 사이에 저장이 있었다면 읽은 값이 이전 값일 수 있으므로 캐시에 넣지 않는다.
+            if (writeEpochs[stripe] != epoch) {
+                return;
+            }
+            policyLock.lock();
+            try {
+                // 빈도를 비교하기 전에 쌓인 조회 기록을 반영한다.
+                readBuffer.drainTo(sketch);
+                if (cache.containsKey(id)) {
+                    return;
+                }
+                if (size < maximumSize) {
+                    order[(head + size) % maximumSize] = id;
+                    size++;
+                    cache.put(id, member);
+                    return;
+                }
+                long victim = order[head];
+                if (sketch.frequency(id) > sketch.frequency(victim)) {
+                    cache.remove(victim);
+                    evictions.increment();
+                    order[head] = id;
+                    cache.put(id, member);
+                }
+                // 새 회원이 들어왔으면 새 회원이, 아니면 victim이 가장 최근 위치로 간다.
+                head = (head + 1) % maximumSize;
+            } finally {
+                policyLock.unlock();
+            }
+        } finally {
+            stripeLock.unlock();
+        }
+    }
+
+    private void updateIfCached(long id, Member member) {
+        policyLock.lock();
+        try {
+            if (cache.containsKey(id)) {
+                cache.put(id, member);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void recordRead(long id) {
+        if (readBuffer.record(id) && policyLock.tryLock()) {
+            try {
+                readBuffer.drainTo(sketch);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private long readEpoch(int stripe) {
+        ReentrantLock stripeLock = stripeLocks[stripe];
+        stripeLock.lock();
+        try {
+            return writeEpochs[stripe];
+        } finally {
+            stripeLock.unlock();
+        }
+    }
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+    }
+
+    /**
+     * 4bit 카운터 count-min sketch
+     * => long 하나에 카운터 16개, id마다 서로 다른 해시로 4개의 카운터를 올리고 그 중 최솟값을 빈도로 쓴다.
+     * => 기록이 캐시 크기의 10배 쌓일 때마다 모든 카운터를 절반으로 줄인다. (오래전에 인기 있던 회원이 계속 남지 않도록)
+     *
+     * 스레드 안전하지 않다. policyLock 안에서만 호출한다. (조회 기록은 ReadBuffer를 거쳐 들어온다)
+     * */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int length = 1;
+            while (length < Math.max(maximumSize, 16) && length < (1 << 30)) {
+                length <<= 1;
+            }
+            this.table = new long[length];
+            this.tableMask = length - 1;
+            this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+        }
+
+        void increment(long id) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                long hash = hash(id, i);
+                int index = (int) hash & tableMask;
+                int offset = (int) ((hash >>> 32) & 15) << 2;
+                long word = table[index];
+                if (((word >>> offset) & 15) != 15) {
+                    table[index] = word + (1L << offset);
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(long id) {
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                long hash = hash(id, i);
+                int index = (int) hash & tableMask;
+                int offset = (int) ((hash >>> 32) & 15) << 2;
+                frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 15));
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions = additions >>> 1;
+        }
+
+        private static long hash(long id, int row) {
+            long hash = (id + SEEDS[row]) * 0x9e3779b97f4a7c15L;
+            hash ^= hash >>> 29;
+            hash *= 0xbf58476d1ce4e5b9L;
+            return hash ^ (hash >>> 32);
+        }
+    }
+
+    /**
+     * 조회된 id를 잠시 모아 두는 버퍼 (스레드별 stripe마다 고정 크기 원형 버퍼)
+     * => 기록: stripe의 tail 번호를 CAS로 가져가 칸에 id를 쓰고 칸의 sequence를 기록한다. (AsyncLogWriter와 같은 방식)
+     * ==> CAS에 실패하거나 버퍼가 가득 차면 기다리지 않고 버린다. (조회 경로가 막히지 않는다)
+     * => 비우기(drainTo)는 policyLock을 잡은 스레드 하나만 한다.
+     * */
+    static final class ReadBuffer {
+
+        private static final int MAX_STRIPES = 16;
+        static final int SIZE = 64;
+        private static final int DRAIN_THRESHOLD = SIZE / 2;
+
+        private final Stripe[] stripes;
+        private final int mask;
+
+        ReadBuffer() {
+            int count = 1;
+            while (count < Runtime.getRuntime().availableProcessors() && count < MAX_STRIPES) {
+                count <<= 1;
+            }
+            this.stripes = new Stripe[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new Stripe();
+            }
+            this.mask = count - 1;
+        }
+
+        /**
+         * @return 버퍼를 비울 때가 되었으면 true
+         * */
+        boolean record(long id) {
+            Stripe stripe = stripes[threadHash() & mask];
+            long tail = stripe.tail.get();
+            long pending = tail - stripe.head;
+            if (pending >= SIZE) {
+                return true;
+            }
+            if (stripe.tail.compareAndSet(tail, tail + 1)) {
+                int slot = (int) tail & (SIZE - 1);
+                stripe.ids[slot] = id;
+                stripe.sequences.lazySet(slot, tail);
+            }
+            return pending + 1 >= DRAIN_THRESHOLD;
+        }
+
+        /**
+         * policyLock 안에서 호출한다. 아직 id를 다 쓰지 않은 칸에서 멈추고 다음에 이어서 읽는다.
+         * */
+        void drainTo(FrequencySketch sketch) {
+            for (Stripe stripe : stripes) {
+                long head = stripe.head;
+                int slot = (int) head & (SIZE - 1);
+                while (stripe.sequences.get(slot) == head) {
+                    sketch.increment(stripe.ids[slot]);
+                    head++;
+                    slot = (int) head & (SIZE - 1);
+                }
+                stripe.head = head;
+            }
+        }
+
+        private static int threadHash() {
+            long id = Thread.currentThread().getId();
+            return (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        }
+
+        private static final class Stripe {
+            final AtomicLong tail = new AtomicLong();
+            final long[] ids = new long[SIZE];
+            final AtomicLongArray sequences = new AtomicLongArray(SIZE);
+            volatile long head;
+
+            Stripe() {
+                for (int i = 0; i < SIZE; i++) {
+                    sequences.set(i, -1);
+                }
+            }
+        }
+    }
+}
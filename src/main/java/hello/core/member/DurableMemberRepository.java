@@ -0,0 +1,268 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 재시작해도 회원이 사라지지 않는 메모리 저장소
+ * => 조회는 메모리(ConcurrentLongMap)에서 하고, 저장은 write-ahead log에 먼저 남긴 뒤 반환한다.
+ * => 주기적으로 스냅샷을 떠서 그 이전의 로그 세그먼트를 지운다.
+ * => 시작할 때 스냅샷 + 그 이후 로그를 replay 해서 복구한다.
+ *
+ * 스냅샷은 로그를 새 세그먼트로 넘긴(rotate) 직후부터 저장소를 순회하며 뜬다.
+ * 순회 도중의 저장은 스냅샷에 들어갈 수도 있고 아닐 수도 있지만, 모두 새 세그먼트에 남아 있고
+ * 저장은 같은 id를 덮어쓰는 연산이므로 스냅샷 위에 새 세그먼트를 replay 하면 항상 최종 상태가 된다.
+ * ==> 스냅샷을 뜨는 동안 저장을 멈출 필요가 없다.
+ * */
+public class DurableMemberRepository implements MemberRepository, AutoCloseable {
+
+    private static final int SNAPSHOT_MAGIC = 0x4D534E31; // "MSN1"
+    private static final int SNAPSHOT_END = -1;
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+
+    private final Path directory;
+    private final ConcurrentLongMap<Member> store = new ConcurrentLongMap<>();
+    private final MemberWriteAheadLog log;
+    private final ScheduledExecutorService snapshotScheduler;
+    private final Object snapshotLock = new Object();
+    private final AtomicLong snapshotFailures = new AtomicLong();
+
+    public DurableMemberRepository(Path directory) {
+        this(directory, Duration.ofMinutes(5));
+    }
+
+    /**
+     * @param snapshotInterval 스냅샷 주기, null 이거나 0 이면 주기적인 스냅샷을 뜨지 않는다.
+     * */
+    public DurableMemberRepository(Path directory, Duration snapshotInterval) {
+        this.directory = directory;
+        long fromSegment = loadSnapshot();
+        this.log = MemberWriteAheadLog.open(directory, fromSegment, member -> store.put(member.getId(), member));
+
+        if (snapshotInterval == null || snapshotInterval.isZero()) {
+            this.snapshotScheduler = null;
+        } else {
+            this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "member-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = snapshotInterval.toMillis();
+            snapshotScheduler.scheduleWithFixedDelay(this::scheduledSnapshot, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 로그에 기록된 뒤(fsync 완료) 반환된다. 메모리에는 fsync가 끝난 뒤에 반영된다.
+     * 여러 스레드가 동시에 저장하면 fsync가 한 번으로 묶인다. (group commit)
+     * 로그 쓰기가 실패하면 UncheckedIOException, 그 회원은 조회되지 않는다.
+     * 이름이 기록 한 개의 최대 크기(16MB)를 넘으면 IllegalArgumentException, 로그에 남기지 않는다.
+     * */
+    @Override
+    public void save(Member member) {
+        long id = member.getId();
+        long sequence = log.append(member, () -> store.put(id, member));
+        log.sync(sequence);
+    }
+
+    /**
+     * 배치 전체를 로그 버퍼에 쌓은 뒤 fsync는 한 번만 기다린다.
+     * => 너무 긴 이름이 하나라도 있으면 아무것도 쌓기 전에 IllegalArgumentException
+     * */
+    @Override
+    public void saveAll(List<Member> members) {
+        for (Member member : members) {
+            MemberWriteAheadLog.checkFrameSize(member);
+        }
+        long sequence = 0;
+        for (Member member : members) {
+            long id = member.getId();
+            sequence = log.append(member, () -> store.put(id, member));
+        }
+        log.sync(sequence);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        return store.get(memberId);
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        store.getAll(memberIds, members);
+        return members;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.forEach((id, member) -> action.accept(member));
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        store.forEachConsistent((id, member) -> action.accept(member));
+    }
+
+    public int count() {
+        return store.size();
+    }
+
+    /**
+     * 스냅샷을 새로 뜨고, 스냅샷에 반영된 로그 세그먼트를 지운다.
+     * => 스냅샷 파일과 그 이름 변경(디렉터리)이 모두 fsync된 뒤에만 지운다.
+     * */
+    public void snapshot() {
+        synchronized (snapshotLock) {
+            long baseSegment = log.rotate();
+            Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+            try {
+                writeSnapshot(temp, baseSegment);
+                Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                // 이름 변경이 디스크에 내려가기 전에 세그먼트를 지우면, crash 후 이전 스냅샷 + 지워진 로그만 남는다.
+                MemberWriteAheadLog.forceDirectory(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.deleteSegmentsBefore(baseSegment);
+        }
+    }
+
+    /**
+     * 주기적인 스냅샷
+     * => 예외가 빠져나가면 ScheduledExecutorService가 이후 실행을 모두 취소해 로그 세그먼트가 다시는 지워지지 않는다.
+     * ==> 실패는 스레드의 UncaughtExceptionHandler로 알리고 다음 주기에 다시 뜬다. (실패한 스냅샷 이전의 세그먼트는 그대로 남아 있다)
+     * */
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            snapshotFailures.incrementAndGet();
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    /**
+     * 실패한 주기적 스냅샷 수
+     * */
+    public long getSnapshotFailures() {
+        return snapshotFailures.get();
+    }
+
+    /**
+     * 스프링 컨테이너 종료 시 close가 자동으로 호출된다. (destroyMethod 추론)
+     * */
+    @Override
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        synchronized (snapshotLock) {
+            log.close();
+        }
+    }
+
+    /**
+     * 스냅샷 형식: [magic 4B][base segment 8B][로그와 같은 형식의 기록...][-1 4B][회원 수 8B]
+     * */
+    private void writeSnapshot(Path path, long baseSegment) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            CRC32 crc = new CRC32();
+            long[] count = new long[1];
+
+            buffer.putInt(SNAPSHOT_MAGIC);
+            buffer.putLong(baseSegment);
+            store.forEach((id, member) -> {
+                byte[] name = MemberWriteAheadLog.encodeName(member);
+                int size = MemberWriteAheadLog.frameSize(name);
+                if (buffer.remaining() < size) {
+                    drain(buffer, channel);
+                }
+                // 이름이 버퍼보다 큰 경우는 별도 버퍼로 한 번에 쓴다.
+                ByteBuffer target = buffer.remaining() < size ? ByteBuffer.allocate(size) : buffer;
+                MemberWriteAheadLog.writeFrame(target, id, member.getGrade(), name, crc);
+                if (target != buffer) {
+                    drain(target, channel);
+                }
+                count[0]++;
+            });
+            if (buffer.remaining() < 12) {
+                drain(buffer, channel);
+            }
+            buffer.putInt(SNAPSHOT_END);
+            buffer.putLong(count[0]);
+            drain(buffer, channel);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @return 스냅샷 이후 replay 해야 하는 첫 로그 세그먼트 번호
+     * */
+    private long loadSnapshot() {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("not a member snapshot: " + path);
+            }
+            long baseSegment = in.readLong();
+            CRC32 crc = new CRC32();
+            long count = 0;
+            Member member;
+            while ((member = MemberWriteAheadLog.readFrame(in, crc)) != null) {
+                store.put(member.getId(), member);
+                count++;
+            }
+            // readFrame은 종료 표시(-1)를 만나면 null을 반환한다. 그 뒤의 회원 수로 스냅샷이 온전한지 확인한다.
+            if (in.readLong() != count) {
+                throw new IllegalStateException("corrupted member snapshot: " + path);
+            }
+            return baseSegment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,225 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+import hello.core.common.LongHashSet;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 등급, 이름 보조 인덱스를 함께 관리하는 메모리 저장소
+ * => 등급 인덱스: 등급마다 회원 id 집합 (LongHashSet, id를 박싱하지 않는다)
+ * => 이름 인덱스: 이름 순 TreeMap 하나로 정확히 일치와 접두사 검색을 함께 처리한다. 값은 같은 이름을 가진 회원 id 집합 (LongHashSet)
+ * ==> 같은 이름의 회원이 많아도 저장 한 번은 집합에 id 하나를 넣고 빼는 것으로 끝난다. (배열을 통째로 복사하지 않는다)
+ *
+ * 저장과 인덱스 갱신은 하나의 쓰기 락 안에서 함께 일어나므로, 인덱스 조회(읽기 락)는 항상 저장 전 또는 저장 후의 상태만 본다.
+ * => 읽기 락 안에서는 조건에 맞는 id만 복사하고, 회원은 스트림을 소비할 때 저장소에서 읽는다. (결과 전체를 락 안에서 만들지 않는다)
+ * ==> 그 사이에 다시 저장되어 조건(등급/이름)이 바뀐 회원은 결과에서 빠진다.
+ * => id 조회(findById)는 인덱스가 필요 없으므로 락 없이 ConcurrentLongMap에서 바로 읽는다.
+ *
+ * Member는 변경 가능한 객체이므로 인덱스는 save 시점의 등급/이름 기준이다.
+ * => 조회한 Member의 등급/이름을 바꿨다면 save를 다시 호출해야 인덱스에 반영된다.
+ * */
+public class IndexedMemberRepository implements MemberQueryRepository {
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final ConcurrentLongMap<Entry> store = new ConcurrentLongMap<>();
+    private final LongHashSet[] byGrade = new LongHashSet[GRADES.length];
+    private final NavigableMap<String, LongHashSet> byName = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IndexedMemberRepository() {
+        for (int i = 0; i < byGrade.length; i++) {
+            byGrade[i] = new LongHashSet();
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        lock.writeLock().lock();
+        try {
+            saveLocked(member);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        lock.writeLock().lock();
+        try {
+            for (Member member : members) {
+                saveLocked(member);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        Entry entry = store.get(memberId);
+        return entry == null ? null : entry.member;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.forEach((id, entry) -> action.accept(entry.member));
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        store.forEachConsistent((id, entry) -> action.accept(entry.member));
+    }
+
+    @Override
+    public Stream<Member> findByGrade(Grade grade) {
+        checkGrade(grade);
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = byGrade[grade.ordinal()].toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resolve(ids, entry -> entry.grade == grade);
+    }
+
+    @Override
+    public int countByGrade(Grade grade) {
+        checkGrade(grade);
+        lock.readLock().lock();
+        try {
+            return byGrade[grade.ordinal()].size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 이름이 없는(null) 회원은 이름 인덱스에 없으므로 findByName(null)은 빈 결과다.
+     * */
+    @Override
+    public Stream<Member> findByName(String name) {
+        if (name == null) {
+            return Stream.empty();
+        }
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            LongHashSet named = byName.get(name);
+            ids = named == null ? null : named.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids == null ? Stream.empty() : resolve(ids, entry -> name.equals(entry.name));
+    }
+
+    @Override
+    public Stream<Member> findByNamePrefix(String prefix, int limit) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("prefix must not be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        long[] ids = new long[Math.min(limit, 16)];
+        int count = 0;
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, LongHashSet> entry : byName.tailMap(prefix, true).entrySet()) {
+                if (count >= limit || !entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                for (long id : entry.getValue().toArray()) {
+                    if (count == limit) {
+                        break;
+                    }
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, Math.min(limit, ids.length * 2));
+                    }
+                    ids[count++] = id;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resolve(Arrays.copyOf(ids, count), entry -> entry.name != null && entry.name.startsWith(prefix));
+    }
+
+    private void saveLocked(Member member) {
+        long id = member.getId();
+        Entry entry = new Entry(member);
+        Entry previous = store.put(id, entry);
+
+        if (previous != null) {
+            if (previous.grade != null) {
+                byGrade[previous.grade.ordinal()].remove(id);
+            }
+            if (previous.name != null) {
+                removeName(previous.name, id);
+            }
+        }
+        if (entry.grade != null) {
+            byGrade[entry.grade.ordinal()].add(id);
+        }
+        if (entry.name != null) {
+            addName(entry.name, id);
+        }
+    }
+
+    private void addName(String name, long id) {
+        byName.computeIfAbsent(name, key -> new LongHashSet()).add(id);
+    }
+
+    private void removeName(String name, long id) {
+        LongHashSet ids = byName.get(name);
+        ids.remove(id);
+        if (ids.size() == 0) {
+            byName.remove(name);
+        }
+    }
+
+    private static void checkGrade(Grade grade) {
+        if (grade == null) {
+            throw new IllegalArgumentException("grade must not be null");
+        }
+    }
+
+    /**
+     * 읽기 락 밖에서 호출한다. 회원은 스트림을 소비할 때 읽고, 그 사이 조건이 바뀐 회원은 건너뛴다.
+     * */
+    private Stream<Member> resolve(long[] ids, Predicate<Entry> stillMatches) {
+        return Arrays.stream(ids)
+                .mapToObj(store::get)
+                .filter(entry -> entry != null && stillMatches.test(entry))
+                .map(entry -> entry.member);
+    }
+
+    /**
+     * 인덱스에 반영한 시점의 등급/이름을 함께 보관한다. (다시 저장할 때 이전 인덱스 항목을 지우기 위함)
+     * */
+    private static final class Entry {
+        final Member member;
+        final Grade grade;
+        final String name;
+
+        Entry(Member member) {
+            this.member = member;
+            this.grade = member.getGrade();
+            this.name = member.getName();
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package hello.core.member;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 회원 정보를 힙이 아닌 메모리 맵 파일(off-heap)에 저장하는 저장소
+ * => 수천만 명의 회원을 Member 객체로 들고 있지 않으므로 GC 부담이 없다.
+ * => 파일 자체가 저장소이므로 재시작 후에도 다시 로딩할 필요가 없다.
+ *
+ * 파일 구조
+ * [header 64B] [slot table: slotCapacity * 16B] [name region: nameRegionBytes]
+ * slot = [id 8B][state 1B][grade 1B][nameLength 2B][nameOffset 4B]
+ * => slot table은 id를 키로 하는 선형 탐사 해시 테이블이고, 이름은 UTF-8로 name region에 이어 붙인다.
+ *
+ * 용량은 파일 생성 시점에 고정된다. (slot table, name region 각각 최대 2GB)
+ * 스프링 프로필 "mapped"가 활성화되면 AutoAppConfig에서 MemoryMemberRepository 대신 사용된다.
+ * */
+@Component
+@Profile("mapped")
+@Primary
+public class MappedMemberRepository implements MemberRepository, AutoCloseable {
+
+    private static final int MAGIC = 0x4D425231; // "MBR1"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_SLOT_CAPACITY = 8;
+    private static final int OFFSET_COUNT = 12;
+    private static final int OFFSET_NAME_REGION = 16;
+    private static final int OFFSET_NAME_END = 20;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int SLOT_ID = 0;
+    private static final int SLOT_STATE = 8;
+    private static final int SLOT_GRADE = 9;
+    private static final int SLOT_NAME_LENGTH = 10;
+    private static final int SLOT_NAME_OFFSET = 12;
+    /**
+     * slot table 전체(slotCapacity * SLOT_SIZE)가 int 범위(한 번에 map할 수 있는 크기) 안에 들어가는 가장 큰 2의 거듭제곱
+     * */
+    static final int MAX_SLOT_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / SLOT_SIZE);
+
+    private static final byte STATE_USED = 1;
+    private static final byte NULL_GRADE = -1;
+    private static final short NULL_NAME = -1;
+
+    private static final Grade[] GRADES = Grade.values();
+    /**
+     * forEach가 읽기 락 한 번에 복사하는 슬롯 수
+     * */
+    private static final int FOR_EACH_CHUNK = 1024;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer slots;
+    private final MappedByteBuffer names;
+    private final int slotCapacity;
+    private final int slotMask;
+    private final int nameRegionBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int count;
+    private int nameEnd;
+
+    @Autowired
+    public MappedMemberRepository(@Value("${member.store.path:members.dat}") String path,
+                                  @Value("${member.store.capacity:1048576}") int slotCapacity,
+                                  @Value("${member.store.name-bytes:33554432}") int nameRegionBytes) {
+        this(Path.of(path), slotCapacity, nameRegionBytes);
+    }
+
+    /**
+     * 파일이 이미 있으면 파일에 기록된 용량을 그대로 사용하고, 없으면 주어진 용량으로 새로 만든다.
+     * */
+    public MappedMemberRepository(Path path, int slotCapacity, int nameRegionBytes) {
+        // 파일을 열기 전에 확인한다. (잘못된 용량으로 채널을 연 채 실패하지 않도록)
+        int tableSize = tableSizeFor(slotCapacity);
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean created = channel.size() == 0;
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+            if (created) {
+                header.putInt(OFFSET_MAGIC, MAGIC);
+                header.putInt(OFFSET_VERSION, VERSION);
+                header.putInt(OFFSET_SLOT_CAPACITY, tableSize);
+                header.putInt(OFFSET_COUNT, 0);
+                header.putInt(OFFSET_NAME_REGION, nameRegionBytes);
+                header.putInt(OFFSET_NAME_END, 0);
+            } else if (header.getInt(OFFSET_MAGIC) != MAGIC || header.getInt(OFFSET_VERSION) != VERSION) {
+                throw new IllegalStateException("not a member store file: " + path);
+            }
+
+            this.slotCapacity = header.getInt(OFFSET_SLOT_CAPACITY);
+            this.slotMask = this.slotCapacity - 1;
+            this.nameRegionBytes = header.getInt(OFFSET_NAME_REGION);
+            this.count = header.getInt(OFFSET_COUNT);
+            this.nameEnd = header.getInt(OFFSET_NAME_END);
+
+            long slotBytes = (long) this.slotCapacity * SLOT_SIZE;
+            this.slots = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE, slotBytes);
+            this.names = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + slotBytes, this.nameRegionBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        byte[] name = encodeName(member);
+        lock.writeLock().lock();
+        try {
+            saveLocked(member, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이름 인코딩은 락 밖에서 끝내고, 배치 전체를 한 번의 쓰기 락 안에서 기록한다.
+     * */
+    @Override
+    public void saveAll(List<Member> members) {
+        byte[][] names = new byte[members.size()][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = encodeName(members.get(i));
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < names.length; i++) {
+                saveLocked(members.get(i), names[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int position = findSlot(memberId) * SLOT_SIZE;
+            if (slots.get(position + SLOT_STATE) != STATE_USED) {
+                return null;
+            }
+            return readMember(position);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < memberIds.length; i++) {
+                int position = findSlot(memberIds[i]) * SLOT_SIZE;
+                if (slots.get(position + SLOT_STATE) == STATE_USED) {
+                    members[i] = readMember(position);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return members;
+    }
+
+    /**
+     * 슬롯을 FOR_EACH_CHUNK개씩 읽기 락 안에서 Member로 읽어 두고, 락을 푼 뒤 action에 넘긴다.
+     * => 슬롯은 삭제도 이동도 없으므로 묶음 사이에 저장이 끼어도 이미 있던 회원을 빠뜨리거나 두 번 넘기지 않는다.
+     * */
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        Member[] chunk = new Member[FOR_EACH_CHUNK];
+        for (int from = 0; from < slotCapacity; from += FOR_EACH_CHUNK) {
+            int to = Math.min(slotCapacity, from + FOR_EACH_CHUNK);
+            int size = 0;
+            lock.readLock().lock();
+            try {
+                for (int slot = from; slot < to; slot++) {
+                    int position = slot * SLOT_SIZE;
+                    if (slots.get(position + SLOT_STATE) == STATE_USED) {
+                        chunk[size++] = readMember(position);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (int i = 0; i < size; i++) {
+                action.accept(chunk[i]);
+                chunk[i] = null;
+            }
+        }
+    }
+
+    /**
+     * 순회가 끝날 때까지 읽기 락을 잡고 슬롯을 차례로 읽어 넘긴다. (묶음으로 복사하지 않는다)
+     * */
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCapacity; slot++) {
+                int position = slot * SLOT_SIZE;
+                if (slots.get(position + SLOT_STATE) == STATE_USED) {
+                    action.accept(readMember(position));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 변경 내용을 디스크에 반영한다.
+     * */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            header.force();
+            slots.force();
+            names.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 스프링 컨테이너 종료 시 close가 자동으로 호출된다. (destroyMethod 추론)
+     * */
+    @Override
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void saveLocked(Member member, byte[] name) {
+        long id = member.getId();
+        int slot = findSlot(id);
+        int position = slot * SLOT_SIZE;
+        boolean exists = slots.get(position + SLOT_STATE) == STATE_USED;
+
+        if (!exists && count + 1 > slotCapacity - (slotCapacity >> 2)) {
+            throw new IllegalStateException("member store is full: " + count + " members");
+        }
+
+        short nameLength = name == null ? NULL_NAME : (short) name.length;
+        int nameOffset = 0;
+        if (name != null) {
+            int oldLength = exists ? slots.getShort(position + SLOT_NAME_LENGTH) : NULL_NAME;
+            if (oldLength >= name.length) {
+                // 기존 이름 자리에 들어가면 그 자리를 재사용한다.
+                nameOffset = slots.getInt(position + SLOT_NAME_OFFSET);
+            } else {
+                nameOffset = appendName(name.length);
+            }
+            names.put(nameOffset, name);
+        }
+
+        slots.putLong(position + SLOT_ID, id);
+        slots.put(position + SLOT_GRADE, member.getGrade() == null ? NULL_GRADE : (byte) member.getGrade().ordinal());
+        slots.putShort(position + SLOT_NAME_LENGTH, nameLength);
+        slots.putInt(position + SLOT_NAME_OFFSET, nameOffset);
+        // 상태 바이트를 마지막에 기록해서 중간에 종료되더라도 절반만 쓰인 슬롯이 사용 중으로 보이지 않게 한다.
+        slots.put(position + SLOT_STATE, STATE_USED);
+
+        if (!exists) {
+            count++;
+            header.putInt(OFFSET_COUNT, count);
+        }
+    }
+
+    private static byte[] encodeName(Member member) {
+        if (member.getName() == null) {
+            return null;
+        }
+        byte[] name = member.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("name is too long: " + name.length + " bytes");
+        }
+        return name;
+    }
+
+    /**
+     * @return id가 저장된 슬롯, 없다면 id가 들어갈 빈 슬롯
+     * */
+    private int findSlot(long id) {
+        int slot = (int) mix(id) & slotMask;
+        while (slots.get(slot * SLOT_SIZE + SLOT_STATE) == STATE_USED
+                && slots.getLong(slot * SLOT_SIZE + SLOT_ID) != id) {
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+
+    private int appendName(int length) {
+        if ((long) nameEnd + length > nameRegionBytes) {
+            throw new IllegalStateException("member name region is full: " + nameEnd + " bytes");
+        }
+        int offset = nameEnd;
+        nameEnd += length;
+        header.putInt(OFFSET_NAME_END, nameEnd);
+        return offset;
+    }
+
+    private Member readMember(int position) {
+        long id = slots.getLong(position + SLOT_ID);
+        byte grade = slots.get(position + SLOT_GRADE);
+        short nameLength = slots.getShort(position + SLOT_NAME_LENGTH);
+
+        String name = null;
+        if (nameLength != NULL_NAME) {
+            byte[] bytes = new byte[nameLength];
+            names.get(slots.getInt(position + SLOT_NAME_OFFSET), bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Member(id, name, grade == NULL_GRADE ? null : GRADES[grade]);
+    }
+
+    /**
+     * 슬롯 위치가 파일 포맷의 일부이므로 해시 함수는 이 클래스 안에 고정해 둔다.
+     * */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * 2의 거듭제곱으로 올림한 뒤의 크기로 상한을 확인한다. (올림 전에 확인하면 2^26보다 큰 값이 2^27로 올라가 int를 넘는다)
+     * */
+    static int tableSizeFor(int capacity) {
+        if (capacity > MAX_SLOT_CAPACITY) {
+            throw new IllegalArgumentException("slot capacity is too large: " + capacity + " (max " + MAX_SLOT_CAPACITY + ")");
+        }
+        int size = 16;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
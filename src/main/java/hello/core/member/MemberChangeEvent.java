@@ -0,0 +1,65 @@
+package hello.core.member;
+
+/**
+ * 회원 한 명이 저장된 사건 (불변)
+ * => sequence는 피드 안에서의 순서다. 같은 회원의 이벤트는 저장된 순서대로 번호가 붙는다.
+ * => name, grade는 저장 시점의 값을 복사해 둔 것이다. (나중에 Member를 바꿔도 이벤트는 그대로)
+ * */
+public final class MemberChangeEvent {
+
+    private final long sequence;
+    private final long memberId;
+    private final String name;
+    private final Grade grade;
+    private final Grade previousGrade;
+    private final boolean created;
+
+    MemberChangeEvent(long sequence, long memberId, String name, Grade grade, Grade previousGrade, boolean created) {
+        this.sequence = sequence;
+        this.memberId = memberId;
+        this.name = name;
+        this.grade = grade;
+        this.previousGrade = previousGrade;
+        this.created = created;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    /**
+     * @return 저장 전 등급 (새 회원이면 null)
+     * */
+    public Grade getPreviousGrade() {
+        return previousGrade;
+    }
+
+    /**
+     * @return 처음 저장된 회원이면 true
+     * */
+    public boolean isCreated() {
+        return created;
+    }
+
+    public boolean isGradeChanged() {
+        return !created && previousGrade != grade;
+    }
+
+    @Override
+    public String toString() {
+        return "MemberChangeEvent{sequence=" + sequence + ", memberId=" + memberId + ", grade=" + previousGrade
+                + "->" + grade + (created ? ", created" : "") + "}";
+    }
+}
@@ -0,0 +1,379 @@
+package hello.core.member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 회원 변경 이벤트를 구독자들에게 나눠 주는 프로세스 내부 피드
+ * => 이벤트는 고정 크기 링 버퍼에 한 번만 쌓이고, 구독자마다 자기가 읽은 위치(cursor)만 따로 가진다. (구독자별 큐 복사 없음)
+ * => 발행(publish)은 AsyncLogWriter와 같은 방식이다. tail 번호를 CAS로 가져가 슬롯에 이벤트를 넣고 슬롯의 sequence를 기록한다.
+ * => 구독자마다 전달 스레드가 하나씩 있고, 쌓인 이벤트를 최대 maxBatch개씩 묶어서 listener에 넘긴다.
+ * => 할 일이 없는 전달 스레드는 IDLE_SPINS번 확인한 뒤 잠든다(park). 발행하는 쪽은 잠든 구독자가 있을 때만 깨운다.
+ * ==> 구독자가 깨어 있는 동안(이벤트가 계속 들어오는 동안)의 발행은 잠든 구독자 수(volatile) 한 번만 읽는다.
+ *
+ * 배압(backpressure)
+ * => 가장 느린 구독자가 아직 처리하지 않은 이벤트를 덮어쓰지 않는다. 버퍼가 가득 차면 발행하는 쪽이 자리가 날 때까지 기다린다.
+ * ==> 기다리는 발행자는 몇 번 양보(yield)한 뒤 잠들고, 구독자가 cursor를 옮길 때 깨운다. (바쁜 대기로 CPU를 쓰지 않는다)
+ * ==> 느린 구독자는 이벤트를 잃지 않는 대신 저장(save)을 느리게 만든다. 오래 걸리는 작업은 listener 안에서 따로 넘긴다.
+ * => 구독자가 없으면 이벤트는 버퍼에 쓰이기만 하고 기다리는 일은 없다.
+ *
+ * 구독은 구독한 이후에 발행된 이벤트부터 받는다.
+ * listener가 Error를 던지면 그 구독은 끝난다. (구독 목록에서 빠지므로 남은 발행을 막지 않는다)
+ * */
+public class MemberChangeFeed implements AutoCloseable {
+
+    /**
+     * 전달 스레드가 잠들기 전에 새 이벤트를 다시 확인하는 횟수
+     * */
+    private static final int IDLE_SPINS = 64;
+    /**
+     * 버퍼가 가득 찬 발행자가 잠들기 전에 양보하는 횟수
+     * */
+    private static final int PUBLISHER_YIELDS = 8;
+    /**
+     * 잠든 발행자가 깨우는 신호 없이도 다시 확인하는 간격 (깨우기를 놓쳐도 이만큼만 늦다)
+     * */
+    private static final long PUBLISHER_PARK_NANOS = 1_000_000;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int maxBatch;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    /**
+     * 새 이벤트를 기다리며 잠든(또는 잠들려는) 전달 스레드 수, 0이면 발행하는 쪽은 아무도 깨우지 않는다.
+     * */
+    private final AtomicInteger parkedSubscribers = new AtomicInteger();
+    /**
+     * 버퍼에 자리가 나기를 기다리며 잠든 발행 스레드
+     * */
+    private final ConcurrentLinkedQueue<Thread> waitingPublishers = new ConcurrentLinkedQueue<>();
+    /**
+     * 발행할 수 있는 한계를 계산할 때 쓰는 가장 느린 구독자의 cursor (캐시, 실제보다 작을 수는 있어도 크지는 않다)
+     * => 매 발행마다 구독자 전체를 훑지 않고, 이 값으로 부족할 때만 다시 계산한다.
+     * */
+    private volatile long gatingSequence;
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity 링 버퍼 크기, 2의 거듭제곱으로 올림한다.
+     * @param maxBatch listener에 한 번에 넘기는 최대 이벤트 수
+     * */
+    public MemberChangeFeed(int capacity, int maxBatch) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("invalid maxBatch: " + maxBatch);
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * @param previous 저장 전 회원 (새 회원이면 null)
+     * @return 이벤트 번호, 피드가 닫혔으면 -1
+     * */
+    public long publish(Member member, Member previous) {
+        return publish(member, previous == null, previous == null ? null : previous.getGrade());
+    }
+
+    /**
+     * @param created 새 회원이면 true
+     * @param previousGrade 저장 전 등급
+     * @return 이벤트 번호, 피드가 닫혔으면 -1
+     * */
+    public long publish(Member member, boolean created, Grade previousGrade) {
+        long sequence = claim();
+        if (sequence < 0) {
+            return -1;
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.event = new MemberChangeEvent(sequence, member.getId(), member.getName(), member.getGrade(),
+                created ? null : previousGrade, created);
+        slot.publish(sequence);
+        if (parkedSubscribers.get() > 0) {
+            wakeSubscribers();
+        }
+        return sequence;
+    }
+
+    /**
+     * @param name 전달 스레드 이름에 붙는다.
+     * */
+    public Subscription subscribe(String name, MemberChangeListener listener) {
+        if (!running) {
+            throw new IllegalStateException("feed is closed");
+        }
+        Subscription subscription = new Subscription(name, listener, tail.get());
+        subscriptions.add(subscription);
+        // 등록 전에 계산된 gatingSequence가 위 cursor보다 클 수 있으므로, 등록된 뒤의 tail부터 읽는다.
+        // (등록 전에 계산된 한계로 발행되는 슬롯은 모두 이 번호보다 앞이다)
+        subscription.cursor = tail.get();
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * @return 지금까지 발행된(번호를 받은) 이벤트 수
+     * */
+    public long published() {
+        return tail.get();
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * 모든 구독을 닫는다. 이후 발행은 -1을 돌려주고 버려진다.
+     * */
+    @Override
+    public void close() {
+        running = false;
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        wakePublishers();
+    }
+
+    /**
+     * @return 확보한 번호, 피드가 닫혔으면 -1
+     * */
+    private long claim() {
+        int waits = 0;
+        while (true) {
+            if (!running) {
+                return -1;
+            }
+            long sequence = tail.get();
+            if (sequence - gatingSequence >= slots.length) {
+                long gate = minimumCursor(sequence);
+                gatingSequence = gate;
+                if (sequence - gate >= slots.length) {
+                    awaitSpace(sequence, waits++);
+                    continue;
+                }
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * 처음 몇 번은 양보만 하고, 그 뒤로는 waitingPublishers에 올라간 다음 잠든다.
+     * => 올라간 뒤에 한 번 더 확인하므로, 그 사이에 구독자가 cursor를 옮겼으면 잠들지 않는다.
+     * */
+    private void awaitSpace(long sequence, int waits) {
+        if (waits < PUBLISHER_YIELDS) {
+            Thread.yield();
+            return;
+        }
+        Thread current = Thread.currentThread();
+        waitingPublishers.add(current);
+        try {
+            if (running && sequence - minimumCursor(sequence) >= slots.length) {
+                LockSupport.parkNanos(this, PUBLISHER_PARK_NANOS);
+            }
+        } finally {
+            waitingPublishers.remove(current);
+        }
+    }
+
+    private void wakePublishers() {
+        for (Thread publisher : waitingPublishers) {
+            LockSupport.unpark(publisher);
+        }
+    }
+
+    private void wakeSubscribers() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.parked) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    private long minimumCursor(long sequence) {
+        long minimum = sequence;
+        for (Subscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.cursor);
+        }
+        return minimum;
+    }
+
+    /**
+     * 구독 하나 (전달 스레드 하나)
+     * */
+    public final class Subscription implements AutoCloseable {
+
+        private final String name;
+        private final MemberChangeListener listener;
+        private final Thread thread;
+        private final LongAdder errors = new LongAdder();
+        /**
+         * 다음에 읽을 이벤트 번호, listener가 앞의 이벤트를 모두 처리한 뒤에 옮긴다.
+         * */
+        private volatile long cursor;
+        private volatile boolean active = true;
+        /**
+         * 전달 스레드가 잠들기 직전에 true로 바꾸고 다시 확인한다. 발행하는 쪽은 이 값이 true인 구독만 깨운다.
+         * */
+        private volatile boolean parked;
+
+        private Subscription(String name, MemberChangeListener listener, long cursor) {
+            this.name = name;
+            this.listener = listener;
+            this.cursor = cursor;
+            this.thread = new Thread(this::deliver, "member-change-feed-" + name);
+            thread.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return 발행되었지만 아직 처리하지 않은 이벤트 수
+         * */
+        public long lag() {
+            return Math.max(0, tail.get() - cursor);
+        }
+
+        /**
+         * @return listener가 예외를 던진 묶음 수
+         * */
+        public long errors() {
+            return errors.sum();
+        }
+
+        /**
+         * @return 닫았거나 listener가 Error를 던져 전달이 끝났으면 false
+         * */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * 지금 처리 중인 묶음까지만 전달하고 멈춘다. 더 이상 발행을 막지 않는다.
+         * => listener 안에서 호출하면 기다리지 않고 돌아간다.
+         * */
+        @Override
+        public void close() {
+            active = false;
+            subscriptions.remove(this);
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() != thread) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * 어떤 이유로든 전달 스레드가 끝나면 구독 목록에서 빠지고 기다리던 발행자를 깨운다.
+         * => 그러지 않으면 멈춘 cursor 때문에 버퍼가 가득 찬 뒤의 발행이 영원히 기다린다.
+         * */
+        private void deliver() {
+            try {
+                deliverUntilClosed();
+            } catch (Error e) {
+                errors.increment();
+                throw e;
+            } finally {
+                active = false;
+                subscriptions.remove(this);
+                wakePublishers();
+            }
+        }
+
+        private void deliverUntilClosed() {
+            long next = cursor;
+            int idle = 0;
+            while (active) {
+                List<MemberChangeEvent> batch = null;
+                Slot slot;
+                while ((batch == null || batch.size() < maxBatch) && (slot = slots[(int) next & mask]).isPublished(next)) {
+                    if (batch == null) {
+                        batch = new ArrayList<>(Math.min(maxBatch, 64));
+                    }
+                    batch.add(slot.event);
+                    next++;
+                }
+                if (batch == null) {
+                    if (idle++ < IDLE_SPINS) {
+                        Thread.onSpinWait();
+                    } else {
+                        park(next);
+                    }
+                    continue;
+                }
+                idle = 0;
+                try {
+                    listener.onChanges(batch);
+                } catch (RuntimeException e) {
+                    // listener 오류로 전달이 멈추면 발행도 멈추므로 이번 묶음만 건너뛴다.
+                    errors.increment();
+                }
+                cursor = next;
+                if (!waitingPublishers.isEmpty()) {
+                    wakePublishers();
+                }
+            }
+        }
+
+        /**
+         * parked를 먼저 알린 뒤 다시 확인하고 잠든다.
+         * => 발행하는 쪽은 슬롯을 쓴 뒤에 parkedSubscribers를 읽으므로, 둘 중 하나는 반드시 상대의 쓰기를 본다. (깨우기를 놓치지 않는다)
+         * */
+        private void park(long next) {
+            parked = true;
+            parkedSubscribers.incrementAndGet();
+            try {
+                if (active && !slots[(int) next & mask].isPublished(next)) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                parked = false;
+                parkedSubscribers.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 링 버퍼의 한 칸, 처음에 한 번만 만들고 계속 재사용한다.
+     * => 여러 구독자가 같은 이벤트를 읽으므로 읽은 뒤에 비우지 않는다. (다음 바퀴에서 덮어쓴다)
+     * */
+    private static final class Slot {
+        private final AtomicLong sequence = new AtomicLong(-1);
+        MemberChangeEvent event;
+
+        /**
+         * event를 쓴 뒤에 호출한다.
+         * => 바로 뒤에 잠든 구독자 수를 읽으므로 volatile 쓰기(set)를 쓴다. (release 쓰기는 뒤의 읽기와 순서가 바뀔 수 있어 깨우기를 놓친다)
+         * */
+        void publish(long number) {
+            sequence.set(number);
+        }
+
+        boolean isPublished(long number) {
+            return sequence.get() == number;
+        }
+    }
+}
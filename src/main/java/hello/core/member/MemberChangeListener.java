@@ -0,0 +1,14 @@
+package hello.core.member;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface MemberChangeListener {
+
+    /**
+     * 구독마다 하나뿐인 전달 스레드에서 호출된다. (한 구독 안에서는 동시에 호출되지 않는다)
+     *
+     * @param events sequence 순서로 정렬된 이벤트 묶음 (1개 이상)
+     * */
+    void onChanges(List<MemberChangeEvent> events);
+}
@@ -0,0 +1,22 @@
+package hello.core.member;
+
+import java.util.stream.Stream;
+
+/**
+ * id 외의 조건(등급, 이름)으로 회원을 찾는 저장소
+ * => 조건에 맞는 회원은 호출 시점 기준으로 고른다. 스트림을 소비하는 동안 새로 저장된 회원은 추가되지 않는다.
+ * ==> 구현에 따라 그 사이 다시 저장되어 조건이 바뀐 회원은 결과에서 빠질 수 있다. (IndexedMemberRepository)
+ * */
+public interface MemberQueryRepository extends MemberRepository {
+
+    Stream<Member> findByGrade(Grade grade);
+
+    int countByGrade(Grade grade);
+
+    Stream<Member> findByName(String name);
+
+    /**
+     * @return 이름이 prefix로 시작하는 회원을 이름 순으로 최대 limit 명
+     * */
+    Stream<Member> findByNamePrefix(String prefix, int limit);
+}
@@ -1,8 +1,53 @@
 package hello.core.member;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface MemberRepository {
 
     void save(Member member);
 
     Member findById(Long memberId);
+
+    /**
+     * 여러 회원을 한 번에 저장한다.
+     * 기본 구현은 save를 반복 호출하고, 구현체는 락/할당을 배치 전체에 대해 한 번만 하도록 재정의한다.
+     * */
+    default void saveAll(List<Member> members) {
+        for (Member member : members) {
+            save(member);
+        }
+    }
+
+    /**
+     * @return memberIds와 같은 순서, 같은 길이의 배열 (없는 회원 자리는 null)
+     * */
+    default Member[] findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            members[i] = findById(memberIds[i]);
+        }
+        return members;
+    }
+
+    /**
+     * 저장된 모든 회원을 순회한다. (대량 내보내기용, 순서는 정해져 있지 않다)
+     * => 목록(List)을 만들지 않고 하나씩 action에 넘긴다.
+     * => 저장소를 구간(세그먼트, 슬롯 묶음)으로 나눠 구간마다 락 안에서 복사하고, 락을 푼 뒤 action에 넘긴다.
+     * ==> action이 느린 I/O를 해도 저장을 막지 않는다. 락을 잡는 시간은 구간 하나를 복사하는 시간뿐이다.
+     * ==> 대신 구간마다 다른 시점이다. 순회 전에 저장된 회원은 한 번씩 모두 넘기고, 순회 도중 저장된 회원은 보일 수도, 보이지 않을 수도 있다.
+     * */
+    void forEach(Consumer<? super Member> action);
+
+    /**
+     * 한 시점의 스냅샷으로 모든 회원을 순회한다. (순서는 정해져 있지 않다)
+     * => 순회가 끝날 때까지 저장소의 읽기 락을 잡고 있으므로, 순회 전에 저장된 회원만 정확히 한 번씩 넘긴다.
+     * ==> 대신 순회하는 동안 저장은 기다린다. action이 느린 I/O를 하면 그만큼 저장이 막힌다.
+     * => action 안에서 이 저장소에 저장하면 교착 상태가 된다.
+     *
+     * @throws UnsupportedOperationException 한 시점의 스냅샷을 줄 수 없는 저장소
+     * */
+    default void forEachConsistent(Consumer<? super Member> action) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support consistent iteration");
+    }
 }
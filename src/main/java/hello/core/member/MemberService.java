@@ -1,8 +1,17 @@
 package hello.core.member;
 
+import java.util.List;
+
 public interface MemberService {
 
     void join(Member member);
 
     Member findMember(Long memberId);
+
+    void joinAll(List<Member> members);
+
+    /**
+     * @return memberIds와 같은 순서, 같은 길이의 배열 (없는 회원 자리는 null)
+     * */
+    Member[] findMembers(long[] memberIds);
 }
@@ -3,6 +3,8 @@ package hello.core.member;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class MemberServiceImpl implements MemberService {
 
@@ -23,6 +25,16 @@ public class MemberServiceImpl implements MemberService {
         return memberRepository.findById(memberId);
     }
 
+    @Override
+    public void joinAll(List<Member> members) {
+        memberRepository.saveAll(members);
+    }
+
+    @Override
+    public Member[] findMembers(long[] memberIds) {
+        return memberRepository.findAllById(memberIds);
+    }
+
     // 싱글톤 테스트 용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
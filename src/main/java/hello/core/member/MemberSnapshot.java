@@ -0,0 +1,56 @@
+package hello.core.member;
+
+/**
+ * 한 시점의 회원 상태 (불변)
+ * => Member는 setter가 있어서 저장소가 같은 객체를 여러 스레드에 나눠 주면, 한 스레드가 등급을 바꾸는 도중 다른 스레드가 읽을 수 있다.
+ * => 스냅샷은 바뀌지 않으므로 잠그지 않고 읽어도 이름과 등급이 항상 같은 시점의 값이다.
+ * => version은 저장/변경될 때마다 1씩 늘어난다. (처음 저장하면 1)
+ * */
+public final class MemberSnapshot {
+
+    private final long id;
+    private final String name;
+    private final Grade grade;
+    private final long version;
+
+    public MemberSnapshot(long id, String name, Grade grade, long version) {
+        this.id = id;
+        this.name = name;
+        this.grade = grade;
+        this.version = version;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * version은 저장소가 정하므로 그대로 둔다.
+     * */
+    public MemberSnapshot withName(String name) {
+        return new MemberSnapshot(id, name, grade, version);
+    }
+
+    public MemberSnapshot withGrade(Grade grade) {
+        return new MemberSnapshot(id, name, grade, version);
+    }
+
+    /**
+     * @return 새 Member 객체 (바꿔도 저장소에는 영향이 없다)
+     * */
+    public Member toMember() {
+        return new Member(id, name, grade);
+    }
+}
@@ -0,0 +1,32 @@
+package hello.core.member;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * 회원을 잠그지 않고(낙관적으로) 변경하는 저장소
+ * => 읽은 스냅샷이 그 사이 바뀌지 않았을 때만 새 스냅샷으로 바꾼다. (compare-and-set)
+ * => 조회는 잠그지 않는다. 변경과 겹쳐도 변경 전 또는 변경 후의 스냅샷 하나만 본다.
+ * */
+public interface MemberUpdateRepository extends MemberRepository {
+
+    /**
+     * @return 현재 스냅샷, 없으면 null
+     * */
+    MemberSnapshot findSnapshot(long memberId);
+
+    /**
+     * 현재 등급이 expected일 때만 등급을 newGrade로 바꾼다.
+     *
+     * @return 바꿨으면 true, 회원이 없거나 등급이 expected가 아니면 false
+     * */
+    boolean compareAndSetGrade(long memberId, Grade expected, Grade newGrade);
+
+    /**
+     * 현재 스냅샷에 function을 적용한 결과로 바꾼다. 그 사이 다른 변경이 있었으면 새 스냅샷으로 다시 적용한다.
+     * => function은 여러 번 호출될 수 있으므로 부수 효과가 없어야 한다.
+     * => function이 돌려준 스냅샷의 id, version은 무시한다. (id는 그대로, version은 1 증가)
+     *
+     * @return 바뀐 스냅샷, 회원이 없으면 null
+     * */
+    MemberSnapshot update(long memberId, UnaryOperator<MemberSnapshot> function);
+}
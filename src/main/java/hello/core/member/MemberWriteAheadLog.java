@@ -0,0 +1,416 @@
+package hello.core.member;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 회원 저장 기록을 순서대로 남기는 write-ahead log
+ * => 로그는 wal-{번호}.log 세그먼트 파일들로 나뉘고, 스냅샷을 뜰 때마다 새 세그먼트로 넘어간다(rotate).
+ *
+ * group commit
+ * => append는 메모리 버퍼에 기록만 하고, sync에서 fsync를 기다린다.
+ * => fsync는 한 번에 한 스레드(leader)만 수행하며, 그동안 쌓인 다른 스레드의 기록까지 한 번의 fsync로 함께 내려간다.
+ * ==> 동시에 저장하는 스레드가 많을수록 fsync 한 번이 더 많은 기록을 처리한다.
+ *
+ * => 저장소 반영(apply)은 fsync가 끝난 뒤 leader가 로그 순서대로 실행한다. 디스크에 내려가지 않은 저장은 조회되지 않는다.
+ *
+ * 쓰기 실패
+ * => write/fsync가 한 번이라도 실패하면 로그를 실패 상태로 두고, 이후의 append/sync는 모두 예외를 던진다.
+ * ==> 실패한 묶음의 기록은 반영하지 않고, 세그먼트는 마지막으로 fsync한 위치까지 잘라낸다. (중간에 잘린 기록 뒤로 다른 기록이 이어지지 않게)
+ * ==> 그 묶음을 기다리던 sync도 모두 예외를 받는다. 다시 쓰려면 저장소를 새로 연다.
+ *
+ * 기록 형식: [payload 길이 4B][payload CRC32 4B][id 8B][grade 1B][name 길이 4B][name UTF-8]
+ * => 마지막 기록이 중간에 잘렸으면(길이/CRC 불일치) 거기까지만 복구한다.
+ * => payload는 MAX_PAYLOAD를 넘지 않는다. append가 넘는 기록을 거절하므로, replay 중에 넘는 길이를 만나면 잘린 기록이 아니라 손상이다.
+ * ==> 거기서 멈추면 뒤의 기록이 말없이 사라지므로 예외를 던진다.
+ * */
+class MemberWriteAheadLog implements AutoCloseable {
+
+    private static final int FRAME_HEADER = 8;
+    private static final int FIXED_PAYLOAD = 8 + 1 + 4;
+    private static final int MAX_PAYLOAD = 1 << 24;
+    private static final int MAX_NAME_BYTES = MAX_PAYLOAD - FIXED_PAYLOAD;
+    private static final int INITIAL_BUFFER = 64 * 1024;
+    private static final Grade[] GRADES = Grade.values();
+
+    private final Path directory;
+    private final CRC32 crc = new CRC32();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    private FileChannel channel;
+    private long segment;
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+    private List<Runnable> pendingApplies = new ArrayList<>();
+    private List<Runnable> spareApplies = new ArrayList<>();
+    private long appended;
+    private long synced;
+    /**
+     * 현재 세그먼트에서 fsync까지 끝난 바이트 수
+     * */
+    private long syncedPosition;
+    private boolean flushing;
+    private IOException failure;
+
+    /**
+     * fromSegment 이상의 세그먼트를 순서대로 replay 한 뒤, 그 다음 번호의 새 세그먼트를 연다.
+     * (잘린 기록이 있을 수 있는 기존 세그먼트에는 이어 쓰지 않는다.)
+     * */
+    static MemberWriteAheadLog open(Path directory, long fromSegment, Consumer<Member> replay) {
+        try {
+            Files.createDirectories(directory);
+            long last = fromSegment - 1;
+            for (long number : segments(directory)) {
+                if (number >= fromSegment) {
+                    replaySegment(segmentPath(directory, number), replay);
+                    last = number;
+                }
+            }
+            return new MemberWriteAheadLog(directory, Math.max(last + 1, fromSegment));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MemberWriteAheadLog(Path directory, long segment) throws IOException {
+        this.directory = directory;
+        this.segment = segment;
+        this.channel = openSegment(directory, segment);
+        forceDirectory(directory);
+    }
+
+    /**
+     * 기록을 버퍼에 추가한다. apply는 이 기록이 fsync된 뒤에 실행된다. (쓰기에 실패하면 실행되지 않는다)
+     * => apply는 기록 순서대로 실행되므로 로그에 남은 순서와 저장소에 반영된 순서가 항상 같다.
+     *
+     * @return sync에 넘길 기록 번호
+     * @throws IllegalArgumentException 이름이 기록 한 개의 최대 크기를 넘으면 (버퍼에 추가하지 않는다)
+     * */
+    long append(Member member, Runnable apply) {
+        byte[] name = encodeName(member);
+        lock.lock();
+        try {
+            checkNotFailed();
+            ensureCapacity(frameSize(name));
+            writeFrame(pending, member.getId(), member.getGrade(), name, crc);
+            pendingApplies.add(apply);
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * sequence까지의 기록이 디스크에 내려가고 저장소에 반영될 때까지 기다린다.
+     *
+     * @throws UncheckedIOException 로그 쓰기가 실패했으면 (실패 이전에 fsync된 기록이 아니면 모두)
+     * */
+    void sync(long sequence) {
+        lock.lock();
+        try {
+            while (synced < sequence) {
+                checkNotFailed();
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                } else {
+                    flush();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 지금까지의 기록을 모두 내리고 새 세그먼트로 넘어간다.
+     *
+     * @return 새 세그먼트 번호 (이후의 모든 기록은 이 번호 이상의 세그먼트에 남는다)
+     * */
+    long rotate() {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            flush();
+            channel.close();
+            segment++;
+            channel = openSegment(directory, segment);
+            syncedPosition = 0;
+            // 새 세그먼트 파일의 디렉터리 항목도 내려야 그 안의 기록이 crash 후에 남는다.
+            forceDirectory(directory);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 스냅샷에 이미 반영된 세그먼트 파일을 삭제한다.
+     * */
+    void deleteSegmentsBefore(long number) {
+        try {
+            for (long existing : segments(directory)) {
+                if (existing < number) {
+                    Files.deleteIfExists(segmentPath(directory, existing));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (failure == null) {
+                flush();
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * leader 역할: 쌓인 버퍼를 spare와 맞바꾼 뒤 락을 놓고 write + fsync 한다.
+     * 그동안 다른 스레드는 새 버퍼에 계속 append 할 수 있다.
+     * fsync가 끝나면 묶음의 apply를 순서대로 실행하고, 실패하면 로그를 실패 상태로 둔다.
+     * (lock을 잡은 상태에서 호출해야 한다)
+     * */
+    private void flush() {
+        checkNotFailed();
+        ByteBuffer batch = pending;
+        pending = spare;
+        spare = null;
+        List<Runnable> applies = pendingApplies;
+        pendingApplies = spareApplies;
+        spareApplies = null;
+        long target = appended;
+        long position = syncedPosition;
+        FileChannel out = channel;
+        flushing = true;
+
+        IOException error = null;
+        lock.unlock();
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                out.write(batch);
+            }
+            out.force(false);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+        }
+
+        long written = batch.limit();
+        batch.clear();
+        spare = batch;
+        flushing = false;
+        try {
+            if (error == null) {
+                syncedPosition = position + written;
+                for (Runnable apply : applies) {
+                    apply.run();
+                }
+                synced = target;
+            } else {
+                failure = error;
+                truncate(out, position, error);
+            }
+        } finally {
+            applies.clear();
+            spareApplies = applies;
+            flushed.signalAll();
+        }
+        if (error != null) {
+            throw new UncheckedIOException("write-ahead log write failed", error);
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("write-ahead log has failed", failure);
+        }
+    }
+
+    /**
+     * 실패한 묶음이 일부만 쓰였을 수 있으므로 마지막으로 fsync한 위치까지 잘라낸다. (이것도 실패하면 replay가 잘린 기록에서 멈춘다)
+     * */
+    private static void truncate(FileChannel out, long position, IOException error) {
+        try {
+            out.truncate(position);
+            out.force(false);
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 디렉터리의 파일 생성/이름 변경/삭제를 디스크에 내린다. (파일 내용의 fsync와는 별개다)
+     * */
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (pending.remaining() < size) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + size));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+
+    /**
+     * 이름을 인코딩하지 않고 기록 크기만 확인한다. (배치를 버퍼에 쌓기 전에 한꺼번에 확인할 때)
+     * => UTF-8은 char 하나당 최대 3바이트이므로 대부분의 이름은 길이만 보고 통과한다.
+     *
+     * @throws IllegalArgumentException 이름이 기록 한 개의 최대 크기를 넘으면
+     * */
+    static void checkFrameSize(Member member) {
+        String name = member.getName();
+        if (name != null && name.length() > MAX_NAME_BYTES / 3) {
+            encodeName(member);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException 이름이 기록 한 개의 최대 크기를 넘으면
+     * */
+    static byte[] encodeName(Member member) {
+        if (member.getName() == null) {
+            return null;
+        }
+        byte[] name = member.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException(
+                    "member name too long: " + name.length + " bytes (max " + MAX_NAME_BYTES + "), id=" + member.getId());
+        }
+        return name;
+    }
+
+    static int frameSize(byte[] name) {
+        return FRAME_HEADER + FIXED_PAYLOAD + (name == null ? 0 : name.length);
+    }
+
+    static void writeFrame(ByteBuffer buffer, long id, Grade grade, byte[] name, CRC32 crc) {
+        int start = buffer.position();
+        buffer.position(start + FRAME_HEADER);
+        buffer.putLong(id);
+        buffer.put(grade == null ? (byte) -1 : (byte) grade.ordinal());
+        buffer.putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            buffer.put(name);
+        }
+        int end = buffer.position();
+        int payloadLength = end - start - FRAME_HEADER;
+
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start + FRAME_HEADER, payloadLength);
+        buffer.putInt(start, payloadLength);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * @return 다음 기록, 파일 끝이거나 잘린 기록이면 null
+     * @throws IllegalStateException payload 길이가 MAX_PAYLOAD를 넘으면 (쓸 때 거절하는 크기이므로 손상)
+     * */
+    static Member readFrame(DataInputStream in, CRC32 crc) throws IOException {
+        int payloadLength;
+        try {
+            payloadLength = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (payloadLength > MAX_PAYLOAD) {
+            throw new IllegalStateException("corrupted member log frame: payload length " + payloadLength);
+        }
+        if (payloadLength < FIXED_PAYLOAD) {
+            return null;
+        }
+        byte[] payload = new byte[payloadLength];
+        int expectedCrc;
+        try {
+            expectedCrc = in.readInt();
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        crc.reset();
+        crc.update(payload, 0, payloadLength);
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long id = buffer.getLong();
+        byte grade = buffer.get();
+        int nameLength = buffer.getInt();
+        String name = nameLength < 0 ? null
+                : new String(payload, buffer.position(), nameLength, StandardCharsets.UTF_8);
+        return new Member(id, name, grade < 0 ? null : GRADES[grade]);
+    }
+
+    private static void replaySegment(Path path, Consumer<Member> replay) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            Member member;
+            while ((member = readFrame(in, crc)) != null) {
+                replay.accept(member);
+            }
+        }
+    }
+
+    private static List<Long> segments(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "wal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                numbers.add(Long.parseLong(name.substring(4, name.length() - 4)));
+            }
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("wal-%016d.log", number));
+    }
+
+    private static FileChannel openSegment(Path directory, long number) throws IOException {
+        return FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -1,14 +1,19 @@
 package hello.core.member;
 
+import hello.core.common.ConcurrentLongMap;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * HashMap은 동시에 join/findMember 요청이 들어오면 안전하지 않다.
+ * => long 키를 그대로 쓰는 ConcurrentLongMap으로 저장소를 교체하였다. (세그먼트 락 + 락 없는 읽기)
+ * */
 @Component
 public class MemoryMemberRepository implements MemberRepository {
 
-    private static Map<Long, Member> store =new HashMap<>();
+    private static final ConcurrentLongMap<Member> store = new ConcurrentLongMap<>();
 
     @Override
     public void save(Member member) {
@@ -17,6 +22,37 @@ public class MemoryMemberRepository implements MemberRepository {
 
     @Override
     public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
         return store.get(memberId);
     }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        long[] ids = new long[members.size()];
+        Member[] values = new Member[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = members.get(i);
+            ids[i] = values[i].getId();
+        }
+        store.putAll(ids, values);
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        store.getAll(memberIds, members);
+        return members;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.forEach((id, member) -> action.accept(member));
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        store.forEachConsistent((id, member) -> action.accept(member));
+    }
 }
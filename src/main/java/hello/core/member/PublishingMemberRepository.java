@@ -0,0 +1,112 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 저장할 때마다 MemberChangeFeed에 이벤트를 발행하는 데코레이터
+ * => 캐시, 집계처럼 회원 변경을 알아야 하는 쪽이 저장소를 주기적으로 다시 읽지 않고 피드를 구독한다.
+ * => 조회는 그대로 원래 저장소에 넘긴다.
+ *
+ * 같은 회원의 이벤트 순서 = 저장 순서
+ * => id 구간(stripe)별 락 안에서 이전 회원 조회 → 저장 → 발행을 한 번에 한다. (CachingMemberRepository와 같은 방식)
+ * => 피드가 가득 차서 발행이 기다리면 저장도 기다린다. (느린 구독자의 배압이 저장까지 전달된다)
+ *
+ * 이전 등급은 저장 전에 원래 저장소에서 조회한 회원으로 알아낸다.
+ * => 원래 저장소가 MemberUpdateRepository면 스냅샷으로 읽는다. (Member 복사 없음, 저장 경로 비용 감소)
+ * => MemoryMemberRepository처럼 저장된 Member 객체를 그대로 돌려주는 저장소에서 조회한 객체를 setGrade로 바꾼 뒤 save하면,
+ *    이전 등급도 이미 바뀐 값으로 보인다. 등급 변경을 정확히 알아야 하면 VersionedMemberRepository를 감싼다.
+ * */
+public class PublishingMemberRepository implements MemberRepository {
+
+    private static final int STRIPES = 64;
+
+    private final MemberRepository delegate;
+    private final MemberUpdateRepository snapshots;
+    private final MemberChangeFeed feed;
+    private final ReentrantLock[] stripeLocks = new ReentrantLock[STRIPES];
+
+    public PublishingMemberRepository(MemberRepository delegate, MemberChangeFeed feed) {
+        this.delegate = delegate;
+        this.snapshots = delegate instanceof MemberUpdateRepository updates ? updates : null;
+        this.feed = feed;
+        for (int i = 0; i < STRIPES; i++) {
+            stripeLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        long id = member.getId();
+        ReentrantLock stripeLock = stripeLocks[stripe(id)];
+        stripeLock.lock();
+        try {
+            if (snapshots != null) {
+                MemberSnapshot previous = snapshots.findSnapshot(id);
+                delegate.save(member);
+                feed.publish(member, previous == null, previous == null ? null : previous.getGrade());
+            } else {
+                Member previous = delegate.findById(id);
+                delegate.save(member);
+                feed.publish(member, previous);
+            }
+        } finally {
+            stripeLock.unlock();
+        }
+    }
+
+    /**
+     * 원래 저장소의 findAllById, saveAll은 한 번만 호출한다. 배치가 어느 구간에 걸칠지 모르므로 그동안 모든 구간의 락을 잡는다.
+     * => 배치 안에 같은 id가 여러 번 나오면 뒤의 이벤트는 앞의 회원을 이전 회원으로 본다.
+     * */
+    @Override
+    public void saveAll(List<Member> members) {
+        long[] ids = new long[members.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = members.get(i).getId();
+        }
+        for (int s = 0; s < STRIPES; s++) {
+            stripeLocks[s].lock();
+        }
+        try {
+            Member[] previous = delegate.findAllById(ids);
+            delegate.saveAll(members);
+            ConcurrentLongMap<Member> earlier = new ConcurrentLongMap<>(1);
+            for (int i = 0; i < ids.length; i++) {
+                Member sameBatch = earlier.put(ids[i], members.get(i));
+                feed.publish(members.get(i), sameBatch != null ? sameBatch : previous[i]);
+            }
+        } finally {
+            for (int s = STRIPES - 1; s >= 0; s--) {
+                stripeLocks[s].unlock();
+            }
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return delegate.findById(memberId);
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        return delegate.findAllById(memberIds);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        delegate.forEachConsistent(action);
+    }
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,338 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 회원을 id 해시로 N개의 독립된 파티션에 나눠 저장하는 메모리 저장소
+ * => 파티션마다 자기 테이블과 락(세그먼트 하나짜리 ConcurrentLongMap)을 가진다. 서로 다른 파티션의 저장은 경합하지 않는다.
+ * => 테이블이 파티션 수만큼 작게 나뉘므로 resize 때 복사하는 배열도, 한 번에 할당하는 큰 배열도 작다. (GC 부담 감소)
+ * => MemoryMemberRepository와 달리 저장소마다 따로 저장한다. (static 아님)
+ *
+ * 전체 조회(scan)는 파티션을 ForkJoinPool에서 병렬로 훑는다. (MemberQueryRepository의 조회도 scan으로 처리한다)
+ * => 파티션 하나는 읽기 락을 잡고 복사 없이 훑는다. 그동안 그 파티션의 저장만 기다리고 나머지 파티션은 막지 않는다.
+ * => 따라서 파티션 하나 안에서는 한 시점의 상태지만, 파티션끼리는 서로 다른 시점일 수 있다.
+ * ==> 전체가 한 시점이어야 하면 IndexedMemberRepository를 사용한다.
+ *
+ * 파티션 번호는 id * 황금비 상수의 상위 비트로 고른다. (파티션 안의 슬롯은 ConcurrentLongMap이 다른 해시의 하위 비트로 고르므로 서로 겹치지 않는다)
+ * */
+public class ShardedMemberRepository implements MemberQueryRepository {
+
+    private static final int MAX_PARTITIONS = 1 << 12;
+
+    private final ConcurrentLongMap<Member>[] partitions;
+    private final int partitionShift;
+    private final ForkJoinPool scanPool;
+
+    public ShardedMemberRepository(int partitions) {
+        this(partitions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param partitions 2의 거듭제곱으로 올림한다.
+     * @param scanPool 전체 조회를 실행할 pool
+     * */
+    @SuppressWarnings("unchecked")
+    public ShardedMemberRepository(int partitions, ForkJoinPool scanPool) {
+        if (partitions < 1 || partitions > MAX_PARTITIONS) {
+            throw new IllegalArgumentException("partitions must be between 1 and " + MAX_PARTITIONS + ": " + partitions);
+        }
+        int count = 1;
+        while (count < partitions) {
+            count <<= 1;
+        }
+        this.partitions = new ConcurrentLongMap[count];
+        for (int i = 0; i < count; i++) {
+            this.partitions[i] = new ConcurrentLongMap<>(1);
+        }
+        this.partitionShift = 64 - Integer.numberOfTrailingZeros(count);
+        this.scanPool = scanPool;
+    }
+
+    @Override
+    public void save(Member member) {
+        long id = member.getId();
+        partitions[partitionOf(id)].put(id, member);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        return partitions[partitionOf(memberId)].get(memberId);
+    }
+
+    /**
+     * 회원을 파티션별로 모아서 파티션마다 락을 한 번만 잡는다.
+     * */
+    @Override
+    public void saveAll(List<Member> members) {
+        long[] ids = new long[members.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = members.get(i).getId();
+        }
+        int[] order = new int[ids.length];
+        int[] bounds = groupByPartition(ids, order);
+        for (int p = 0; p < partitions.length; p++) {
+            int from = bounds[p];
+            int length = bounds[p + 1] - from;
+            if (length == 0) {
+                continue;
+            }
+            long[] partitionIds = new long[length];
+            Member[] partitionMembers = new Member[length];
+            for (int i = 0; i < length; i++) {
+                int index = order[from + i];
+                partitionIds[i] = ids[index];
+                partitionMembers[i] = members.get(index);
+            }
+            partitions[p].putAll(partitionIds, partitionMembers);
+        }
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        int[] order = new int[memberIds.length];
+        int[] bounds = groupByPartition(memberIds, order);
+        for (int p = 0; p < partitions.length; p++) {
+            int from = bounds[p];
+            int length = bounds[p + 1] - from;
+            if (length == 0) {
+                continue;
+            }
+            long[] partitionIds = new long[length];
+            for (int i = 0; i < length; i++) {
+                partitionIds[i] = memberIds[order[from + i]];
+            }
+            Member[] found = new Member[length];
+            partitions[p].getAll(partitionIds, found);
+            for (int i = 0; i < length; i++) {
+                members[order[from + i]] = found[i];
+            }
+        }
+        return members;
+    }
+
+    /**
+     * 파티션을 하나씩 차례로 훑는다. 파티션마다 복사본을 뜬 뒤 락을 풀고 넘긴다. (파티션 단위로 한 시점)
+     * */
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        for (ConcurrentLongMap<Member> partition : partitions) {
+            partition.forEach((id, member) -> action.accept(member));
+        }
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        ConcurrentLongMap.forEachConsistent(partitions, (id, member) -> action.accept(member));
+    }
+
+    /**
+     * 파티션을 병렬로 훑어서 결과를 모은다. (Stream.collect와 같은 방식)
+     * => 파티션 묶음마다 supplier로 만든 결과에 accumulator로 쌓고, 묶음끼리는 combiner로 합친다.
+     * => accumulator는 서로 다른 결과 객체에 대해 동시에 호출된다. (결과 객체 하나는 한 스레드만 쓴다)
+     * */
+    public <A> A scan(Supplier<A> supplier, BiConsumer<A, ? super Member> accumulator, BinaryOperator<A> combiner) {
+        return scanPool.invoke(new ScanTask<>(0, partitions.length, supplier, accumulator, combiner));
+    }
+
+    public long count() {
+        long count = 0;
+        for (ConcurrentLongMap<Member> partition : partitions) {
+            count += partition.size();
+        }
+        return count;
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    @Override
+    public Stream<Member> findByGrade(Grade grade) {
+        checkGrade(grade);
+        return scan(ArrayList<Member>::new, (found, member) -> {
+            if (member.getGrade() == grade) {
+                found.add(member);
+            }
+        }, ShardedMemberRepository::concat).stream();
+    }
+
+    @Override
+    public int countByGrade(Grade grade) {
+        checkGrade(grade);
+        return scan(() -> new int[1], (count, member) -> {
+            if (member.getGrade() == grade) {
+                count[0]++;
+            }
+        }, (left, right) -> {
+            left[0] += right[0];
+            return left;
+        })[0];
+    }
+
+    /**
+     * 이름이 없는(null) 회원은 찾지 않는다. findByName(null)은 빈 결과다. (IndexedMemberRepository와 같다)
+     * */
+    @Override
+    public Stream<Member> findByName(String name) {
+        if (name == null) {
+            return Stream.empty();
+        }
+        return scan(ArrayList<Member>::new, (found, member) -> {
+            if (name.equals(member.getName())) {
+                found.add(member);
+            }
+        }, ShardedMemberRepository::concat).stream();
+    }
+
+    /**
+     * 파티션마다 이름 순 상위 limit 명만 남기고(TopNames), 그것끼리 합친 뒤 다시 상위 limit 명을 고른다.
+     * => 일치하는 회원 전체를 모아서 정렬하지 않는다. 메모리는 파티션 묶음마다 limit 명까지만 쓴다.
+     * */
+    @Override
+    public Stream<Member> findByNamePrefix(String prefix, int limit) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("prefix must not be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        if (limit == 0) {
+            return Stream.empty();
+        }
+        TopNames top = scan(() -> new TopNames(limit), (names, member) -> {
+            if (member.getName() != null && member.getName().startsWith(prefix)) {
+                names.offer(member);
+            }
+        }, TopNames::merge);
+        return top.sorted().stream();
+    }
+
+    private static void checkGrade(Grade grade) {
+        if (grade == null) {
+            throw new IllegalArgumentException("grade must not be null");
+        }
+    }
+
+    private int partitionOf(long id) {
+        if (partitionShift == 64) {
+            return 0;
+        }
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> partitionShift);
+    }
+
+    /**
+     * id를 파티션 순서로 정렬한 인덱스(order)를 만든다. (counting sort, ConcurrentLongMap.groupBySegment와 같은 방식)
+     *
+     * @return 파티션 p의 id는 order[bounds[p]] ~ order[bounds[p + 1] - 1]
+     * */
+    private int[] groupByPartition(long[] ids, int[] order) {
+        int[] bounds = new int[partitions.length + 1];
+        int[] partitionOfId = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            partitionOfId[i] = partitionOf(ids[i]);
+            bounds[partitionOfId[i] + 1]++;
+        }
+        for (int p = 0; p < partitions.length; p++) {
+            bounds[p + 1] += bounds[p];
+        }
+        int[] next = bounds.clone();
+        for (int i = 0; i < ids.length; i++) {
+            order[next[partitionOfId[i]]++] = i;
+        }
+        return bounds;
+    }
+
+    private static <T> ArrayList<T> concat(ArrayList<T> left, ArrayList<T> right) {
+        left.addAll(right);
+        return left;
+    }
+
+    /**
+     * 이름 순으로 앞선 회원을 최대 limit 명까지만 들고 있는다.
+     * => 이름 순 역순 힙이라 가장 뒤에 있는 회원이 맨 위에 있다. 가득 차면 그보다 앞선 회원이 올 때만 바꾼다.
+     * */
+    private static final class TopNames {
+        private static final Comparator<Member> BY_NAME = Comparator.comparing(Member::getName);
+
+        private final int limit;
+        private final PriorityQueue<Member> heap;
+
+        TopNames(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 16), BY_NAME.reversed());
+        }
+
+        void offer(Member member) {
+            if (heap.size() < limit) {
+                heap.add(member);
+            } else if (BY_NAME.compare(member, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(member);
+            }
+        }
+
+        TopNames merge(TopNames other) {
+            for (Member member : other.heap) {
+                offer(member);
+            }
+            return this;
+        }
+
+        List<Member> sorted() {
+            List<Member> members = new ArrayList<>(heap);
+            members.sort(BY_NAME);
+            return members;
+        }
+    }
+
+    private final class ScanTask<A> extends RecursiveTask<A> {
+
+        private final int from;
+        private final int to;
+        private final Supplier<A> supplier;
+        private final BiConsumer<A, ? super Member> accumulator;
+        private final BinaryOperator<A> combiner;
+
+        /**
+         * partitions[from, to)를 맡는다.
+         * */
+        ScanTask(int from, int to, Supplier<A> supplier, BiConsumer<A, ? super Member> accumulator,
+                 BinaryOperator<A> combiner) {
+            this.from = from;
+            this.to = to;
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from == 1) {
+                A result = supplier.get();
+                partitions[from].forEachConsistent((id, member) -> accumulator.accept(result, member));
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<A> left = new ScanTask<>(from, middle, supplier, accumulator, combiner);
+            left.fork();
+            A right = new ScanTask<>(middle, to, supplier, accumulator, combiner).compute();
+            return combiner.apply(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package hello.core.member;
+
+import hello.core.common.ConcurrentLongMap;
+
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * 불변 스냅샷(MemberSnapshot)을 저장하고 compare-and-set으로 변경하는 메모리 저장소
+ * => 변경은 "읽기 → 새 스냅샷 만들기 → 읽은 스냅샷이 그대로일 때만 교체(ConcurrentLongMap.replace)"를 성공할 때까지 반복한다.
+ * ==> 교체 자체는 세그먼트 락 안에서 짧게 끝나고, 새 스냅샷을 만드는 동안에는 아무것도 잠그지 않는다.
+ * => 조회는 ConcurrentLongMap의 낙관적 읽기라서 변경과 겹쳐도 막히지 않는다.
+ *
+ * findById는 저장된 Member가 아니라 스냅샷으로 새로 만든 Member를 돌려준다.
+ * => 호출한 쪽이 setGrade/setName을 해도 저장소와 다른 스레드에는 보이지 않는다. (바꾸려면 save, update를 사용한다)
+ * => 그 대신 조회마다 Member를 하나 만든다. 할당이 부담되면 findSnapshot을 사용한다.
+ * */
+public class VersionedMemberRepository implements MemberUpdateRepository {
+
+    private final ConcurrentLongMap<MemberSnapshot> store = new ConcurrentLongMap<>();
+
+    /**
+     * 같은 id가 있으면 덮어쓰고 version을 1 올린다.
+     * */
+    @Override
+    public void save(Member member) {
+        long id = member.getId();
+        while (true) {
+            MemberSnapshot current = store.get(id);
+            if (current == null) {
+                if (store.putIfAbsent(id, new MemberSnapshot(id, member.getName(), member.getGrade(), 1)) == null) {
+                    return;
+                }
+            } else if (store.replace(id, current,
+                    new MemberSnapshot(id, member.getName(), member.getGrade(), current.getVersion() + 1))) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
+        MemberSnapshot snapshot = store.get(memberId);
+        return snapshot == null ? null : snapshot.toMember();
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        MemberSnapshot[] snapshots = new MemberSnapshot[memberIds.length];
+        store.getAll(memberIds, snapshots);
+        Member[] members = new Member[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            if (snapshots[i] != null) {
+                members[i] = snapshots[i].toMember();
+            }
+        }
+        return members;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.forEach((id, snapshot) -> action.accept(snapshot.toMember()));
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        store.forEachConsistent((id, snapshot) -> action.accept(snapshot.toMember()));
+    }
+
+    @Override
+    public MemberSnapshot findSnapshot(long memberId) {
+        return store.get(memberId);
+    }
+
+    @Override
+    public boolean compareAndSetGrade(long memberId, Grade expected, Grade newGrade) {
+        while (true) {
+            MemberSnapshot current = store.get(memberId);
+            if (current == null || current.getGrade() != expected) {
+                return false;
+            }
+            if (store.replace(memberId, current,
+                    new MemberSnapshot(memberId, current.getName(), newGrade, current.getVersion() + 1))) {
+                return true;
+            }
+            // 그 사이 이름만 바뀌었을 수도 있으므로 등급을 다시 확인한다.
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public MemberSnapshot update(long memberId, UnaryOperator<MemberSnapshot> function) {
+        while (true) {
+            MemberSnapshot current = store.get(memberId);
+            if (current == null) {
+                return null;
+            }
+            MemberSnapshot next = function.apply(current);
+            MemberSnapshot updated = new MemberSnapshot(memberId, next.getName(), next.getGrade(), current.getVersion() + 1);
+            if (store.replace(memberId, current, updated)) {
+                return updated;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
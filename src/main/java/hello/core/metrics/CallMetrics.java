@@ -0,0 +1,87 @@
+package hello.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메서드 하나의 호출 지표: 호출 수, 실패 수, 지연 시간 히스토그램
+ *
+ * 지연 시간은 samplingInterval 번에 한 번만 잰다. (호출 수, 실패 수는 모두 센다)
+ * => System.nanoTime()은 환경에 따라 한 번에 20~50ns가 걸린다. 매번 두 번씩 부르면 그것만으로 계측 비용이 50ns를 넘는다.
+ * => 표본을 고르는 데 쓰는 값은 호출 수 카운터의 증가 전 값이라서 따로 비용이 들지 않는다.
+ * => samplingInterval = 1 이면 모든 호출을 잰다.
+ *
+ * 호출 수 카운터도 LatencyHistogram처럼 스레드별 stripe로 나눈다. (stripe마다 캐시 라인 하나씩 떨어뜨려 둔다)
+ * 실패한 호출도 지연 시간에 포함한다. (실패가 빨리 끝나서 지연 시간이 좋아 보이는 것은 errors로 구분한다)
+ * */
+public class CallMetrics {
+
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * long 16개(128B) 간격으로 stripe 카운터를 둔다. (false sharing 방지)
+     * */
+    private static final int PADDING_SHIFT = 4;
+
+    private final String name;
+    private final long samplingMask;
+    private final AtomicLongArray calls;
+    private final int stripeMask;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public CallMetrics(String name, int samplingInterval) {
+        if (samplingInterval < 1 || Integer.bitCount(samplingInterval) != 1) {
+            throw new IllegalArgumentException("samplingInterval must be a power of two: " + samplingInterval);
+        }
+        this.name = name;
+        this.samplingMask = samplingInterval - 1;
+        int stripes = latency.stripeCount();
+        this.calls = new AtomicLongArray(stripes << PADDING_SHIFT);
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * 호출 직전에 부른다.
+     *
+     * @return stop에 넘길 값 (이번 호출의 시작 시각 또는 NOT_SAMPLED)
+     * */
+    public long start() {
+        long previous = calls.getAndIncrement((LatencyHistogram.threadHash() & stripeMask) << PADDING_SHIFT);
+        return (previous & samplingMask) == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    public void stop(long start) {
+        if (start != NOT_SAMPLED) {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    public void stopWithError(long start) {
+        stop(start);
+        errors.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCallCount() {
+        long total = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            total += calls.get(i << PADDING_SHIFT);
+        }
+        return total;
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * @return 표본으로 잰 지연 시간 (getCount()는 표본 수)
+     * */
+    public LatencyHistogram.Snapshot latencySnapshot() {
+        return latency.snapshot();
+    }
+}
@@ -0,0 +1,43 @@
+package hello.core.metrics;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.Member;
+
+class InstrumentedDiscountPolicy implements DiscountPolicy {
+
+    private final DiscountPolicy delegate;
+    private final CallMetrics discount;
+    private final CallMetrics discountAll;
+
+    InstrumentedDiscountPolicy(DiscountPolicy delegate, MetricsRegistry registry, String beanName) {
+        this.delegate = delegate;
+        this.discount = registry.callMetrics(beanName + ".discount");
+        this.discountAll = registry.callMetrics(beanName + ".discountAll");
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        long start = discount.start();
+        int discountPrice;
+        try {
+            discountPrice = delegate.discount(member, price);
+        } catch (RuntimeException e) {
+            discount.stopWithError(start);
+            throw e;
+        }
+        discount.stop(start);
+        return discountPrice;
+    }
+
+    @Override
+    public void discount(Member[] members, int[] prices, int[] discountPrices) {
+        long start = discountAll.start();
+        try {
+            delegate.discount(members, prices, discountPrices);
+        } catch (RuntimeException e) {
+            discountAll.stopWithError(start);
+            throw e;
+        }
+        discountAll.stop(start);
+    }
+}
@@ -0,0 +1,89 @@
+package hello.core.metrics;
+
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * saveAll, findAllById도 원래 저장소의 구현을 그대로 호출한다. (인터페이스 기본 구현으로 풀어서 호출하지 않는다)
+ * */
+class InstrumentedMemberRepository implements MemberRepository {
+
+    private final MemberRepository delegate;
+    private final CallMetrics save;
+    private final CallMetrics findById;
+    private final CallMetrics saveAll;
+    private final CallMetrics findAllById;
+
+    InstrumentedMemberRepository(MemberRepository delegate, MetricsRegistry registry, String beanName) {
+        this.delegate = delegate;
+        this.save = registry.callMetrics(beanName + ".save");
+        this.findById = registry.callMetrics(beanName + ".findById");
+        this.saveAll = registry.callMetrics(beanName + ".saveAll");
+        this.findAllById = registry.callMetrics(beanName + ".findAllById");
+    }
+
+    @Override
+    public void save(Member member) {
+        long start = save.start();
+        try {
+            delegate.save(member);
+        } catch (RuntimeException e) {
+            save.stopWithError(start);
+            throw e;
+        }
+        save.stop(start);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        long start = findById.start();
+        Member member;
+        try {
+            member = delegate.findById(memberId);
+        } catch (RuntimeException e) {
+            findById.stopWithError(start);
+            throw e;
+        }
+        findById.stop(start);
+        return member;
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        long start = saveAll.start();
+        try {
+            delegate.saveAll(members);
+        } catch (RuntimeException e) {
+            saveAll.stopWithError(start);
+            throw e;
+        }
+        saveAll.stop(start);
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        long start = findAllById.start();
+        Member[] members;
+        try {
+            members = delegate.findAllById(memberIds);
+        } catch (RuntimeException e) {
+            findAllById.stopWithError(start);
+            throw e;
+        }
+        findAllById.stop(start);
+        return members;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public void forEachConsistent(Consumer<? super Member> action) {
+        delegate.forEachConsistent(action);
+    }
+}
@@ -0,0 +1,75 @@
+package hello.core.metrics;
+
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+
+import java.util.List;
+
+class InstrumentedMemberService implements MemberService {
+
+    private final MemberService delegate;
+    private final CallMetrics join;
+    private final CallMetrics findMember;
+    private final CallMetrics joinAll;
+    private final CallMetrics findMembers;
+
+    InstrumentedMemberService(MemberService delegate, MetricsRegistry registry, String beanName) {
+        this.delegate = delegate;
+        this.join = registry.callMetrics(beanName + ".join");
+        this.findMember = registry.callMetrics(beanName + ".findMember");
+        this.joinAll = registry.callMetrics(beanName + ".joinAll");
+        this.findMembers = registry.callMetrics(beanName + ".findMembers");
+    }
+
+    @Override
+    public void join(Member member) {
+        long start = join.start();
+        try {
+            delegate.join(member);
+        } catch (RuntimeException e) {
+            join.stopWithError(start);
+            throw e;
+        }
+        join.stop(start);
+    }
+
+    @Override
+    public Member findMember(Long memberId) {
+        long start = findMember.start();
+        Member member;
+        try {
+            member = delegate.findMember(memberId);
+        } catch (RuntimeException e) {
+            findMember.stopWithError(start);
+            throw e;
+        }
+        findMember.stop(start);
+        return member;
+    }
+
+    @Override
+    public void joinAll(List<Member> members) {
+        long start = joinAll.start();
+        try {
+            delegate.joinAll(members);
+        } catch (RuntimeException e) {
+            joinAll.stopWithError(start);
+            throw e;
+        }
+        joinAll.stop(start);
+    }
+
+    @Override
+    public Member[] findMembers(long[] memberIds) {
+        long start = findMembers.start();
+        Member[] members;
+        try {
+            members = delegate.findMembers(memberIds);
+        } catch (RuntimeException e) {
+            findMembers.stopWithError(start);
+            throw e;
+        }
+        findMembers.stop(start);
+        return members;
+    }
+}
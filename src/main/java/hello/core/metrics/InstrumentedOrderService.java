@@ -0,0 +1,46 @@
+package hello.core.metrics;
+
+import hello.core.order.Order;
+import hello.core.order.OrderBatch;
+import hello.core.order.OrderService;
+
+class InstrumentedOrderService implements OrderService {
+
+    private final OrderService delegate;
+    private final CallMetrics createOrder;
+    private final CallMetrics createOrders;
+
+    InstrumentedOrderService(OrderService delegate, MetricsRegistry registry, String beanName) {
+        this.delegate = delegate;
+        this.createOrder = registry.callMetrics(beanName + ".createOrder");
+        this.createOrders = registry.callMetrics(beanName + ".createOrders");
+    }
+
+    @Override
+    public Order createOrder(Long memberId, String itemName, int itemPrice) {
+        long start = createOrder.start();
+        Order order;
+        try {
+            order = delegate.createOrder(memberId, itemName, itemPrice);
+        } catch (RuntimeException e) {
+            createOrder.stopWithError(start);
+            throw e;
+        }
+        createOrder.stop(start);
+        return order;
+    }
+
+    @Override
+    public OrderBatch createOrders(long[] memberIds, String[] itemNames, int[] itemPrices) {
+        long start = createOrders.start();
+        OrderBatch batch;
+        try {
+            batch = delegate.createOrders(memberIds, itemNames, itemPrices);
+        } catch (RuntimeException e) {
+            createOrders.stopWithError(start);
+            throw e;
+        }
+        createOrders.stop(start);
+        return batch;
+    }
+}
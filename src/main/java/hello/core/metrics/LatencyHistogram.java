@@ -0,0 +1,176 @@
+package hello.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 락 없는 지연 시간(ns) 히스토그램 (HdrHistogram과 같은 log-linear 구간)
+ * => 2의 거듭제곱 구간마다 SUB_BUCKETS(32)개의 같은 폭 구간으로 나눈다. 어느 값이든 상대 오차가 1/32(약 3%) 이내다.
+ * => 64ns 미만은 1ns 단위로 정확하게, 2^41ns(약 36분) 이상은 마지막 구간에 모은다.
+ * => 구간 번호는 비트 연산(numberOfLeadingZeros, shift)만으로 계산한다. (나눗셈, 로그 없음)
+ *
+ * 기록(record)은 원자적 증가 한 번이다.
+ * => 구간 배열을 stripe 여러 개에 나눠 두고 스레드마다 자기 stripe에만 더한다. (RevenueAggregator와 같은 방식)
+ * ==> 여러 스레드가 같은 메서드를 호출해도 같은 캐시 라인을 두고 경쟁하지 않는다.
+ * => 최댓값은 지금까지의 최댓값보다 클 때만 CAS 한다. (처음 잠깐을 제외하면 거의 일어나지 않는다)
+ *
+ * snapshot()은 stripe를 합산하는 동안 기록을 막지 않으므로 그 사이 기록된 값이 일부만 포함될 수 있다. (모니터링 용도로는 충분하다)
+ * */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_MAGNITUDE = 40;
+    static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) << SUB_BUCKET_BITS;
+
+    private static final int MAX_STRIPES = 16;
+
+    private final AtomicLongArray[] stripes;
+    private final int mask;
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LatencyHistogram(int concurrencyLevel) {
+        int count = 1;
+        while (count < concurrencyLevel && count < MAX_STRIPES) {
+            count <<= 1;
+        }
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        this.mask = count - 1;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        currentStripe().getAndIncrement(bucketOf(value));
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return new Snapshot(counts, max.get());
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @return 구간에 들어가는 가장 작은 값
+     * */
+    static long lowerBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        return (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+    }
+
+    /**
+     * @return 구간에 들어가는 가장 큰 값
+     * */
+    static long upperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        return lowerBound(bucket) + (1L << shift) - 1;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private AtomicLongArray currentStripe() {
+        return stripes[threadHash() & mask];
+    }
+
+    static int threadHash() {
+        long id = Thread.currentThread().getId();
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+    }
+
+    /**
+     * 합산된 구간별 개수 (불변)
+     * */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long max;
+
+        Snapshot(long[] counts, long max) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * 구간의 가운데 값으로 계산한 평균
+         * */
+        public double getMean() {
+            if (count == 0) {
+                return 0;
+            }
+            double total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    total += (double) counts[i] * ((lowerBound(i) + upperBound(i)) / 2.0);
+                }
+            }
+            return total / count;
+        }
+
+        /**
+         * @param percentile 0 ~ 100 (예: 99.9)
+         * @return 기록된 값 중 percentile 퍼센트가 이 값 이하다. (구간의 가장 큰 값, 최댓값을 넘지 않는다)
+         * */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
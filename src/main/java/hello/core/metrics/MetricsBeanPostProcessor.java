@@ -0,0 +1,61 @@
+package hello.core.metrics;
+
+import hello.core.annotation.MetricsEnabled;
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberService;
+import hello.core.order.OrderService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * MemberService, OrderService, DiscountPolicy, MemberRepository 빈을 계측 객체(Instrumented*)로 감싼다.
+ * => 기존 빈 코드와 AppConfig는 바뀌지 않는다. 컨테이너가 주입하는 객체가 감싼 객체로 바뀔 뿐이다.
+ * ==> AppConfig의 orderService()가 memberRepository()를 호출해도 CGLIB 프록시가 컨테이너의 (감싼) 빈을 돌려준다.
+ * => 지표 이름은 "빈 이름.메서드 이름" (예: orderService.createOrder)
+ *
+ * 스프링 AOP 프록시(리플렉션 호출) 대신 인터페이스를 직접 구현한 데코레이터를 쓴다.
+ * => 호출 한 번에 추가되는 비용은 원자적 증가 한 번이고, 표본으로 뽑힌 호출만 System.nanoTime() 두 번과 히스토그램 기록이 더해진다.
+ * ==> MetricsOverheadBenchmark로 확인한다. (목표: 호출당 50ns 미만)
+ *
+ * 계측 인터페이스 외의 인터페이스도 구현한 빈은 감싸지 않는다.
+ * => 감싸면 그 타입(MemberQueryRepository, AutoCloseable 등)으로 주입하거나 close를 호출할 수 없게 된다.
+ * */
+@Component
+@MetricsEnabled
+public class MetricsBeanPostProcessor implements BeanPostProcessor {
+
+    private final MetricsRegistry registry;
+
+    public MetricsBeanPostProcessor(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof MemberService memberService && implementsOnly(bean, MemberService.class)) {
+            return new InstrumentedMemberService(memberService, registry, beanName);
+        }
+        if (bean instanceof OrderService orderService && implementsOnly(bean, OrderService.class)) {
+            return new InstrumentedOrderService(orderService, registry, beanName);
+        }
+        if (bean instanceof DiscountPolicy discountPolicy && implementsOnly(bean, DiscountPolicy.class)) {
+            return new InstrumentedDiscountPolicy(discountPolicy, registry, beanName);
+        }
+        if (bean instanceof MemberRepository memberRepository && implementsOnly(bean, MemberRepository.class)) {
+            return new InstrumentedMemberRepository(memberRepository, registry, beanName);
+        }
+        return bean;
+    }
+
+    private static boolean implementsOnly(Object bean, Class<?> type) {
+        for (Class<?> c = bean.getClass(); c != null; c = c.getSuperclass()) {
+            for (Class<?> implemented : c.getInterfaces()) {
+                if (implemented != type) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package hello.core.metrics;
+
+import hello.core.annotation.MetricsEnabled;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /metrics
+ * => 지표마다 호출 수(count), 실패 수(errors), 지연 시간(ns) 평균/백분위/최댓값을 JSON으로 응답한다.
+ * => 지연 시간은 표본(samples)으로 계산한 값이다. (MetricsRegistry의 samplingInterval)
+ * => count, errors는 누적값이다. 처리량(초당 호출 수)은 수집하는 쪽에서 두 번 조회한 값의 차이로 계산한다.
+ * */
+@Controller
+@MetricsEnabled
+public class MetricsController {
+
+    private final MetricsRegistry registry;
+
+    public MetricsController(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping("/metrics")
+    @ResponseBody
+    public Map<String, Map<String, Object>> metrics() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, CallMetrics> entry : registry.getAll().entrySet()) {
+            CallMetrics metrics = entry.getValue();
+            LatencyHistogram.Snapshot snapshot = metrics.latencySnapshot();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", metrics.getCallCount());
+            values.put("errors", metrics.getErrorCount());
+            values.put("samples", snapshot.getCount());
+            values.put("meanNanos", Math.round(snapshot.getMean()));
+            values.put("p50Nanos", snapshot.getValueAtPercentile(50));
+            values.put("p90Nanos", snapshot.getValueAtPercentile(90));
+            values.put("p99Nanos", snapshot.getValueAtPercentile(99));
+            values.put("p999Nanos", snapshot.getValueAtPercentile(99.9));
+            values.put("maxNanos", snapshot.getMax());
+            result.put(entry.getKey(), values);
+        }
+        return result;
+    }
+}
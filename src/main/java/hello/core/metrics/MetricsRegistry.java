@@ -0,0 +1,37 @@
+package hello.core.metrics;
+
+import hello.core.annotation.MetricsEnabled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이름("빈 이름.메서드 이름")별 CallMetrics 저장소
+ * => 계측 객체(Instrumented*)는 생성할 때 CallMetrics를 한 번만 찾아서 필드로 들고 있는다. (호출마다 Map을 조회하지 않는다)
+ * => samplingInterval: 지연 시간을 몇 번의 호출에 한 번 잴지 (2의 거듭제곱, CallMetrics 참고)
+ * */
+@Component
+@MetricsEnabled
+public class MetricsRegistry {
+
+    private final Map<String, CallMetrics> metrics = new ConcurrentHashMap<>();
+    private final int samplingInterval;
+
+    public MetricsRegistry(@Value("${metrics.latency.sampling-interval:8}") int samplingInterval) {
+        this.samplingInterval = samplingInterval;
+    }
+
+    public CallMetrics callMetrics(String name) {
+        return metrics.computeIfAbsent(name, key -> new CallMetrics(key, samplingInterval));
+    }
+
+    /**
+     * @return 이름 순으로 정렬된 전체 지표
+     * */
+    public Map<String, CallMetrics> getAll() {
+        return new TreeMap<>(metrics);
+    }
+}
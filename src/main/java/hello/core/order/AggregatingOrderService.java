@@ -0,0 +1,53 @@
+package hello.core.order;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+/**
+ * 만들어진 주문을 RevenueAggregator에 누적하는 OrderService 데코레이터
+ * => OrderService 구현체라면 무엇이든 감쌀 수 있다. (OrderServiceImpl, LedgerOrderService, ...)
+ * => Order에는 등급이 없으므로 주문을 만든 뒤 회원 저장소에서 등급을 찾는다.
+ * ==> 그 사이에 회원 등급이 바뀌면 할인에 쓴 등급과 다른 등급으로 누적될 수 있다. (대시보드 합계 용도라 허용한다)
+ * => 회원이 없거나 등급이 없는 주문은 등급 없음(ungraded)으로 누적한다.
+ * */
+public class AggregatingOrderService implements OrderService {
+
+    private final OrderService orderService;
+    private final MemberRepository memberRepository;
+    private final RevenueAggregator aggregator;
+
+    public AggregatingOrderService(OrderService orderService, MemberRepository memberRepository,
+                                   RevenueAggregator aggregator) {
+        this.orderService = orderService;
+        this.memberRepository = memberRepository;
+        this.aggregator = aggregator;
+    }
+
+    @Override
+    public Order createOrder(Long memberId, String itemName, int itemPrice) {
+        Order order = orderService.createOrder(memberId, itemName, itemPrice);
+        aggregator.record(gradeOf(memberRepository.findById(memberId)), order);
+        return order;
+    }
+
+    @Override
+    public OrderBatch createOrders(long[] memberIds, String[] itemNames, int[] itemPrices) {
+        OrderBatch batch = orderService.createOrders(memberIds, itemNames, itemPrices);
+        Member[] members = memberRepository.findAllById(memberIds);
+        Grade[] grades = new Grade[members.length];
+        for (int i = 0; i < members.length; i++) {
+            grades[i] = gradeOf(members[i]);
+        }
+        aggregator.recordAll(grades, batch);
+        return batch;
+    }
+
+    public RevenueAggregator getAggregator() {
+        return aggregator;
+    }
+
+    private static Grade gradeOf(Member member) {
+        return member == null ? null : member.getGrade();
+    }
+}
@@ -0,0 +1,13 @@
+package hello.core.order;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OrderService의 비동기 버전
+ * => 회원 조회가 느린 저장소로 바뀌면 동기 방식은 주문 하나가 스레드 하나를 붙잡고 있게 된다.
+ * */
+public interface AsyncOrderService {
+
+    CompletableFuture<Order> createOrder(Long memberId, String itemName, int itemPrice);
+
+}
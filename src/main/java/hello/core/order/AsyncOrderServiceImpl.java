@@ -0,0 +1,23 @@
+package hello.core.order;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 주문 생성은 기존 OrderService에 그대로 맡기고, 어느 스레드에서 실행할지만 executor로 정한다.
+ * */
+public class AsyncOrderServiceImpl implements AsyncOrderService {
+
+    private final OrderService orderService;
+    private final Executor executor;
+
+    public AsyncOrderServiceImpl(OrderService orderService, Executor executor) {
+        this.orderService = orderService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Order> createOrder(Long memberId, String itemName, int itemPrice) {
+        return CompletableFuture.supplyAsync(() -> orderService.createOrder(memberId, itemName, itemPrice), executor);
+    }
+}
@@ -0,0 +1,18 @@
+package hello.core.order;
+
+/**
+ * 멱등 키(idempotency key)를 붙인 주문 생성
+ * => 클라이언트가 응답을 받지 못해 같은 주문을 재시도해도 주문은 한 번만 만들어진다.
+ * => 키 없는 주문은 OrderService를 그대로 사용한다. (OrderService의 구현체가 이 기능을 가지지 않아도 된다)
+ * */
+public interface IdempotentOrderService {
+
+    /**
+     * @param idempotencyKey 클라이언트가 주문 하나에 붙이는 고유 키 (재시도할 때 같은 키를 보낸다)
+     * @return 이 키로 처음 만든 주문
+     * @throws IllegalArgumentException 같은 키로 다른 주문(회원, 상품, 가격)이 들어온 경우
+     * @throws OrderInProgressException 같은 키의 처음 요청이 아직 처리 중인 경우 (잠시 뒤 같은 키로 재시도한다)
+     * */
+    Order createOrder(String idempotencyKey, Long memberId, String itemName, int itemPrice);
+
+}
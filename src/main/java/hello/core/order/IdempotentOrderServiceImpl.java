@@ -0,0 +1,209 @@
+package hello.core.order;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 멱등 키(idempotency key)로 재시도된 주문을 한 번만 만든다. 주문 생성은 기존 OrderService에 그대로 맡긴다.
+ * => 같은 키로 다시 들어온 주문은 기존 OrderService를 부르지 않고 처음 만든 Order를 그대로 돌려준다.
+ * => 처음 요청이 아직 처리 중이면 재시도는 그 결과를 최대 inProgressTimeout 동안 기다린다. (동시에 들어와도 주문은 한 번만 만든다)
+ * ==> 그래도 끝나지 않으면 OrderInProgressException, 처음 요청이 멈춰 있어도 재시도하는 스레드까지 붙잡히지 않는다.
+ * ==> inProgressTimeout이 0이면 기다리지 않고 바로 OrderInProgressException을 던진다.
+ * => 처음 요청이 예외로 끝나면 키를 지운다. 그때 기다리던 요청은 같은 예외를 받고, 다음 재시도는 주문을 새로 만든다.
+ * => 같은 키로 다른 주문(회원, 상품, 가격)이 들어오면 IllegalArgumentException
+ *
+ * 키 보관: 두 세대(generation)로 나눈 ConcurrentHashMap
+ * => 새 키는 현재 세대에 넣고, 조회는 현재 세대 → 이전 세대 순서로 찾는다.
+ * => 현재 세대가 window보다 오래되었거나 키가 maxKeys개 쌓이면 세대를 넘긴다. (이전 세대는 통째로 버리고, 현재 세대가 이전 세대가 된다)
+ * ==> 키마다 만료 시각을 두고 지우지 않으므로 조회는 map 조회 한두 번이고, 정리는 참조 하나를 바꾸는 것으로 끝난다.
+ * ==> 보관하는 키는 최대 2 * maxKeys개다. (키 하나에 키 문자열, Order, map 노드가 남는다)
+ * ==> 세대 map은 처음부터 maxKeys 크기로 만든다. 키가 쌓이는 동안 resize로 테이블을 여러 번 옮기지 않는다.
+ * => 키는 적어도 window 동안 기억한다. 단, 그 사이에 새 키가 maxKeys개를 넘게 들어오면 메모리 한도가 우선이라 더 일찍 잊는다.
+ * ==> 예) window = 1분, maxKeys = 1,000,000 이면 분당 100만 건까지는 모든 재시도를 1분 이상 막는다.
+ *
+ * 재시도(이미 있는 키)는 락 없이 map 조회만 한다. 새 키는 키 해시로 고른 stripe 락 안에서 다시 찾고 넣는다.
+ * => 세대를 넘기는 중에도 같은 키의 확인과 넣기가 겹치지 않으므로 주문이 두 번 만들어지지 않는다.
+ *
+ * 시간은 새 키를 넣을 때만 확인한다. (재시도 조회에는 System.nanoTime()을 부르지 않는다)
+ * */
+public class IdempotentOrderServiceImpl implements IdempotentOrderService {
+
+    private static final int STRIPES = 64;
+
+    private final OrderService orderService;
+    private final long windowNanos;
+    private final int maxKeys;
+    private final long inProgressTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Generations> generations;
+    /**
+     * 키 해시 구간(stripe)별 락, 같은 키의 "찾고 없으면 넣기"를 한 번에 하나씩 처리한다. (재시도 조회는 락을 잡지 않는다)
+     * */
+    private final ReentrantLock[] stripeLocks = new ReentrantLock[STRIPES];
+
+    /**
+     * @param window 키를 기억하는 최소 시간
+     * @param maxKeys 세대 하나에 넣는 최대 키 수
+     * @param inProgressTimeout 재시도가 처리 중인 처음 요청을 기다리는 최대 시간
+     * */
+    public IdempotentOrderServiceImpl(OrderService orderService, Duration window, int maxKeys, Duration inProgressTimeout) {
+        this(orderService, window, maxKeys, inProgressTimeout, System::nanoTime);
+    }
+
+    IdempotentOrderServiceImpl(OrderService orderService, Duration window, int maxKeys, Duration inProgressTimeout,
+                               LongSupplier nanoClock) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+        }
+        if (inProgressTimeout.isNegative()) {
+            throw new IllegalArgumentException("inProgressTimeout must not be negative: " + inProgressTimeout);
+        }
+        this.orderService = orderService;
+        this.windowNanos = window.toNanos();
+        this.maxKeys = maxKeys;
+        this.inProgressTimeoutNanos = inProgressTimeout.toNanos();
+        this.nanoClock = nanoClock;
+        this.generations = new AtomicReference<>(new Generations(new ConcurrentHashMap<>(maxKeys), new ConcurrentHashMap<>(), nanoClock.getAsLong()));
+        for (int i = 0; i < STRIPES; i++) {
+            stripeLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Order createOrder(String idempotencyKey, Long memberId, String itemName, int itemPrice) {
+        Objects.requireNonNull(idempotencyKey, "idempotencyKey");
+        Generations seen = generations.get();
+        CompletableFuture<Order> existing = seen.find(idempotencyKey);
+        if (existing != null) {
+            return sameOrder(idempotencyKey, await(idempotencyKey, existing), memberId, itemName, itemPrice);
+        }
+
+        CompletableFuture<Order> mine = new CompletableFuture<>();
+        ReentrantLock stripeLock = stripeLocks[stripe(idempotencyKey)];
+        stripeLock.lock();
+        try {
+            seen = rotateIfNeeded(generations.get());
+            existing = seen.previous.get(idempotencyKey);
+            if (existing == null) {
+                // 락을 잡은 뒤에 세대가 넘어가도 mine은 새 세대의 이전 세대에 남으므로, 다음에 같은 키로 락을 잡는 요청이 찾는다.
+                existing = seen.current.putIfAbsent(idempotencyKey, mine);
+            }
+        } finally {
+            stripeLock.unlock();
+        }
+        if (existing != null) {
+            return sameOrder(idempotencyKey, await(idempotencyKey, existing), memberId, itemName, itemPrice);
+        }
+
+        Order order;
+        try {
+            order = orderService.createOrder(memberId, itemName, itemPrice);
+        } catch (RuntimeException | Error e) {
+            forget(idempotencyKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        mine.complete(order);
+        return order;
+    }
+
+    /**
+     * @return 지금 기억하고 있는 키 수 (처리 중인 키 포함)
+     * */
+    public long size() {
+        Generations current = generations.get();
+        return current.current.mappingCount() + current.previous.mappingCount();
+    }
+
+    private static int stripe(String idempotencyKey) {
+        int h = idempotencyKey.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private Generations rotateIfNeeded(Generations seen) {
+        long now = nanoClock.getAsLong();
+        if (now - seen.startedAt < windowNanos && seen.current.size() < maxKeys) {
+            return seen;
+        }
+        Generations next = new Generations(new ConcurrentHashMap<>(maxKeys), seen.current, now);
+        // 다른 스레드가 먼저 넘겼으면 그 세대를 쓴다.
+        return generations.compareAndSet(seen, next) ? next : generations.get();
+    }
+
+    private void forget(String idempotencyKey, CompletableFuture<Order> mine) {
+        Generations current = generations.get();
+        current.current.remove(idempotencyKey, mine);
+        current.previous.remove(idempotencyKey, mine);
+    }
+
+    /**
+     * 처음 요청의 결과를 최대 inProgressTimeoutNanos 동안 기다린다. (이미 끝났으면 바로 돌려준다)
+     * => 처음 요청이 예외로 끝났으면 같은 예외를 던진다.
+     * */
+    private Order await(String idempotencyKey, CompletableFuture<Order> future) {
+        try {
+            if (future.isDone()) {
+                return future.get();
+            }
+            if (inProgressTimeoutNanos == 0) {
+                throw new OrderInProgressException(idempotencyKey);
+            }
+            return future.get(inProgressTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new OrderInProgressException(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderInProgressException(idempotencyKey);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Order sameOrder(String idempotencyKey, Order order, Long memberId, String itemName, int itemPrice) {
+        if (!Objects.equals(order.getMemberId(), memberId) || !Objects.equals(order.getItemName(), itemName)
+                || order.getItemPrice() != itemPrice) {
+            throw new IllegalArgumentException("idempotency key reused for a different order: " + idempotencyKey);
+        }
+        return order;
+    }
+
+    /**
+     * 현재 세대와 이전 세대 (불변, 세대를 넘길 때 통째로 바꾼다)
+     * */
+    private static final class Generations {
+
+        final ConcurrentHashMap<String, CompletableFuture<Order>> current;
+        final ConcurrentHashMap<String, CompletableFuture<Order>> previous;
+        final long startedAt;
+
+        Generations(ConcurrentHashMap<String, CompletableFuture<Order>> current,
+                    ConcurrentHashMap<String, CompletableFuture<Order>> previous, long startedAt) {
+            this.current = current;
+            this.previous = previous;
+            this.startedAt = startedAt;
+        }
+
+        CompletableFuture<Order> find(String key) {
+            CompletableFuture<Order> future = current.get(key);
+            return future != null ? future : previous.get(key);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hello.core.order;
+
+/**
+ * 만들어진 주문을 OrderLedger에 남기는 OrderService 데코레이터
+ * => 주문 생성은 기존 OrderService에 맡기고, 결과만 장부에 추가한다.
+ * */
+public class LedgerOrderService implements OrderService {
+
+    private final OrderService orderService;
+    private final OrderLedger ledger;
+
+    public LedgerOrderService(OrderService orderService, OrderLedger ledger) {
+        this.orderService = orderService;
+        this.ledger = ledger;
+    }
+
+    @Override
+    public Order createOrder(Long memberId, String itemName, int itemPrice) {
+        Order order = orderService.createOrder(memberId, itemName, itemPrice);
+        ledger.append(order);
+        return order;
+    }
+
+    @Override
+    public OrderBatch createOrders(long[] memberIds, String[] itemNames, int[] itemPrices) {
+        OrderBatch batch = orderService.createOrders(memberIds, itemNames, itemPrices);
+        ledger.appendAll(batch);
+        return batch;
+    }
+
+    public OrderLedger getLedger() {
+        return ledger;
+    }
+}
@@ -0,0 +1,53 @@
+package hello.core.order;
+
+/**
+ * 여러 주문 결과를 Order 객체 대신 컬럼별 배열로 들고 있는 구조
+ * => 주문 수만큼 Order를 만들지 않고 배열 네 개로 표현한다. 필요할 때만 toOrder로 꺼낸다.
+ * => 생성 시 넘겨받은 배열을 복사하지 않고 그대로 사용한다.
+ * */
+public class OrderBatch {
+
+    private final long[] memberIds;
+    private final String[] itemNames;
+    private final int[] itemPrices;
+    private final int[] discountPrices;
+
+    public OrderBatch(long[] memberIds, String[] itemNames, int[] itemPrices, int[] discountPrices) {
+        if (itemNames.length != memberIds.length || itemPrices.length != memberIds.length
+                || discountPrices.length != memberIds.length) {
+            throw new IllegalArgumentException("all columns must have the same length");
+        }
+        this.memberIds = memberIds;
+        this.itemNames = itemNames;
+        this.itemPrices = itemPrices;
+        this.discountPrices = discountPrices;
+    }
+
+    public int size() {
+        return memberIds.length;
+    }
+
+    public long getMemberId(int index) {
+        return memberIds[index];
+    }
+
+    public String getItemName(int index) {
+        return itemNames[index];
+    }
+
+    public int getItemPrice(int index) {
+        return itemPrices[index];
+    }
+
+    public int getDiscountPrice(int index) {
+        return discountPrices[index];
+    }
+
+    public int calculatePrice(int index) {
+        return itemPrices[index] - discountPrices[index];
+    }
+
+    public Order toOrder(int index) {
+        return new Order(memberIds[index], itemNames[index], itemPrices[index], discountPrices[index]);
+    }
+}
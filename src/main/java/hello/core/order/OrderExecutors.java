@@ -0,0 +1,58 @@
+package hello.core.order;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주문 처리용 executor 생성
+ * => JDK 21 이상에서 실행되면 작업마다 가상 스레드(virtual thread)를 만드는 executor를 사용한다.
+ * => 빌드 대상이 JDK 17이므로 API를 직접 호출하지 않고 리플렉션으로 찾는다. (가상 스레드는 JDK 21부터 있다)
+ *    찾지 못하면 스레드 수와 대기열 크기가 정해진 플랫폼 스레드 pool(newBoundedExecutor)로 대신한다.
+ * ==> 주문마다 플랫폼 스레드를 만들면 동시에 1만 건이면 스레드도 1만 개가 된다. 그래서 pool 크기에 상한을 둔다.
+ * */
+public final class OrderExecutors {
+
+    static final int DEFAULT_THREADS = 64;
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private OrderExecutors() {
+    }
+
+    /**
+     * JDK 21 이상이면 가상 스레드 executor, 아니면 newBoundedExecutor(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY)
+     * */
+    public static ExecutorService newOrderExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return newBoundedExecutor(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+        }
+    }
+
+    /**
+     * 최대 threads개의 스레드와 queueCapacity 크기의 대기열을 가진 pool
+     * => 스레드는 필요할 때 만들고, 60초 동안 일이 없으면 정리한다.
+     * => 대기열까지 가득 차면 요청한 스레드가 직접 실행한다. (CallerRunsPolicy)
+     * ==> 주문을 버리지 않고, 요청하는 쪽이 느려지는 것으로 배압이 걸린다.
+     * */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("order-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package hello.core.order;
+
+/**
+ * 같은 멱등 키로 먼저 들어온 주문이 아직 끝나지 않았다.
+ * => 주문이 실패한 것은 아니므로 클라이언트는 잠시 뒤 같은 키로 재시도한다. (HTTP라면 409 또는 429 + Retry-After)
+ * */
+public class OrderInProgressException extends IllegalStateException {
+
+    private final String idempotencyKey;
+
+    public OrderInProgressException(String idempotencyKey) {
+        super("order is still in progress: " + idempotencyKey);
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
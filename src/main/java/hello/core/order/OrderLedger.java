@@ -0,0 +1,229 @@
+package hello.core.order;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주문을 Order 객체가 아닌 컬럼(원시 타입 배열)으로 쌓아 두는 메모리 장부
+ * => List<Order>는 주문마다 Order 객체 + Long 객체 + 참조를 만든다. 장부는 주문 한 건에 long 1개, int 3개(20B)만 쓴다.
+ * => itemName은 사전(dictionary)에 한 번만 저장하고 행에는 int 코드만 남긴다. (상품 종류는 주문 수보다 훨씬 적다)
+ * => 정산(billing)처럼 한 컬럼만 훑는 작업은 배열을 순서대로 읽으므로 빠르다.
+ *
+ * 컬럼은 CHUNK_SIZE 행씩 나눈 chunk로 늘려 간다. (배열 하나를 계속 복사하며 키우지 않는다)
+ *
+ * 동시성
+ * => 추가(append)는 락 안에서 한다. 배치(appendAll)는 락을 한 번만 잡는다.
+ * => 조회/스캔은 락 없이 한다. 행을 다 쓴 뒤 volatile size를 늘리므로, size 안쪽의 행은 항상 완성된 행이다.
+ * */
+public class OrderLedger {
+
+    static final int CHUNK_SHIFT = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Map<String, Integer> itemCodes = new HashMap<>();
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile String[] itemNames = new String[16];
+    private volatile long size;
+    private int itemCount;
+
+    /**
+     * @return 추가된 행 번호
+     * */
+    public long append(long memberId, String itemName, int itemPrice, int discountPrice) {
+        appendLock.lock();
+        try {
+            long row = size;
+            writeRow(row, memberId, encode(itemName), itemPrice, discountPrice);
+            size = row + 1;
+            return row;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long append(Order order) {
+        return append(order.getMemberId(), order.getItemName(), order.getItemPrice(), order.getDiscountPrice());
+    }
+
+    /**
+     * 배치 전체를 한 번의 락 안에서 추가한다.
+     *
+     * @return 배치의 첫 행 번호
+     * */
+    public long appendAll(OrderBatch batch) {
+        appendLock.lock();
+        try {
+            long first = size;
+            for (int i = 0; i < batch.size(); i++) {
+                writeRow(first + i, batch.getMemberId(i), encode(batch.getItemName(i)),
+                        batch.getItemPrice(i), batch.getDiscountPrice(i));
+            }
+            size = first + batch.size();
+            return first;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 행 하나를 Order로 꺼낸다. (조회용, 스캔에는 컬럼 메서드를 사용한다)
+     * */
+    public Order get(long row) {
+        checkRow(row);
+        Chunk chunk = chunks[(int) (row >>> CHUNK_SHIFT)];
+        int index = (int) row & CHUNK_MASK;
+        return new Order(chunk.memberIds[index], itemNames[chunk.itemCodes[index]],
+                chunk.itemPrices[index], chunk.discountPrices[index]);
+    }
+
+    public long getMemberId(long row) {
+        checkRow(row);
+        return chunks[(int) (row >>> CHUNK_SHIFT)].memberIds[(int) row & CHUNK_MASK];
+    }
+
+    public String getItemName(long row) {
+        checkRow(row);
+        return itemNames[chunks[(int) (row >>> CHUNK_SHIFT)].itemCodes[(int) row & CHUNK_MASK]];
+    }
+
+    /**
+     * @return 전체 주문의 결제 금액(itemPrice - discountPrice) 합
+     * */
+    public long totalPrice() {
+        long rows = size;
+        Chunk[] current = chunks;
+        long total = 0;
+        for (int c = 0; (long) c * CHUNK_SIZE < rows; c++) {
+            Chunk chunk = current[c];
+            int length = rowsIn(c, rows);
+            for (int i = 0; i < length; i++) {
+                total += chunk.itemPrices[i] - chunk.discountPrices[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return 전체 주문의 할인 금액 합
+     * */
+    public long totalDiscount() {
+        long rows = size;
+        Chunk[] current = chunks;
+        long total = 0;
+        for (int c = 0; (long) c * CHUNK_SIZE < rows; c++) {
+            Chunk chunk = current[c];
+            int length = rowsIn(c, rows);
+            for (int i = 0; i < length; i++) {
+                total += chunk.discountPrices[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return 회원 한 명의 결제 금액 합 (memberId 컬럼을 훑는다)
+     * */
+    public long totalPriceOf(long memberId) {
+        long rows = size;
+        Chunk[] current = chunks;
+        long total = 0;
+        for (int c = 0; (long) c * CHUNK_SIZE < rows; c++) {
+            Chunk chunk = current[c];
+            int length = rowsIn(c, rows);
+            for (int i = 0; i < length; i++) {
+                if (chunk.memberIds[i] == memberId) {
+                    total += chunk.itemPrices[i] - chunk.discountPrices[i];
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return 상품별 주문 수 (문자열 비교 없이 itemCode 컬럼만 센다)
+     * */
+    public Map<String, Long> countByItem() {
+        long rows = size;
+        Chunk[] current = chunks;
+        String[] names = itemNames;
+        long[] counts = new long[names.length];
+        for (int c = 0; (long) c * CHUNK_SIZE < rows; c++) {
+            Chunk chunk = current[c];
+            int length = rowsIn(c, rows);
+            for (int i = 0; i < length; i++) {
+                counts[chunk.itemCodes[i]]++;
+            }
+        }
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(names[code], counts[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 락 안에서 호출해야 한다.
+     * */
+    private int encode(String itemName) {
+        Integer code = itemCodes.get(itemName);
+        if (code != null) {
+            return code;
+        }
+        String[] names = itemNames;
+        if (itemCount == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[itemCount] = itemName;
+        // 새 이름을 채운 배열을 먼저 공개해야 이 코드를 쓰는 행이 보일 때 이름도 보인다.
+        itemNames = names;
+        itemCodes.put(itemName, itemCount);
+        return itemCount++;
+    }
+
+    /**
+     * 락 안에서 호출해야 한다.
+     * */
+    private void writeRow(long row, long memberId, int itemCode, int itemPrice, int discountPrice) {
+        int chunkIndex = (int) (row >>> CHUNK_SHIFT);
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[chunkIndex] = new Chunk();
+            chunks = current;
+        }
+        Chunk chunk = current[chunkIndex];
+        int index = (int) row & CHUNK_MASK;
+        chunk.memberIds[index] = memberId;
+        chunk.itemCodes[index] = itemCode;
+        chunk.itemPrices[index] = itemPrice;
+        chunk.discountPrices[index] = discountPrice;
+    }
+
+    private void checkRow(long row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+    }
+
+    private static int rowsIn(int chunkIndex, long rows) {
+        return (int) Math.min(CHUNK_SIZE, rows - (long) chunkIndex * CHUNK_SIZE);
+    }
+
+    private static final class Chunk {
+        final long[] memberIds = new long[CHUNK_SIZE];
+        final int[] itemCodes = new int[CHUNK_SIZE];
+        final int[] itemPrices = new int[CHUNK_SIZE];
+        final int[] discountPrices = new int[CHUNK_SIZE];
+    }
+}
@@ -4,4 +4,15 @@ public interface OrderService {
 
     Order createOrder(Long memberId, String itemName, int itemPrice);
 
+    /**
+     * 여러 주문을 한 번에 생성한다. 세 배열은 같은 길이여야 하며 i번째 원소끼리 하나의 주문이다.
+     * 기본 구현은 createOrder를 반복 호출한다.
+     * */
+    default OrderBatch createOrders(long[] memberIds, String[] itemNames, int[] itemPrices) {
+        int[] discountPrices = new int[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            discountPrices[i] = createOrder(memberIds[i], itemNames[i], itemPrices[i]).getDiscountPrice();
+        }
+        return new OrderBatch(memberIds, itemNames, itemPrices, discountPrices);
+    }
 }
@@ -8,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 @Component
 //@RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
@@ -34,4 +36,35 @@ public class OrderServiceImpl implements OrderService {
 
         return new Order(memberId, itemName, itemPrice, discountPrice);
     }
+
+    /**
+     * 같은 회원이 여러 번 나와도 회원 조회는 한 번만 하고(findAllById),
+     * 할인 정책도 배치 전체에 대해 한 번에 계산한다.
+     * */
+    @Override
+    public OrderBatch createOrders(long[] memberIds, String[] itemNames, int[] itemPrices) {
+        long[] distinctIds = distinct(memberIds);
+        Member[] found = memberRepository.findAllById(distinctIds);
+
+        Member[] members = new Member[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            members[i] = found[Arrays.binarySearch(distinctIds, memberIds[i])];
+        }
+
+        int[] discountPrices = new int[memberIds.length];
+        discountPolicy.discount(members, itemPrices, discountPrices);
+        return new OrderBatch(memberIds, itemNames, itemPrices, discountPrices);
+    }
+
+    private static long[] distinct(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
 }
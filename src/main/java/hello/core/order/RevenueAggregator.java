@@ -0,0 +1,153 @@
+package hello.core.order;
+
+import hello.core.member.Grade;
+import hello.core.order.RevenueSnapshot.Totals;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주문이 생성될 때마다 등급별/상품별 매출 합계를 누적한다.
+ * => 대시보드가 조회할 때마다 모든 주문을 다시 합산하지 않는다.
+ *
+ * 카운터 분할(striping)
+ * => 합계를 stripe 여러 개에 나눠 누적하고, 스레드마다 자기 stripe에만 더한다. (LongAdder와 같은 아이디어)
+ * ==> 여러 스레드가 동시에 주문해도 같은 락/캐시 라인을 두고 경쟁하지 않는다.
+ * => stripe 안의 값(주문 수, 금액, 할인)은 stripe 락 안에서 함께 바뀐다.
+ *
+ * 등급이 null인 주문(회원이 없거나 등급이 없는 회원)은 등급 없음(ungraded)으로 따로 누적한다.
+ * => 상품별 합계와 전체 합계에는 포함되므로 두 합계는 항상 맞는다.
+ *
+ * 스냅샷
+ * => snapshot()은 모든 stripe 락을 잡은 상태에서 합산한다. 그 순간 누적 중인 주문이 없으므로
+ *    등급별, 상품별, 전체 합계가 모두 같은 시점의 값이 된다. (LongAdder.sum()은 이 보장이 없다)
+ * */
+public class RevenueAggregator {
+
+    private static final Grade[] GRADES = Grade.values();
+    /**
+     * 등급 없는 주문을 누적하는 칸 (등급별 배열의 마지막 칸)
+     * */
+    private static final int UNGRADED = GRADES.length;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public RevenueAggregator() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public RevenueAggregator(int concurrencyLevel) {
+        int count = 1;
+        while (count < concurrencyLevel && count < (1 << 16)) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = count - 1;
+    }
+
+    public void record(Grade grade, String itemName, int itemPrice, int discountPrice) {
+        Stripe stripe = currentStripe();
+        stripe.lock.lock();
+        try {
+            stripe.add(grade, itemName, itemPrice, discountPrice);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void record(Grade grade, Order order) {
+        record(grade, order.getItemName(), order.getItemPrice(), order.getDiscountPrice());
+    }
+
+    /**
+     * 배치 전체를 stripe 락 한 번으로 누적한다.
+     *
+     * @param grades batch의 i번째 주문을 한 회원의 등급 (없으면 null)
+     * */
+    public void recordAll(Grade[] grades, OrderBatch batch) {
+        Stripe stripe = currentStripe();
+        stripe.lock.lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                stripe.add(grades[i], batch.getItemName(i), batch.getItemPrice(i), batch.getDiscountPrice(i));
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public RevenueSnapshot snapshot() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            long[] count = new long[GRADES.length + 1];
+            long[] gross = new long[GRADES.length + 1];
+            long[] discount = new long[GRADES.length + 1];
+            Map<String, long[]> items = new HashMap<>();
+            for (Stripe stripe : stripes) {
+                for (int g = 0; g <= UNGRADED; g++) {
+                    count[g] += stripe.count[g];
+                    gross[g] += stripe.gross[g];
+                    discount[g] += stripe.discount[g];
+                }
+                stripe.items.forEach((item, values) -> {
+                    long[] sum = items.computeIfAbsent(item, key -> new long[3]);
+                    sum[0] += values[0];
+                    sum[1] += values[1];
+                    sum[2] += values[2];
+                });
+            }
+
+            Map<Grade, Totals> byGrade = new EnumMap<>(Grade.class);
+            for (int g = 0; g < GRADES.length; g++) {
+                byGrade.put(GRADES[g], new Totals(count[g], gross[g], discount[g]));
+            }
+            Map<String, Totals> byItem = new HashMap<>();
+            items.forEach((item, sum) -> byItem.put(item, new Totals(sum[0], sum[1], sum[2])));
+            Totals ungraded = new Totals(count[UNGRADED], gross[UNGRADED], discount[UNGRADED]);
+            return new RevenueSnapshot(byGrade, ungraded, byItem);
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 스레드 id로 stripe를 고른다. (같은 스레드는 항상 같은 stripe)
+     * */
+    private Stripe currentStripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        return stripes[hash & mask];
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final long[] count = new long[GRADES.length + 1];
+        final long[] gross = new long[GRADES.length + 1];
+        final long[] discount = new long[GRADES.length + 1];
+        /**
+         * 상품명 -> [주문 수, 금액, 할인]
+         * */
+        final Map<String, long[]> items = new HashMap<>();
+
+        void add(Grade grade, String itemName, int itemPrice, int discountPrice) {
+            int g = grade == null ? UNGRADED : grade.ordinal();
+            count[g]++;
+            gross[g] += itemPrice;
+            discount[g] += discountPrice;
+            long[] item = items.computeIfAbsent(itemName, key -> new long[3]);
+            item[0]++;
+            item[1] += itemPrice;
+            item[2] += discountPrice;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package hello.core.order;
+
+import hello.core.member.Grade;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * RevenueAggregator.snapshot() 시점의 매출 합계 (변경 불가)
+ * => 등급별, 상품별 합계가 모두 같은 시점의 값이다.
+ * => 전체 합계 = 등급별 합계 + 등급 없음(ungraded) 합계 = 상품별 합계
+ * */
+public class RevenueSnapshot {
+
+    private final Map<Grade, Totals> byGrade;
+    private final Totals ungraded;
+    private final Map<String, Totals> byItem;
+    private final Totals total;
+
+    RevenueSnapshot(Map<Grade, Totals> byGrade, Totals ungraded, Map<String, Totals> byItem) {
+        this.byGrade = Collections.unmodifiableMap(new EnumMap<>(byGrade));
+        this.ungraded = ungraded;
+        this.byItem = Collections.unmodifiableMap(byItem);
+        long count = ungraded.orderCount;
+        long gross = ungraded.gross;
+        long discount = ungraded.discount;
+        for (Totals totals : byGrade.values()) {
+            count += totals.orderCount;
+            gross += totals.gross;
+            discount += totals.discount;
+        }
+        this.total = new Totals(count, gross, discount);
+    }
+
+    public Totals getTotal() {
+        return total;
+    }
+
+    /**
+     * @return 주문이 없던 등급이면 0인 합계
+     * */
+    public Totals getByGrade(Grade grade) {
+        return byGrade.getOrDefault(grade, Totals.EMPTY);
+    }
+
+    /**
+     * @return 회원이 없거나 등급이 없는 회원의 주문 합계
+     * */
+    public Totals getUngraded() {
+        return ungraded;
+    }
+
+    public Map<String, Totals> getByItem() {
+        return byItem;
+    }
+
+    @Override
+    public String toString() {
+        return "RevenueSnapshot{" +
+                "total=" + total +
+                ", byGrade=" + byGrade +
+                ", ungraded=" + ungraded +
+                ", byItem=" + byItem +
+                '}';
+    }
+
+    public static class Totals {
+
+        static final Totals EMPTY = new Totals(0, 0, 0);
+
+        private final long orderCount;
+        private final long gross;
+        private final long discount;
+
+        Totals(long orderCount, long gross, long discount) {
+            this.orderCount = orderCount;
+            this.gross = gross;
+            this.discount = discount;
+        }
+
+        public long getOrderCount() {
+            return orderCount;
+        }
+
+        /**
+         * @return 할인 전 금액 합 (itemPrice)
+         * */
+        public long getGross() {
+            return gross;
+        }
+
+        public long getDiscount() {
+            return discount;
+        }
+
+        /**
+         * @return 결제 금액 합 (Order.calculatePrice)
+         * */
+        public long getNet() {
+            return gross - discount;
+        }
+
+        @Override
+        public String toString() {
+            return "Totals{" +
+                    "orderCount=" + orderCount +
+                    ", gross=" + gross +
+                    ", discount=" + discount +
+                    ", net=" + getNet() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hello.core.order.Order;
+import hello.core.order.OrderBatch;
+import hello.core.order.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 대량 주문 API
+ * POST /orders/bulk (Content-Type: application/x-ndjson)
+ * => 요청 본문을 한 줄씩 읽으면서 주문을 만들고, 결과도 한 줄씩 바로 응답에 쓴다.
+ * => 요청 전체를 List로 읽거나 응답 전체를 모아 두지 않으므로 줄 수와 상관없이 메모리 사용량이 일정하다.
+ *
+ * 응답 한 줄: {"line":1,"memberId":1,"itemName":"itemA","itemPrice":10000,"discountPrice":1000,"price":9000}
+ * 실패한 줄: {"line":2,"error":"..."}
+ * => 잘못된 JSON이나 타입이 맞지 않는 줄도 그 줄만 실패로 응답하고 다음 줄부터 계속 처리한다.
+ * ==> 본문을 줄바꿈('\n')으로 먼저 나누고 줄마다 따로 파싱한다. (스트림 하나로 파싱하면 파서가 깨진 뒤로는 다음 줄을 찾을 수 없다)
+ * ==> 한 줄은 MAX_LINE_LENGTH 바이트까지만 담는다. 더 긴 줄은 나머지를 읽어 버리고 실패로 응답한다.
+ * => 빈 줄은 건너뛰고 줄 번호도 세지 않는다.
+ *
+ * 줄을 BATCH_SIZE 개씩 모아서 OrderService.createOrders로 한 번에 계산하고, 묶음마다 응답을 flush 한다.
+ * => 묶음 안에 실패한 줄이 있으면 그 묶음만 한 줄씩 다시 계산해서 실패한 줄을 골라낸다.
+ * */
+@Controller
+public class BulkOrderController {
+
+    static final int BATCH_SIZE = 256;
+    static final int MAX_LINE_LENGTH = 1 << 16;
+
+    private final OrderService orderService;
+    private final ObjectReader lineReader;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 컴포넌트 스캔으로 등록된 orderServiceImpl과 AppConfig의 orderService가 함께 있으면 파라미터 이름(orderService)으로 고른다.
+     * */
+    public BulkOrderController(OrderService orderService, ObjectMapper objectMapper) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.lineReader = objectMapper.readerFor(OrderLine.class);
+    }
+
+    @PostMapping(value = "/orders/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkOrders(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        process(request.getInputStream(), response.getOutputStream());
+    }
+
+    /**
+     * @return 처리한 줄 수
+     * */
+    public long process(InputStream in, OutputStream out) throws IOException {
+        long[] memberIds = new long[BATCH_SIZE];
+        String[] itemNames = new String[BATCH_SIZE];
+        int[] itemPrices = new int[BATCH_SIZE];
+
+        long line = 0;
+        LineInput lines = new LineInput(in);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // 줄 사이를 공백 대신 줄바꿈으로 구분한다. (NDJSON)
+            generator.setRootValueSeparator(null);
+            int size = 0;
+            while (lines.next()) {
+                if (lines.isBlank()) {
+                    continue;
+                }
+                OrderLine orderLine = null;
+                Exception invalid = null;
+                if (lines.isTooLong()) {
+                    invalid = new IllegalArgumentException("line is longer than " + MAX_LINE_LENGTH + " bytes");
+                } else {
+                    try {
+                        orderLine = lineReader.readValue(lines.bytes(), 0, lines.length());
+                    } catch (JsonProcessingException e) {
+                        invalid = e;
+                    }
+                    if (invalid == null && (orderLine == null || orderLine.getMemberId() == null)) {
+                        invalid = new IllegalArgumentException("memberId is required");
+                    }
+                }
+                if (invalid != null) {
+                    // 앞에 모아 둔 줄을 먼저 써야 응답 순서가 요청 순서와 같다.
+                    writeBatch(generator, line, memberIds, itemNames, itemPrices, size);
+                    line += size;
+                    size = 0;
+                    writeError(generator, ++line, invalid);
+                    continue;
+                }
+                memberIds[size] = orderLine.getMemberId();
+                itemNames[size] = orderLine.getItemName();
+                itemPrices[size] = orderLine.getItemPrice();
+                size++;
+                if (size == BATCH_SIZE) {
+                    writeBatch(generator, line, memberIds, itemNames, itemPrices, size);
+                    line += size;
+                    size = 0;
+                }
+            }
+            if (size > 0) {
+                writeBatch(generator, line, memberIds, itemNames, itemPrices, size);
+                line += size;
+            }
+        }
+        return line;
+    }
+
+    private void writeBatch(JsonGenerator generator, long firstLine, long[] memberIds, String[] itemNames,
+                            int[] itemPrices, int size) throws IOException {
+        if (size == 0) {
+            return;
+        }
+        OrderBatch batch = null;
+        try {
+            batch = orderService.createOrders(trim(memberIds, size), trim(itemNames, size), trim(itemPrices, size));
+        } catch (RuntimeException e) {
+            // 실패한 줄을 찾기 위해 아래에서 한 줄씩 다시 계산한다.
+        }
+
+        for (int i = 0; i < size; i++) {
+            long line = firstLine + i + 1;
+            if (batch != null) {
+                writeResult(generator, line, memberIds[i], itemNames[i], itemPrices[i], batch.getDiscountPrice(i));
+                continue;
+            }
+            Order order;
+            try {
+                order = orderService.createOrder(memberIds[i], itemNames[i], itemPrices[i]);
+            } catch (RuntimeException e) {
+                writeError(generator, line, e);
+                continue;
+            }
+            writeResult(generator, line, memberIds[i], itemNames[i], itemPrices[i], order.getDiscountPrice());
+        }
+        generator.flush();
+    }
+
+    private static void writeResult(JsonGenerator generator, long line, long memberId, String itemName,
+                                    int itemPrice, int discountPrice) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("line", line);
+        generator.writeNumberField("memberId", memberId);
+        generator.writeStringField("itemName", itemName);
+        generator.writeNumberField("itemPrice", itemPrice);
+        generator.writeNumberField("discountPrice", discountPrice);
+        generator.writeNumberField("price", itemPrice - discountPrice);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * JSON 오류는 위치 정보를 뺀 메시지만 쓴다. (줄 번호는 line으로 알 수 있다)
+     * */
+    private static void writeError(JsonGenerator generator, long line, Exception e) throws IOException {
+        String message = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+        generator.writeStartObject();
+        generator.writeNumberField("line", line);
+        generator.writeStringField("error", e.getClass().getSimpleName() + ": " + message);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * 묶음 배열은 다음 묶음에 다시 쓰므로 복사해서 넘긴다. (OrderBatch는 넘겨받은 배열을 그대로 들고 있다)
+     * createOrders는 배열 길이를 주문 수로 보므로 줄 수만큼 자른다.
+     * */
+    private static long[] trim(long[] values, int size) {
+        return Arrays.copyOf(values, size);
+    }
+
+    private static String[] trim(String[] values, int size) {
+        return Arrays.copyOf(values, size);
+    }
+
+    private static int[] trim(int[] values, int size) {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * 요청 본문을 줄바꿈('\n') 단위로 읽는다.
+     * => 읽기 버퍼와 줄 버퍼를 계속 다시 쓰므로 줄마다 할당하지 않는다. (줄 버퍼는 가장 긴 줄만큼만 커진다)
+     * */
+    static final class LineInput {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[256];
+        private int length;
+        private boolean tooLong;
+
+        LineInput(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * @return 다음 줄이 있으면 true (마지막 줄은 줄바꿈이 없어도 된다)
+         * */
+        boolean next() throws IOException {
+            length = 0;
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    position = 0;
+                    limit = Math.max(in.read(buffer, 0, buffer.length), 0);
+                    if (limit == 0) {
+                        return read;
+                    }
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position - start);
+                if (position < limit) {
+                    position++;
+                    return true;
+                }
+            }
+        }
+
+        byte[] bytes() {
+            return line;
+        }
+
+        int length() {
+            return length;
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        boolean isBlank() {
+            if (tooLong) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                byte b = line[i];
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void append(int start, int count) {
+            if (tooLong) {
+                return;
+            }
+            if (length + count > MAX_LINE_LENGTH) {
+                tooLong = true;
+                return;
+            }
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(buffer, start, line, length, count);
+            length += count;
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package hello.core.web;
 
-import hello.core.common.MyLogger;
-import jakarta.servlet.http.HttpServletRequest;
+import hello.core.common.LogContext;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -34,19 +32,16 @@ public class LogDemoController {
      * [e331343c-478d-4dcc-82e6-e322932087e9][http://localhost:8080/log-demo] controller test
      * [e331343c-478d-4dcc-82e6-e322932087e9][http://localhost:8080/log-demo] service id = testId
      * [e331343c-478d-4dcc-82e6-e322932087e9] request scope bean close:hello.core.common.MyLogger@75c79ff9
+     *
+     * => 지금은 MyLogger(프록시) 대신 LogContextFilter가 요청마다 묶어 둔 LogContext를 사용한다.
+     * ==> requestURL은 필터에서 이미 채워 두었으므로 컨트롤러에서 setRequestURL을 호출할 필요가 없다.
      * */
     private final LogDemoService logDemoService;
-    private final MyLogger myLogger;
 
     @RequestMapping("log-demo")
     @ResponseBody
-    public String logDemo(HttpServletRequest request) {
-        String requestURL = request.getRequestURL().toString();
-        myLogger.setRequestURL(requestURL);
-
-        System.out.println(myLogger.getClass());
-
-        myLogger.log("controller test");
+    public String logDemo() {
+        LogContext.current().log("controller test");
         logDemoService.logic("testId");
         return "Ok";
 
@@ -1,17 +1,12 @@
 package hello.core.web;
 
-import hello.core.common.MyLogger;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.ObjectProvider;
+import hello.core.common.LogContext;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class LogDemoService {
 
-    private final MyLogger myLogger;
-
     public void logic(String id) {
-        myLogger.log("service id = " + id);
+        LogContext.current().log("service id = " + id);
     }
 }
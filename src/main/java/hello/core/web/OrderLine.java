@@ -0,0 +1,45 @@
+package hello.core.web;
+
+/**
+ * 대량 주문 요청(NDJSON)의 한 줄
+ * {"memberId":1,"itemName":"itemA","itemPrice":10000}
+ * */
+public class OrderLine {
+
+    private Long memberId;
+    private String itemName;
+    private int itemPrice;
+
+    public OrderLine() {
+    }
+
+    public OrderLine(Long memberId, String itemName, int itemPrice) {
+        this.memberId = memberId;
+        this.itemName = itemName;
+        this.itemPrice = itemPrice;
+    }
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public int getItemPrice() {
+        return itemPrice;
+    }
+
+    public void setItemPrice(int itemPrice) {
+        this.itemPrice = itemPrice;
+    }
+}
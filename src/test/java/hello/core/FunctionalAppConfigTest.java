@@ -0,0 +1,44 @@
+package hello.core;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
+import hello.core.order.Order;
+import hello.core.order.OrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FunctionalAppConfigTest {
+
+    @Test
+    @DisplayName("AppConfig와 같은 빈들이 등록되고, memberRepository는 싱글톤으로 공유되어야 한다.")
+    void sameBeansAsAppConfig() {
+        try (GenericApplicationContext ac = FunctionalAppConfig.createContext()) {
+            MemberServiceImpl memberService = ac.getBean("memberService", MemberServiceImpl.class);
+            MemberRepository memberRepository = ac.getBean("memberRepository", MemberRepository.class);
+
+            assertThat(memberService.getMemberRepository()).isSameAs(memberRepository);
+            assertThat(ac.getBeanDefinitionNames())
+                    .containsExactlyInAnyOrder("memberRepository", "discountPolicy", "memberService", "orderService");
+        }
+    }
+
+    @Test
+    @DisplayName("등록한 빈으로 회원 가입과 주문이 동작해야 한다.")
+    void createOrder() {
+        try (GenericApplicationContext ac = FunctionalAppConfig.createContext()) {
+            MemberService memberService = ac.getBean(MemberService.class);
+            OrderService orderService = ac.getBean(OrderService.class);
+
+            memberService.join(new Member(30L, "memberA", Grade.VIP));
+            Order order = orderService.createOrder(30L, "itemA", 10000);
+
+            assertThat(order.getDiscountPrice()).isEqualTo(1000);
+        }
+    }
+}
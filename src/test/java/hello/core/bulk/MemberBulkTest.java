@@ -0,0 +1,213 @@
+package hello.core.bulk;
+
+import hello.core.member.Grade;
+import hello.core.member.IndexedMemberRepository;
+import hello.core.member.Member;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemberBulkTest {
+
+    static final String[] NAMES = {"kim", "a,b", "회원", "", "x,,y", "😀 emoji", null};
+
+    static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @TempDir
+    Path directory;
+
+    IndexedMemberRepository source = new IndexedMemberRepository();
+
+    @AfterAll
+    static void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("CSV로 내보낸 회원을 작은 구간으로 나눠 병렬로 가져오면 모두 같은 값으로 저장되어야 한다. (이름의 쉼표, 한글 포함)")
+    void csvRoundTrip() throws IOException {
+        // given
+        saveMembers(1000);
+        Path file = directory.resolve("members.csv");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            assertThat(new MemberExporter(source, 64).exportCsv(out)).isEqualTo(1000);
+        }
+
+        // when
+        IndexedMemberRepository target = new IndexedMemberRepository();
+        long imported = new MemberImporter(target, pool, 37, 7).importCsv(file);
+
+        // then
+        assertThat(imported).isEqualTo(1000);
+        for (long id = -500; id < 500; id++) {
+            Member expected = source.findById(id);
+            Member actual = target.findById(id);
+            // CSV는 null 이름과 빈 이름을 구분하지 않는다.
+            assertThat(actual.getName()).isEqualTo(expected.getName() == null ? "" : expected.getName());
+            assertThat(actual.getGrade()).isEqualTo(expected.getGrade());
+        }
+    }
+
+    @Test
+    @DisplayName("바이너리로 내보낸 회원을 블록 단위로 병렬로 가져오면 null 이름까지 그대로 저장되어야 한다.")
+    void binaryRoundTrip() throws IOException {
+        // given
+        saveMembers(1000);
+        source.save(new Member(10_000L, "long name ".repeat(20), Grade.VIP)); // 블록보다 큰 기록
+        Path file = directory.resolve("members.bin");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            assertThat(new MemberExporter(source, 64).exportBinary(out)).isEqualTo(1001);
+        }
+
+        // when
+        IndexedMemberRepository target = new IndexedMemberRepository();
+        long imported = new MemberImporter(target, pool, 200, 7).importBinary(file);
+
+        // then
+        assertThat(imported).isEqualTo(1001);
+        for (long id = -500; id < 500; id++) {
+            Member expected = source.findById(id);
+            Member actual = target.findById(id);
+            assertThat(actual.getName()).isEqualTo(expected.getName());
+            assertThat(actual.getGrade()).isEqualTo(expected.getGrade());
+        }
+        assertThat(target.findById(10_000L).getName()).isEqualTo("long name ".repeat(20));
+    }
+
+    @Test
+    @DisplayName("헤더가 없거나 CRLF, 빈 줄이 있는 CSV도 가져올 수 있어야 하고, 잘못된 줄은 위치와 함께 실패해야 한다.")
+    void csvVariants() throws IOException {
+        // given
+        Path file = directory.resolve("plain.csv");
+        Files.writeString(file, "1,kim,VIP\r\n\r\n2,lee,\n3,park,BASIC", StandardCharsets.UTF_8);
+        Path invalid = directory.resolve("invalid.csv");
+        Files.writeString(invalid, "id,name,grade\n1,kim,VIP\n2,lee,GOLD\n", StandardCharsets.UTF_8);
+        IndexedMemberRepository target = new IndexedMemberRepository();
+
+        // when
+        long imported = new MemberImporter(target, pool, 5, 2).importCsv(file);
+
+        // then
+        assertThat(imported).isEqualTo(3);
+        assertThat(target.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(target.findById(2L).getGrade()).isNull();
+        assertThat(target.findById(3L).getName()).isEqualTo("park");
+        assertThatThrownBy(() -> new MemberImporter(target).importCsv(invalid))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at byte 24");
+    }
+
+    @Test
+    @DisplayName("이름에 줄바꿈이 있는 회원은 CSV로 내보낼 수 없어야 한다.")
+    void csvRejectsLineBreak() {
+        // given
+        source.save(new Member(1L, "first\nsecond", Grade.BASIC));
+
+        // when, then
+        assertThatThrownBy(() -> new MemberExporter(source).exportCsv(OutputStream.nullOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("내보내는 스트림이 느려도 그동안 저장소의 저장은 기다리지 않아야 한다.")
+    void exportDoesNotBlockSaves() throws IOException {
+        // given
+        saveMembers(1000);
+        ExecutorService saver = Executors.newSingleThreadExecutor();
+        AtomicInteger writes = new AtomicInteger();
+        // 헤더 다음 첫 블록을 쓰는 동안(forEach 도중) 다른 스레드의 저장이 끝나기를 기다린다.
+        OutputStream slowOut = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (writes.incrementAndGet() != 2) {
+                    return;
+                }
+                try {
+                    saver.submit(() -> source.save(new Member(10_000L, "saved during export", Grade.VIP)))
+                            .get(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IOException("save was blocked by export", e);
+                }
+            }
+        };
+
+        // when
+        long exported = new MemberExporter(source, 64).exportBinary(slowOut);
+        saver.shutdown();
+
+        // then
+        assertThat(writes.get()).isGreaterThan(2);
+        assertThat(exported).isBetween(1000L, 1001L);
+        assertThat(source.findById(10_000L).getName()).isEqualTo("saved during export");
+    }
+
+    @Test
+    @DisplayName("SNAPSHOT으로 내보내면 시작 시점의 회원만 들어가고, 그동안의 저장은 내보내기가 끝난 뒤에 반영되어야 한다.")
+    void exportSnapshot() throws Exception {
+        // given
+        saveMembers(1000);
+        ExecutorService saver = Executors.newSingleThreadExecutor();
+        AtomicInteger writes = new AtomicInteger();
+        AtomicBoolean blocked = new AtomicBoolean();
+        Future<?>[] save = new Future<?>[1];
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (writes.incrementAndGet() != 2) {
+                    return;
+                }
+                save[0] = saver.submit(() -> source.save(new Member(10_000L, "saved during export", Grade.VIP)));
+                try {
+                    save[0].get(100, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    blocked.set(true);
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+
+        // when
+        long exported = new MemberExporter(source, 64, MemberExporter.Consistency.SNAPSHOT).exportBinary(out);
+        save[0].get(5, TimeUnit.SECONDS);
+        saver.shutdown();
+
+        // then
+        assertThat(blocked).isTrue();
+        assertThat(exported).isEqualTo(1000);
+        assertThat(source.findById(10_000L).getName()).isEqualTo("saved during export");
+    }
+
+    private void saveMembers(int count) {
+        for (int i = 0; i < count; i++) {
+            Grade grade = i % 3 == 0 ? null : Grade.values()[i % 2];
+            String name = NAMES[i % NAMES.length];
+            source.save(new Member(i - count / 2L, name == null ? null : name + i, grade));
+        }
+    }
+}
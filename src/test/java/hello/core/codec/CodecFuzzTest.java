@@ -0,0 +1,167 @@
+package hello.core.codec;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.order.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CodecFuzzTest {
+
+    static final long[] EDGE_IDS = {0, 1, -1, 63, 64, -64, -65, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE};
+
+    @Test
+    @DisplayName("무작위 회원을 인코딩/디코딩하면 원래 값과 같아야 한다. (힙/direct 버퍼, 여러 건 이어 쓰기)")
+    void memberRoundTrip() {
+        Random random = new Random(20);
+        for (int round = 0; round < 200; round++) {
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                members.add(new Member(randomId(random), randomString(random), randomGrade(random)));
+            }
+            for (ByteBuffer buffer : buffers(members.stream().mapToInt(MemberCodec::encodedSize).sum())) {
+                for (Member member : members) {
+                    int before = buffer.position();
+                    MemberCodec.encode(member, buffer);
+                    assertThat(buffer.position() - before).isEqualTo(MemberCodec.encodedSize(member));
+                }
+                assertThat(buffer.hasRemaining()).isFalse();
+
+                buffer.flip();
+                for (Member member : members) {
+                    Member decoded = MemberCodec.decode(buffer);
+                    assertThat(decoded.getId()).isEqualTo(member.getId());
+                    assertThat(decoded.getName()).isEqualTo(utf8RoundTrip(member.getName()));
+                    assertThat(decoded.getGrade()).isEqualTo(member.getGrade());
+                }
+                assertThat(buffer.hasRemaining()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("무작위 주문을 인코딩/디코딩하면 원래 값과 같아야 한다.")
+    void orderRoundTrip() {
+        Random random = new Random(21);
+        for (int round = 0; round < 200; round++) {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                orders.add(new Order(randomId(random), randomString(random), random.nextInt(), random.nextInt(100_000)));
+            }
+            for (ByteBuffer buffer : buffers(orders.stream().mapToInt(OrderCodec::encodedSize).sum())) {
+                for (Order order : orders) {
+                    OrderCodec.encode(order, buffer);
+                }
+                assertThat(buffer.hasRemaining()).isFalse();
+
+                buffer.flip();
+                for (Order order : orders) {
+                    Order decoded = OrderCodec.decode(buffer);
+                    assertThat(decoded.getMemberId()).isEqualTo(order.getMemberId());
+                    assertThat(decoded.getItemName()).isEqualTo(utf8RoundTrip(order.getItemName()));
+                    assertThat(decoded.getItemPrice()).isEqualTo(order.getItemPrice());
+                    assertThat(decoded.getDiscountPrice()).isEqualTo(order.getDiscountPrice());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("무작위로 망가뜨린 입력은 예외로 끝나야 하고 다른 오류(무한 루프, 잘못된 배열 접근)가 나면 안 된다.")
+    void corruptedInput() {
+        Random random = new Random(22);
+        ByteBuffer encoded = ByteBuffer.allocate(64);
+        MemberCodec.encode(new Member(123456789L, "회원A", Grade.VIP), encoded);
+        encoded.flip();
+        byte[] original = new byte[encoded.remaining()];
+        encoded.get(original);
+
+        for (int i = 0; i < 10_000; i++) {
+            byte[] corrupted = original.clone();
+            corrupted[random.nextInt(corrupted.length)] = (byte) random.nextInt(256);
+            int length = random.nextInt(corrupted.length + 1);
+            ByteBuffer buffer = ByteBuffer.wrap(corrupted, 0, length);
+            try {
+                MemberCodec.decode(buffer);
+            } catch (IllegalArgumentException | BufferUnderflowException e) {
+                // 예상한 실패
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 버전은 읽지 않고 예외가 발생해야 한다.")
+    void unsupportedVersion() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        OrderCodec.encode(new Order(1L, "itemA", 10000, 1000), buffer);
+        buffer.flip();
+        buffer.put(0, (byte) 99);
+
+        assertThatThrownBy(() -> OrderCodec.decode(buffer))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    @DisplayName("작은 id와 짧은 ASCII 이름은 몇 바이트로 인코딩되어야 한다.")
+    void compactSize() {
+        assertThat(MemberCodec.encodedSize(new Member(1L, "memberA", Grade.VIP))).isEqualTo(1 + 1 + 1 + 1 + 7);
+        assertThat(OrderCodec.encodedSize(new Order(1L, "itemA", 10000, 1000))).isEqualTo(1 + 1 + 6 + 3 + 2);
+    }
+
+    private static ByteBuffer[] buffers(int size) {
+        return new ByteBuffer[]{ByteBuffer.allocate(size), ByteBuffer.allocateDirect(size)};
+    }
+
+    private static long randomId(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> EDGE_IDS[random.nextInt(EDGE_IDS.length)];
+            case 1 -> random.nextInt(1_000_000);
+            default -> random.nextLong();
+        };
+    }
+
+    private static Grade randomGrade(Random random) {
+        Grade[] grades = Grade.values();
+        int index = random.nextInt(grades.length + 1);
+        return index == grades.length ? null : grades[index];
+    }
+
+    /**
+     * null, 빈 문자열, ASCII, 한글, 보충 문자(이모지), 짝이 없는 surrogate를 섞어서 만든다.
+     * */
+    private static String randomString(Random random) {
+        if (random.nextInt(10) == 0) {
+            return null;
+        }
+        int length = random.nextInt(40);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(6)) {
+                case 0, 1 -> sb.append((char) (' ' + random.nextInt(95)));
+                case 2 -> sb.append((char) (0x80 + random.nextInt(0x780)));
+                case 3 -> sb.append((char) ('가' + random.nextInt(11172)));
+                case 4 -> sb.appendCodePoint(0x10000 + random.nextInt(0x100000));
+                default -> sb.append((char) (0xD800 + random.nextInt(0x800)));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 짝이 없는 surrogate는 '?'로 바뀌므로 String.getBytes와 같은 결과를 기대값으로 쓴다.
+     * */
+    private static String utf8RoundTrip(String value) {
+        return value == null ? null : new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+}
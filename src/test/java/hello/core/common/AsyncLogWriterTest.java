@@ -0,0 +1,175 @@
+package hello.core.common;
+
+import hello.core.common.AsyncLogWriter.OverflowPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AsyncLogWriterTest {
+
+    @Test
+    @DisplayName("MyLogger와 같은 형식으로 출력되어야 한다.")
+    void format() {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLogWriter logWriter = new AsyncLogWriter(16, OverflowPolicy.BLOCK, out);
+        // when
+        logWriter.log("uuid", "http://localhost:8080/log-demo", "controller test");
+        logWriter.log("uuid", null, "request scope bean close");
+        logWriter.close();
+        // then
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).containsExactly(
+                "[uuid][http://localhost:8080/log-demo] controller test",
+                "[uuid] request scope bean close");
+    }
+
+    @Test
+    @DisplayName("BLOCK 정책이면 버퍼보다 많이 기록해도 모든 로그가 순서대로 출력되어야 한다.")
+    void block() throws InterruptedException {
+        // given
+        int threadCount = 8;
+        int perThread = 20_000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLogWriter logWriter = new AsyncLogWriter(64, OverflowPolicy.BLOCK, out);
+
+        // when
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            String uuid = "t" + t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logWriter.log(uuid, null, Integer.toString(i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        logWriter.close();
+
+        // then
+        int[] expected = new int[threadCount];
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(threadCount * perThread);
+        for (String line : lines) {
+            int thread = Integer.parseInt(line.substring(2, line.indexOf(']')));
+            int number = Integer.parseInt(line.substring(line.indexOf(' ') + 1));
+            // 같은 스레드가 남긴 로그는 남긴 순서대로 나와야 한다.
+            assertThat(number).isEqualTo(expected[thread]++);
+        }
+        assertThat(logWriter.dropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("DROP 정책이면 버퍼가 가득 찼을 때 기다리지 않고 버린 수를 세야 한다.")
+    void drop() {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        OutputStream slowOut = new OutputStream() {
+            @Override
+            public void write(int b) {
+                lines.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lines.write(b, off, len);
+            }
+        };
+        AsyncLogWriter logWriter = new AsyncLogWriter(16, OverflowPolicy.DROP, slowOut);
+
+        // when
+        int written = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (logWriter.log("uuid", null, "message" + i)) {
+                written++;
+            }
+        }
+        release.countDown();
+        logWriter.close();
+
+        // then
+        assertThat(logWriter.dropped()).isEqualTo(1000 - written).isPositive();
+        assertThat(lines.toString(StandardCharsets.UTF_8).lines()).hasSize(written);
+    }
+
+    @Test
+    @DisplayName("BLOCK 정책에서 기다리는 스레드는 돌지 않고 잠들었다가, 자리가 나면 이어서 기록해야 한다.")
+    void blockParks() throws InterruptedException {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        OutputStream slowOut = new OutputStream() {
+            @Override
+            public void write(int b) {
+                lines.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lines.write(b, off, len);
+            }
+        };
+        AsyncLogWriter logWriter = new AsyncLogWriter(16, OverflowPolicy.BLOCK, slowOut);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                logWriter.log("uuid", null, "message" + i);
+            }
+        });
+
+        // when
+        producer.start();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (producer.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        Thread.State waiting = producer.getState();
+        release.countDown();
+        producer.join();
+        logWriter.close();
+
+        // then
+        assertThat(waiting).isEqualTo(Thread.State.TIMED_WAITING);
+        assertThat(lines.toString(StandardCharsets.UTF_8).lines()).hasSize(100);
+        assertThat(logWriter.dropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("close 이후의 기록은 버리고 버린 수로 세야 한다.")
+    void logAfterClose() {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLogWriter logWriter = new AsyncLogWriter(16, OverflowPolicy.BLOCK, out);
+        logWriter.log("uuid", null, "before close");
+        logWriter.close();
+
+        // when
+        boolean logged = logWriter.log("uuid", null, "after close");
+
+        // then
+        assertThat(logged).isFalse();
+        assertThat(logWriter.dropped()).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).containsExactly("[uuid] before close");
+    }
+}
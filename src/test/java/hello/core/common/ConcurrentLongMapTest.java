@@ -0,0 +1,133 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConcurrentLongMapTest {
+
+    @Test
+    @DisplayName("저장, 덮어쓰기, 삭제")
+    void putGetRemove() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(4);
+
+        assertThat(map.put(1L, "a")).isNull();
+        assertThat(map.put(1L, "b")).isEqualTo("a");
+        assertThat(map.get(1L)).isEqualTo("b");
+        assertThat(map.get(2L)).isNull();
+
+        assertThat(map.remove(1L)).isEqualTo("b");
+        assertThat(map.get(1L)).isNull();
+        assertThat(map.size()).isEqualTo(0);
+    }
+
+    /**
+     * 삭제 시 뒤따르는 엔트리를 당겨오는 로직(shiftBack)과 resize를 HashMap 결과와 비교해서 검증한다.
+     * */
+    @Test
+    @DisplayName("임의의 저장/삭제를 반복해도 HashMap과 같은 결과를 가져야 한다")
+    void sameAsHashMap() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(1);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                long value = random.nextLong();
+                assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("putAll/getAll은 입력 순서대로 결과를 돌려주고, 같은 키는 뒤에 나온 값이 남는다")
+    void batch() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(8);
+        long[] keys = {3L, 1L, 2L, 3L, 100L};
+        String[] values = {"a", "b", "c", "d", "e"};
+
+        map.putAll(keys, values);
+
+        String[] result = new String[3];
+        map.getAll(new long[]{3L, 4L, 100L}, result);
+        assertThat(result).containsExactly("d", null, "e");
+        assertThat(map.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("putIfAbsent는 없을 때만 저장하고, replace는 저장된 값이 expected와 같은 객체일 때만 바꾼다")
+    void conditionalWrites() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(4);
+        String first = new String("a");
+
+        assertThat(map.putIfAbsent(1L, first)).isNull();
+        assertThat(map.putIfAbsent(1L, "b")).isSameAs(first);
+
+        assertThat(map.replace(1L, new String("a"), "c")).isFalse(); // 값이 같아도 다른 객체
+        assertThat(map.replace(1L, first, "c")).isTrue();
+        assertThat(map.get(1L)).isEqualTo("c");
+        assertThat(map.replace(2L, first, "d")).isFalse();
+        assertThat(map.get(2L)).isNull();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("null 값은 저장할 수 없다")
+    void nullValue() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        assertThatThrownBy(() -> map.put(1L, null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("여러 Map을 한 번에 순회하는 동안에는 어느 Map에도 쓸 수 없다")
+    void forEachConsistentAcrossMaps() throws Exception {
+        @SuppressWarnings("unchecked")
+        ConcurrentLongMap<String>[] maps = new ConcurrentLongMap[]{new ConcurrentLongMap<String>(4), new ConcurrentLongMap<String>(4)};
+        for (long key = 0; key < 100; key++) {
+            maps[(int) (key & 1)].put(key, "v" + key);
+        }
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        List<Long> visited = new ArrayList<>();
+        boolean[] blocked = new boolean[1];
+
+        ConcurrentLongMap.forEachConsistent(maps, (key, value) -> {
+            if (visited.isEmpty()) {
+                Future<?> put = writer.submit(() -> maps[1].put(1_000L, "late"));
+                try {
+                    put.get(100, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    blocked[0] = true;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            visited.add(key);
+        });
+        writer.shutdown();
+        assertThat(writer.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(blocked[0]).isTrue();
+        assertThat(visited).hasSize(100).doesNotHaveDuplicates().doesNotContain(1_000L);
+        assertThat(maps[1].get(1_000L)).isEqualTo("late");
+    }
+}
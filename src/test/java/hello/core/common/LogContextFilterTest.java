@@ -0,0 +1,57 @@
+package hello.core.common;
+
+import hello.core.common.AsyncLogWriter.OverflowPolicy;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LogContextFilterTest {
+
+    @Test
+    @DisplayName("요청 처리 중에는 LogContext가 묶여 있고, 요청이 끝나면 지워져야 한다.")
+    void bindDuringRequest() throws ServletException, IOException {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLogWriter logWriter = new AsyncLogWriter(16, OverflowPolicy.BLOCK, out);
+        LogContextFilter filter = new LogContextFilter(logWriter);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-demo");
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            LogContext context = LogContext.current();
+            assertThat(context.getRequestURL()).isEqualTo("http://localhost/log-demo");
+            context.log("controller test");
+        });
+        logWriter.close();
+
+        // then
+        assertThatThrownBy(LogContext::current).isInstanceOf(IllegalStateException.class);
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("[http://localhost/log-demo] controller test" + System.lineSeparator());
+    }
+
+    @Test
+    @DisplayName("요청 처리 중 예외가 발생해도 LogContext가 지워져야 한다. (스레드 풀 재사용)")
+    void clearOnException() {
+        // given
+        AsyncLogWriter logWriter = new AsyncLogWriter(16, OverflowPolicy.DROP, OutputStream.nullOutputStream());
+        LogContextFilter filter = new LogContextFilter(logWriter);
+
+        // when
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (req, res) -> {
+            throw new IllegalStateException("fail");
+        })).hasMessage("fail");
+        logWriter.close();
+
+        // then
+        assertThatThrownBy(LogContext::current).isInstanceOf(IllegalStateException.class);
+    }
+}
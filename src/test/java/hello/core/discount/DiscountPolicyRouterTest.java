@@ -0,0 +1,56 @@
+package hello.core.discount;
+
+import hello.core.AutoAppConfig;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiscountPolicyRouterTest {
+
+    @Test
+    @DisplayName("컴포넌트 스캔된 모든 할인 정책을 할인 코드(빈 이름)의 handle로 호출할 수 있어야 한다.")
+    void routeByHandle() {
+        // given
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AutoAppConfig.class);
+        DiscountPolicyRouter router = ac.getBean(DiscountPolicyRouter.class);
+        Member member = new Member(1L, "userA", Grade.VIP);
+
+        // when
+        int fix = router.handleOf("fixDiscountPolicy");
+        int rate = router.handleOf("rateDiscountPolicy");
+
+        // then
+        assertThat(router.size()).isEqualTo(ac.getBeansOfType(DiscountPolicy.class).size());
+        assertThat(router.codeOf(fix)).isEqualTo("fixDiscountPolicy");
+        assertThat(router.discount(member, 10000, fix)).isEqualTo(1000);
+        assertThat(router.discount(member, 20000, rate)).isEqualTo(2000);
+        assertThat(router.discount(member, 20000, "rateDiscountPolicy")).isEqualTo(2000);
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("handle은 빈 등록 순서와 상관없이 할인 코드 순서로 정해지고, 없는 코드는 예외가 발생해야 한다.")
+    void stableHandles() {
+        // given
+        Map<String, DiscountPolicy> policyMap = new LinkedHashMap<>();
+        policyMap.put("rate", new RateDiscountPolicy());
+        policyMap.put("fix", new FixDiscountPolicy());
+
+        // when
+        DiscountPolicyRouter router = new DiscountPolicyRouter(policyMap);
+
+        // then
+        assertThat(router.handleOf("fix")).isEqualTo(0);
+        assertThat(router.handleOf("rate")).isEqualTo(1);
+        assertThat(router.policyOf(1)).isSameAs(policyMap.get("rate"));
+        assertThatThrownBy(() -> router.handleOf("none"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
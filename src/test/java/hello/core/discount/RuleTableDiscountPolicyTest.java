@@ -0,0 +1,85 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RuleTableDiscountPolicyTest {
+
+    @Test
+    @DisplayName("discount-rules.csv는 RateDiscountPolicy와 같은 할인 금액을 계산해야 한다.")
+    void sameAsRateDiscountPolicy() {
+        // given
+        DiscountPolicy ruleTable = RuleTableDiscountPolicy.load("discount-rules.csv");
+        DiscountPolicy rate = new RateDiscountPolicy();
+        // when, then
+        for (Grade grade : Grade.values()) {
+            Member member = new Member(1L, "member" + grade, grade);
+            for (int price = 0; price <= 100_000; price += 777) {
+                assertThat(ruleTable.discount(member, price)).isEqualTo(rate.discount(member, price));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("가격 구간마다 다른 규칙이 적용되고, 규칙이 없는 구간은 할인되지 않아야 한다.")
+    void priceBands() {
+        // given
+        DiscountPolicy discountPolicy = new RuleTableDiscountPolicy(List.of(
+                new DiscountRule(Grade.VIP, 0, 10_000, 5, 0),
+                new DiscountRule(Grade.VIP, 10_000, DiscountRule.NO_LIMIT, 10, 1000),
+                new DiscountRule(Grade.BASIC, 50_000, 100_000, 0, 500)));
+        Member vip = new Member(1L, "memberVIP", Grade.VIP);
+        Member basic = new Member(2L, "memberBasic", Grade.BASIC);
+        // when, then
+        assertThat(discountPolicy.discount(vip, 9_999)).isEqualTo(499);
+        assertThat(discountPolicy.discount(vip, 10_000)).isEqualTo(2000);
+        assertThat(discountPolicy.discount(basic, 49_999)).isEqualTo(0);
+        assertThat(discountPolicy.discount(basic, 50_000)).isEqualTo(500);
+        assertThat(discountPolicy.discount(basic, 100_000)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("등급이 없는 회원은 할인되지 않아야 한다.")
+    void nullGrade() {
+        // given
+        DiscountPolicy discountPolicy = new RuleTableDiscountPolicy(List.of(
+                DiscountRule.rate(Grade.VIP, 10), DiscountRule.fixed(Grade.BASIC, 100)));
+        Member member = new Member(1L, "memberNoGrade", null);
+        int[] discountPrices = new int[1];
+        // when
+        discountPolicy.discount(new Member[]{member}, new int[]{20000}, discountPrices);
+        // then
+        assertThat(discountPolicy.discount(member, 20000)).isEqualTo(0);
+        assertThat(discountPrices[0]).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("배치 계산은 한 건씩 계산한 결과와 같아야 한다.")
+    void batch() {
+        // given
+        DiscountPolicy discountPolicy = new RuleTableDiscountPolicy(List.of(
+                DiscountRule.rate(Grade.VIP, 10), DiscountRule.fixed(Grade.BASIC, 100)));
+        Member[] members = {new Member(1L, "a", Grade.VIP), new Member(2L, "b", Grade.BASIC)};
+        int[] prices = {20000, 30000};
+        int[] discountPrices = new int[2];
+        // when
+        discountPolicy.discount(members, prices, discountPrices);
+        // then
+        assertThat(discountPrices).containsExactly(2000, 100);
+    }
+
+    @Test
+    @DisplayName("같은 등급의 가격 구간이 겹치면 예외가 발생해야 한다.")
+    void overlappingRules() {
+        assertThatThrownBy(() -> new RuleTableDiscountPolicy(List.of(
+                new DiscountRule(Grade.VIP, 0, 20_000, 10, 0),
+                new DiscountRule(Grade.VIP, 10_000, 30_000, 5, 0))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
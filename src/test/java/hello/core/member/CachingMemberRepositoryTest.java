@@ -0,0 +1,136 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CachingMemberRepositoryTest {
+
+    /**
+     * 조회 횟수를 세는 원래 저장소 (MemoryMemberRepository는 store가 static이라 테스트끼리 섞이지 않도록 따로 둔다)
+     * */
+    static class CountingMemberRepository implements MemberRepository {
+        final Map<Long, Member> store = new HashMap<>();
+        int reads;
+        int batchReads;
+        int batchReadIds;
+
+        @Override
+        public synchronized void save(Member member) {
+            store.put(member.getId(), member);
+        }
+
+        @Override
+        public synchronized Member findById(Long memberId) {
+            reads++;
+            return store.get(memberId);
+        }
+
+        @Override
+        public synchronized Member[] findAllById(long[] memberIds) {
+            batchReads++;
+            batchReadIds += memberIds.length;
+            Member[] members = new Member[memberIds.length];
+            for (int i = 0; i < memberIds.length; i++) {
+                members[i] = store.get(memberIds[i]);
+            }
+            return members;
+        }
+
+        @Override
+        public synchronized void forEach(Consumer<? super Member> action) {
+            store.values().forEach(action);
+        }
+    }
+
+    CountingMemberRepository delegate = new CountingMemberRepository();
+
+    @Test
+    @DisplayName("두 번째 조회부터는 원래 저장소를 거치지 않아야 한다.")
+    void hit() {
+        // given
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, 10);
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        // when
+        memberRepository.findById(1L);
+        Member member = memberRepository.findById(1L);
+        // then
+        assertThat(member.getName()).isEqualTo("memberA");
+        assertThat(delegate.reads).isEqualTo(1);
+        assertThat(memberRepository.hitCount()).isEqualTo(1);
+        assertThat(memberRepository.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("저장하면 캐시에 있던 회원도 새 값으로 바뀌어야 한다. (write-through)")
+    void writeThrough() {
+        // given
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, 10);
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.findById(1L);
+        // when
+        memberRepository.saveAll(List.of(new Member(1L, "memberA", Grade.VIP)));
+        // then
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(delegate.reads).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시 크기를 넘지 않고, 한 번씩만 조회되는 회원들이 자주 조회되는 회원을 밀어내지 않아야 한다.")
+    void boundedAndScanResistant() {
+        // given
+        int maximumSize = 100;
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, maximumSize);
+        for (long id = 0; id < 20_000; id++) {
+            delegate.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (long hot = 0; hot < 50; hot++) {
+                memberRepository.findById(hot);
+            }
+        }
+
+        // when: 자주 조회되는 50명 사이사이에 한 번씩만 조회되는 회원 10,000명
+        for (long cold = 10_000; cold < 20_000; cold++) {
+            memberRepository.findById(cold);
+            memberRepository.findById(cold % 50);
+        }
+
+        // then
+        assertThat(memberRepository.size()).isLessThanOrEqualTo(maximumSize);
+        assertThat(memberRepository.evictionCount()).isPositive();
+        int readsBefore = delegate.reads;
+        for (long hot = 0; hot < 50; hot++) {
+            memberRepository.findById(hot);
+        }
+        assertThat(delegate.reads).isEqualTo(readsBefore);
+    }
+
+    @Test
+    @DisplayName("여러 회원 조회는 캐시에 없는 회원만 원래 저장소에서 한 번에 읽어 와야 한다.")
+    void findAllById() {
+        // given
+        CachingMemberRepository memberRepository = new CachingMemberRepository(delegate, 10);
+        for (long id = 1; id <= 4; id++) {
+            delegate.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        memberRepository.findById(1L);
+        memberRepository.findById(2L);
+        // when
+        Member[] members = memberRepository.findAllById(new long[]{1L, 2L, 3L, 4L, 99L});
+        Member[] cached = memberRepository.findAllById(new long[]{3L, 4L});
+        // then
+        assertThat(members).extracting(member -> member == null ? null : member.getId())
+                .containsExactly(1L, 2L, 3L, 4L, null);
+        assertThat(cached).extracting(Member::getId).containsExactly(3L, 4L);
+        assertThat(delegate.reads).isEqualTo(2);
+        assertThat(delegate.batchReads).isEqualTo(1);
+        assertThat(delegate.batchReadIds).isEqualTo(3);
+    }
+}
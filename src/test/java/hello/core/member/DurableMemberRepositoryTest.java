@@ -0,0 +1,211 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DurableMemberRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("다시 열면 로그를 replay 해서 저장했던 회원이 복구되어야 한다")
+    void recoverFromLog() {
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, null)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+            repository.save(new Member(2L, "memberB", Grade.BASIC));
+            repository.save(new Member(1L, "memberA2", Grade.BASIC));
+        }
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(2);
+            assertThat(reopened.findById(1L).getName()).isEqualTo("memberA2");
+            assertThat(reopened.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+        }
+    }
+
+    @Test
+    @DisplayName("스냅샷 이전 로그는 지워지고, 스냅샷 + 이후 로그로 복구되어야 한다")
+    void recoverFromSnapshotAndLog() throws IOException {
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, null)) {
+            for (long id = 0; id < 1_000; id++) {
+                repository.save(new Member(id, "member" + id, Grade.BASIC));
+            }
+            repository.snapshot();
+            repository.save(new Member(1_000L, "after", Grade.VIP));
+            repository.save(new Member(0L, null, null));
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".log")).count()).isEqualTo(1);
+        }
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(1_001);
+            assertThat(reopened.findById(1_000L).getGrade()).isEqualTo(Grade.VIP);
+            assertThat(reopened.findById(0L).getName()).isNull();
+            assertThat(reopened.findById(999L).getName()).isEqualTo("member999");
+        }
+    }
+
+    @Test
+    @DisplayName("마지막 기록이 잘려 있으면 그 앞까지만 복구한다")
+    void tornTail() throws IOException {
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, null)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(file -> file.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        // 길이만 기록되고 나머지가 잘린 기록
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(1);
+            reopened.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘는 길이를 만나면 거기서 멈추지 않고 손상으로 처리해야 한다")
+    void oversizedLengthIsCorruption() throws IOException {
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, null)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(file -> file.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0x7F, 0, 0, 0, 1, 2, 3, 4}, StandardOpenOption.APPEND);
+
+        assertThatThrownBy(() -> new DurableMemberRepository(dir, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("corrupted");
+    }
+
+    @Test
+    @DisplayName("기록 한 개의 최대 크기를 넘는 이름은 로그에 남기기 전에 거절해야 한다")
+    void rejectOversizedName() {
+        String huge = "a".repeat(1 << 24);
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, null)) {
+            assertThatThrownBy(() -> repository.save(new Member(1L, huge, Grade.VIP)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            // 배치는 하나라도 너무 길면 아무것도 남기지 않는다.
+            assertThatThrownBy(() -> repository.saveAll(List.of(
+                    new Member(2L, "memberB", Grade.BASIC), new Member(3L, huge, Grade.BASIC))))
+                    .isInstanceOf(IllegalArgumentException.class);
+            repository.save(new Member(4L, "memberD", Grade.BASIC));
+            assertThat(repository.count()).isEqualTo(1);
+        }
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(1);
+            assertThat(reopened.findById(4L).getName()).isEqualTo("memberD");
+        }
+    }
+
+    @Test
+    @DisplayName("주기적인 스냅샷이 한 번 실패해도 다음 주기에 다시 떠서 로그를 지워야 한다")
+    void scheduledSnapshotSurvivesFailure() throws Exception {
+        // 임시 스냅샷 파일 자리에 디렉터리가 있으면 스냅샷 쓰기가 실패한다.
+        Path blocker = Files.createDirectory(dir.resolve("snapshot.tmp"));
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, Duration.ofMillis(20))) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (repository.getSnapshotFailures() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(repository.getSnapshotFailures()).isPositive();
+
+            Files.delete(blocker);
+            while (!Files.exists(dir.resolve("snapshot.dat")) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(dir.resolve("snapshot.dat")).exists();
+            repository.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("로그 쓰기가 실패하면 저장은 예외를 던지고, 그 회원은 조회되거나 복구되지 않아야 한다")
+    void failedWriteIsNotAcknowledged() {
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, null)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+            // 인터럽트된 스레드의 FileChannel 쓰기는 ClosedByInterruptException으로 실패한다.
+            Thread.currentThread().interrupt();
+            try {
+                assertThatThrownBy(() -> repository.save(new Member(2L, "memberB", Grade.BASIC)))
+                        .isInstanceOf(UncheckedIOException.class);
+            } finally {
+                Thread.interrupted();
+            }
+            assertThat(repository.findById(2L)).isNull();
+            // 실패한 뒤의 저장도 모두 실패한다.
+            assertThatThrownBy(() -> repository.save(new Member(3L, "memberC", Grade.BASIC)))
+                    .isInstanceOf(UncheckedIOException.class);
+            assertThat(repository.findById(3L)).isNull();
+        }
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(1);
+            assertThat(reopened.findById(1L).getName()).isEqualTo("memberA");
+            reopened.save(new Member(2L, "memberB", Grade.BASIC));
+            assertThat(reopened.findById(2L).getName()).isEqualTo("memberB");
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 저장하고 도중에 스냅샷을 떠도 유실되는 회원이 없어야 한다")
+    void concurrentSaveWithSnapshot() throws Exception {
+        int threads = 16;
+        int perThread = 2_000;
+        try (DurableMemberRepository repository = new DurableMemberRepository(dir, null)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long from = (long) t * perThread;
+                results.add(executor.submit(() -> {
+                    for (long id = from; id < from + perThread; id++) {
+                        repository.save(new Member(id, "member" + id, Grade.BASIC));
+                    }
+                }));
+            }
+            for (int i = 0; i < 3; i++) {
+                repository.snapshot();
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            executor.shutdown();
+        }
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(dir, null)) {
+            assertThat(reopened.count()).isEqualTo(threads * perThread);
+        }
+    }
+}
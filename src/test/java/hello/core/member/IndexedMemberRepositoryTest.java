@@ -0,0 +1,103 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndexedMemberRepositoryTest {
+
+    IndexedMemberRepository memberRepository = new IndexedMemberRepository();
+
+    @Test
+    @DisplayName("등급, 이름, 이름 접두사로 회원을 찾을 수 있어야 한다.")
+    void query() {
+        // given
+        memberRepository.saveAll(List.of(
+                new Member(1L, "kim", Grade.VIP),
+                new Member(2L, "kang", Grade.BASIC),
+                new Member(3L, "kim", Grade.BASIC),
+                new Member(4L, "lee", Grade.VIP)));
+
+        // when, then
+        assertThat(memberRepository.findByGrade(Grade.VIP).map(Member::getId)).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(memberRepository.countByGrade(Grade.BASIC)).isEqualTo(2);
+        assertThat(memberRepository.findByName("kim").map(Member::getId)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(memberRepository.findByName("park")).isEmpty();
+        assertThat(memberRepository.findByNamePrefix("k", 10).map(Member::getName)).containsExactly("kang", "kim", "kim");
+        assertThat(memberRepository.findByNamePrefix("k", 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("같은 id로 다시 저장하면 이전 등급/이름 인덱스에서 빠져야 한다.")
+    void reindexOnSave() {
+        // given
+        memberRepository.save(new Member(1L, "kim", Grade.BASIC));
+        // when
+        memberRepository.save(new Member(1L, "park", Grade.VIP));
+        // then
+        assertThat(memberRepository.findByGrade(Grade.BASIC)).isEmpty();
+        assertThat(memberRepository.findByGrade(Grade.VIP).map(Member::getName)).containsExactly("park");
+        assertThat(memberRepository.findByName("kim")).isEmpty();
+        assertThat(memberRepository.findByNamePrefix("", 10).map(Member::getName)).containsExactly("park");
+    }
+
+    @Test
+    @DisplayName("조회한 회원을 변경한 뒤 다시 저장하면 인덱스가 갱신되어야 한다.")
+    void reindexMutatedMember() {
+        // given
+        Member member = new Member(1L, "kim", Grade.BASIC);
+        memberRepository.save(member);
+        // when
+        Member found = memberRepository.findById(1L);
+        found.setGrade(Grade.VIP);
+        memberRepository.save(found);
+        // then
+        assertThat(memberRepository.countByGrade(Grade.BASIC)).isZero();
+        assertThat(memberRepository.countByGrade(Grade.VIP)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 이름의 회원이 많아도 저장과 이름 조회가 정확해야 한다.")
+    void manyMembersWithSameName() {
+        // given
+        int members = 100_000;
+        for (long id = 0; id < members; id++) {
+            memberRepository.save(new Member(id, "kim", Grade.BASIC));
+        }
+        // when
+        for (long id = 0; id < members; id += 2) {
+            memberRepository.save(new Member(id, "lee", Grade.BASIC));
+        }
+        // then
+        assertThat(memberRepository.findByName("kim").count()).isEqualTo(members / 2);
+        assertThat(memberRepository.findByName("lee").count()).isEqualTo(members / 2);
+        assertThat(memberRepository.findByNamePrefix("k", 10)).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("조회 후 스트림을 소비하기 전에 등급이 바뀐 회원은 결과에서 빠져야 한다.")
+    void lazyResolveSkipsChangedMembers() {
+        // given
+        memberRepository.saveAll(List.of(new Member(1L, "kim", Grade.VIP), new Member(2L, "lee", Grade.VIP)));
+        Stream<Member> vips = memberRepository.findByGrade(Grade.VIP);
+        // when
+        memberRepository.save(new Member(1L, "kim", Grade.BASIC));
+        // then
+        assertThat(vips.map(Member::getId)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("null 조건은 예외가 발생하거나 빈 결과여야 한다.")
+    void nullArguments() {
+        // given
+        memberRepository.save(new Member(1L, null, null));
+        // when, then
+        assertThatThrownBy(() -> memberRepository.findByNamePrefix(null, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberRepository.findByGrade(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(memberRepository.findByName(null)).isEmpty();
+    }
+}
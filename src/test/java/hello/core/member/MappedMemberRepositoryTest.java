@@ -0,0 +1,118 @@
+package hello.core.member;
+
+import hello.core.AutoAppConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MappedMemberRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("저장한 회원을 조회할 수 있고, 이름/등급 변경도 반영되어야 한다")
+    void saveAndFind() {
+        try (MappedMemberRepository repository = new MappedMemberRepository(dir.resolve("members.dat"), 1024, 1 << 16)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+            repository.save(new Member(2L, null, null));
+            // 더 긴 이름으로 바꾸면 name region 뒤쪽에 새로 기록된다.
+            repository.save(new Member(1L, "memberA-renamed", Grade.BASIC));
+
+            Member member = repository.findById(1L);
+            assertThat(member.getName()).isEqualTo("memberA-renamed");
+            assertThat(member.getGrade()).isEqualTo(Grade.BASIC);
+            assertThat(repository.findById(2L).getName()).isNull();
+            assertThat(repository.findById(2L).getGrade()).isNull();
+            assertThat(repository.findById(3L)).isNull();
+            assertThat(repository.count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("saveAll/findAllById는 한 번의 락으로 배치 전체를 처리한다")
+    void batch() {
+        try (MappedMemberRepository repository = new MappedMemberRepository(dir.resolve("members.dat"), 1024, 1 << 16)) {
+            repository.saveAll(List.of(
+                    new Member(1L, "memberA", Grade.VIP),
+                    new Member(2L, "memberB", Grade.BASIC)));
+
+            Member[] members = repository.findAllById(new long[]{2L, 3L, 1L});
+
+            assertThat(members[0].getName()).isEqualTo("memberB");
+            assertThat(members[1]).isNull();
+            assertThat(members[2].getGrade()).isEqualTo(Grade.VIP);
+        }
+    }
+
+    @Test
+    @DisplayName("다시 열면 다시 로딩하지 않아도 저장된 회원이 그대로 남아 있어야 한다")
+    void survivesReopen() {
+        Path file = dir.resolve("members.dat");
+        try (MappedMemberRepository repository = new MappedMemberRepository(file, 1 << 16, 1 << 20)) {
+            for (long id = 0; id < 10_000; id++) {
+                repository.save(new Member(id, "회원" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+            }
+        }
+
+        // 이미 파일이 있으면 파일에 기록된 용량을 사용하므로 인자는 무시된다.
+        try (MappedMemberRepository reopened = new MappedMemberRepository(file, 16, 16)) {
+            assertThat(reopened.count()).isEqualTo(10_000);
+            Member member = reopened.findById(9_990L);
+            assertThat(member.getName()).isEqualTo("회원9990");
+            assertThat(member.getGrade()).isEqualTo(Grade.VIP);
+        }
+    }
+
+    @Test
+    @DisplayName("용량을 넘어서면 예외가 발생한다")
+    void full() {
+        try (MappedMemberRepository repository = new MappedMemberRepository(dir.resolve("members.dat"), 16, 1024)) {
+            for (long id = 0; id < 12; id++) {
+                repository.save(new Member(id, "m", Grade.BASIC));
+            }
+            assertThatThrownBy(() -> repository.save(new Member(100L, "m", Grade.BASIC)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("slot table이 int 범위를 넘는 용량은 2의 거듭제곱으로 올림한 크기 기준으로 거절해야 한다")
+    void capacityBoundary() {
+        assertThat(MappedMemberRepository.MAX_SLOT_CAPACITY).isEqualTo(1 << 26);
+        assertThat(MappedMemberRepository.tableSizeFor(1 << 26)).isEqualTo(1 << 26);
+        assertThat(MappedMemberRepository.tableSizeFor((1 << 25) + 1)).isEqualTo(1 << 26);
+        assertThatThrownBy(() -> MappedMemberRepository.tableSizeFor((1 << 26) + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MappedMemberRepository(dir.resolve("huge.dat"), (1 << 27) - 1, 1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("mapped 프로필이 활성화되면 AutoAppConfig에서 MappedMemberRepository가 주입된다")
+    void selectByProfile() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext();
+        ac.getEnvironment().setActiveProfiles("mapped");
+        ac.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of("member.store.path", dir.resolve("auto.dat").toString(),
+                        "member.store.capacity", "1024",
+                        "member.store.name-bytes", "65536")));
+        ac.register(AutoAppConfig.class);
+        ac.refresh();
+
+        MemberService memberService = ac.getBean(MemberService.class);
+        memberService.join(new Member(1L, "memberA", Grade.VIP));
+
+        assertThat(ac.getBean(MemberRepository.class)).isInstanceOf(MappedMemberRepository.class);
+        assertThat(memberService.findMember(1L).getName()).isEqualTo("memberA");
+        ac.close();
+    }
+}
@@ -0,0 +1,183 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemberChangeFeedTest {
+
+    static final int THREADS = 8;
+    static final int MEMBERS_PER_THREAD = 1000;
+
+    MemberChangeFeed feed = new MemberChangeFeed(64, 16);
+
+    @AfterEach
+    void close() {
+        feed.close();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 저장해도 구독자마다 모든 이벤트를 번호 순서대로 받고, 같은 회원의 이벤트는 저장 순서와 같아야 한다.")
+    void orderedFanOut() throws Exception {
+        // given
+        PublishingMemberRepository memberRepository = new PublishingMemberRepository(new VersionedMemberRepository(), feed);
+        List<MemberChangeEvent> first = Collections.synchronizedList(new ArrayList<>());
+        List<MemberChangeEvent> second = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        feed.subscribe("first", events -> {
+            batchSizes.add(events.size());
+            first.addAll(events);
+        });
+        feed.subscribe("second", second::addAll);
+
+        // when: 회원마다 BASIC으로 가입한 뒤 VIP로 바꾼다.
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long from = (long) t * MEMBERS_PER_THREAD;
+            results.add(executor.submit(() -> {
+                for (long id = from; id < from + MEMBERS_PER_THREAD; id++) {
+                    memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+                    memberRepository.save(new Member(id, "member" + id, Grade.VIP));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        int total = THREADS * MEMBERS_PER_THREAD * 2;
+        awaitUntil(() -> first.size() == total && second.size() == total);
+
+        // then
+        for (List<MemberChangeEvent> events : List.of(first, second)) {
+            boolean[] created = new boolean[THREADS * MEMBERS_PER_THREAD];
+            for (int i = 0; i < events.size(); i++) {
+                MemberChangeEvent event = events.get(i);
+                assertThat(event.getSequence()).isEqualTo(i);
+                int id = (int) event.getMemberId();
+                if (!created[id]) {
+                    assertThat(event.isCreated()).isTrue();
+                    assertThat(event.getGrade()).isEqualTo(Grade.BASIC);
+                    created[id] = true;
+                } else {
+                    assertThat(event.isGradeChanged()).isTrue();
+                    assertThat(event.getPreviousGrade()).isEqualTo(Grade.BASIC);
+                }
+            }
+        }
+        assertThat(batchSizes).allMatch(size -> size >= 1 && size <= 16);
+    }
+
+    @Test
+    @DisplayName("느린 구독자가 처리하지 않은 이벤트는 덮어쓰지 않고, 발행하는 쪽이 기다려야 한다.")
+    void backpressure() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        List<MemberChangeEvent> received = Collections.synchronizedList(new ArrayList<>());
+        feed.subscribe("slow", events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.addAll(events);
+        });
+        Thread publisher = new Thread(() -> {
+            for (long id = 0; id < 500; id++) {
+                feed.publish(new Member(id, "member", Grade.BASIC), null);
+            }
+        });
+
+        // when
+        publisher.start();
+        awaitUntil(() -> feed.published() == feed.capacity());
+        Thread.sleep(50);
+
+        // then: 첫 묶음을 처리하기 전까지 버퍼 크기만큼만 발행된다.
+        assertThat(feed.published()).isEqualTo(feed.capacity());
+        assertThat(publisher.isAlive()).isTrue();
+
+        release.countDown();
+        publisher.join(10_000);
+        awaitUntil(() -> received.size() == 500);
+        for (int i = 0; i < 500; i++) {
+            assertThat(received.get(i).getMemberId()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    @DisplayName("listener가 예외를 던져도 다음 묶음은 계속 전달되고, 닫힌 구독은 발행을 막지 않아야 한다.")
+    void errorsAndClose() {
+        // given
+        List<MemberChangeEvent> received = Collections.synchronizedList(new ArrayList<>());
+        MemberChangeFeed.Subscription failing = feed.subscribe("failing", events -> {
+            if (events.get(0).getMemberId() == 0) {
+                throw new IllegalStateException("boom");
+            }
+            received.addAll(events);
+        });
+        feed.publish(new Member(0L, "member", Grade.BASIC), null);
+        awaitUntil(() -> failing.errors() == 1 && failing.lag() == 0);
+
+        // when
+        feed.publish(new Member(1L, "member", Grade.BASIC), null);
+        awaitUntil(() -> received.size() == 1);
+        failing.close();
+        for (long id = 2; id < 1000; id++) {
+            feed.publish(new Member(id, "member", Grade.BASIC), null);
+        }
+
+        // then
+        assertThat(received).hasSize(1);
+        assertThat(feed.published()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("listener가 Error를 던지면 구독이 끝나고, 그 뒤의 발행은 버퍼 크기를 넘어도 막히지 않아야 한다.")
+    void errorEndsSubscription() throws Exception {
+        // given
+        MemberChangeFeed.Subscription dying = feed.subscribe("dying", events -> {
+            throw new Error("listener bug");
+        });
+        Thread publisher = new Thread(() -> {
+            for (long id = 0; id < feed.capacity() * 10L; id++) {
+                feed.publish(new Member(id, "member", Grade.BASIC), null);
+            }
+        });
+
+        // when
+        publisher.start();
+        publisher.join(10_000);
+
+        // then
+        assertThat(publisher.isAlive()).isFalse();
+        assertThat(feed.published()).isEqualTo(feed.capacity() * 10L);
+        awaitUntil(() -> !dying.isActive());
+        assertThat(dying.errors()).isEqualTo(1);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("timed out");
+            }
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+}
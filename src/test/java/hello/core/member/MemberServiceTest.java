@@ -5,6 +5,8 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 public class MemberServiceTest {
 
     MemberService memberService;
@@ -25,4 +27,16 @@ public class MemberServiceTest {
         //then
         Assertions.assertThat(member).isEqualTo(findMember);
     }
+
+    @Test
+    void joinAll() {
+        //given
+        Member memberA = new Member(10L, "memberA", Grade.VIP);
+        Member memberB = new Member(11L, "memberB", Grade.BASIC);
+        //when
+        memberService.joinAll(List.of(memberA, memberB));
+        Member[] findMembers = memberService.findMembers(new long[]{11L, 12L, 10L});
+        //then
+        Assertions.assertThat(findMembers).containsExactly(memberB, null, memberA);
+    }
 }
@@ -0,0 +1,95 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemoryMemberRepositoryTest {
+
+    static final int THREADS = 32;
+    static final int MEMBERS_PER_THREAD = 20_000;
+    // 다른 테스트가 사용하는 id(1L 등)와 겹치지 않도록 큰 값부터 사용한다. (store가 static)
+    static final long BASE_ID = 1_000_000_000L;
+
+    MemberRepository memberRepository = new MemoryMemberRepository();
+
+    @Test
+    @DisplayName("32개 스레드가 동시에 저장/조회해도 유실되는 회원이 없어야 한다")
+    void concurrentJoin() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            long from = BASE_ID + (long) t * MEMBERS_PER_THREAD;
+            results.add(executor.submit(() -> {
+                start.await();
+                int misses = 0;
+                for (long id = from; id < from + MEMBERS_PER_THREAD; id++) {
+                    memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+                    // 방금 저장한 회원은 다른 스레드의 resize와 상관없이 항상 조회되어야 한다.
+                    if (memberRepository.findById(id) == null) {
+                        misses++;
+                    }
+                }
+                return misses;
+            }));
+        }
+        start.countDown();
+
+        for (Future<Integer> result : results) {
+            assertThat(result.get()).isEqualTo(0);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        for (long id = BASE_ID; id < BASE_ID + (long) THREADS * MEMBERS_PER_THREAD; id++) {
+            Member member = memberRepository.findById(id);
+            assertThat(member).isNotNull();
+            assertThat(member.getId()).isEqualTo(id);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 회원을 동시에 덮어써도 마지막 값 하나만 남아야 한다")
+    void concurrentOverwrite() throws Exception {
+        long id = BASE_ID - 1;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            Member member = new Member(id, "writer" + t, Grade.VIP);
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    memberRepository.save(member);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertThat(memberRepository.findById(id).getName()).startsWith("writer");
+    }
+
+    @Test
+    @DisplayName("존재하지 않거나 null인 id는 null을 반환한다")
+    void findMissing() {
+        assertThat(memberRepository.findById(-1L)).isNull();
+        assertThat(memberRepository.findById(null)).isNull();
+    }
+}
@@ -0,0 +1,140 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ShardedMemberRepositoryTest {
+
+    static final int THREADS = 16;
+    static final int MEMBERS_PER_THREAD = 10_000;
+
+    ShardedMemberRepository memberRepository = new ShardedMemberRepository(16);
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 저장/조회해도 유실되는 회원이 없고, 회원이 파티션에 고르게 나뉘어야 한다.")
+    void concurrentSave() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            long from = (long) t * MEMBERS_PER_THREAD;
+            results.add(executor.submit(() -> {
+                start.await();
+                int misses = 0;
+                for (long id = from; id < from + MEMBERS_PER_THREAD; id++) {
+                    memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+                    if (memberRepository.findById(id) == null) {
+                        misses++;
+                    }
+                }
+                return misses;
+            }));
+        }
+        start.countDown();
+
+        for (Future<Integer> result : results) {
+            assertThat(result.get()).isEqualTo(0);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(memberRepository.count()).isEqualTo((long) THREADS * MEMBERS_PER_THREAD);
+        int[] perPartition = memberRepository.scan(() -> new int[1], (count, member) -> count[0]++, (left, right) -> {
+            left[0] = Math.max(left[0], right[0]);
+            return left;
+        });
+        // 연속된 id라도 한 파티션에 평균(10000)보다 크게 몰리지 않아야 한다.
+        assertThat(perPartition[0]).isLessThan(THREADS * MEMBERS_PER_THREAD / memberRepository.partitionCount() * 11 / 10);
+    }
+
+    @Test
+    @DisplayName("saveAll / findAllById는 파티션과 관계없이 입력 순서대로 처리되어야 한다.")
+    void batch() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 1000; id++) {
+            members.add(new Member(id, "member" + id, Grade.VIP));
+        }
+        members.add(new Member(7L, "again", Grade.BASIC)); // 같은 id는 뒤에 나온 값이 남는다.
+
+        // when
+        memberRepository.saveAll(members);
+        Member[] found = memberRepository.findAllById(new long[]{999, 7, -1, 0});
+
+        // then
+        assertThat(memberRepository.count()).isEqualTo(1000);
+        assertThat(found[0].getName()).isEqualTo("member999");
+        assertThat(found[1].getName()).isEqualTo("again");
+        assertThat(found[2]).isNull();
+        assertThat(found[3].getName()).isEqualTo("member0");
+    }
+
+    @Test
+    @DisplayName("병렬 scan으로 처리한 등급/이름 조회 결과가 인덱스를 쓰는 저장소와 같아야 한다.")
+    void queryMatchesIndexedRepository() {
+        // given
+        IndexedMemberRepository indexed = new IndexedMemberRepository();
+        for (long id = 0; id < 500; id++) {
+            Member member = new Member(id, (id % 3 == 0 ? "kim" : "lee") + id % 7, id % 4 == 0 ? Grade.VIP : Grade.BASIC);
+            memberRepository.save(member);
+            indexed.save(member);
+        }
+
+        // when, then
+        assertThat(memberRepository.countByGrade(Grade.VIP)).isEqualTo(indexed.countByGrade(Grade.VIP));
+        assertThat(memberRepository.findByGrade(Grade.BASIC).map(Member::getId))
+                .containsExactlyInAnyOrderElementsOf(indexed.findByGrade(Grade.BASIC).map(Member::getId).toList());
+        assertThat(memberRepository.findByName("kim3").map(Member::getId))
+                .containsExactlyInAnyOrderElementsOf(indexed.findByName("kim3").map(Member::getId).toList());
+        assertThat(memberRepository.findByNamePrefix("kim", 30).map(Member::getName))
+                .containsExactlyElementsOf(indexed.findByNamePrefix("kim", 30).map(Member::getName).toList());
+    }
+
+    @Test
+    @DisplayName("이름 접두어 조회는 limit에 상관없이 인덱스를 쓰는 저장소와 같은 순서로 최대 limit 명이어야 한다.")
+    void namePrefixLimit() {
+        // given
+        IndexedMemberRepository indexed = new IndexedMemberRepository();
+        for (long id = 0; id < 500; id++) {
+            Member member = new Member(id, (id % 2 == 0 ? "kim" : "lee") + (id * 7919 % 500), Grade.BASIC);
+            memberRepository.save(member);
+            indexed.save(member);
+        }
+
+        // when, then
+        for (int limit : new int[]{0, 1, 7, 250, 1000}) {
+            assertThat(memberRepository.findByNamePrefix("kim", limit).map(Member::getName))
+                    .containsExactlyElementsOf(indexed.findByNamePrefix("kim", limit).map(Member::getName).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("null 조건은 예외가 발생하거나 빈 결과여야 한다.")
+    void nullArguments() {
+        // given
+        memberRepository.save(new Member(1L, null, null));
+        // when, then
+        assertThatThrownBy(() -> memberRepository.findByNamePrefix(null, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberRepository.findByGrade(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(memberRepository.findByName(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("파티션 수는 2의 거듭제곱으로 올림되어야 한다.")
+    void partitionCount() {
+        assertThat(new ShardedMemberRepository(1).partitionCount()).isEqualTo(1);
+        assertThat(new ShardedMemberRepository(5).partitionCount()).isEqualTo(8);
+        assertThatThrownBy(() -> new ShardedMemberRepository(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VersionedMemberRepositoryTest {
+
+    static final int WRITERS = 8;
+    static final int UPDATES_PER_WRITER = 5_000;
+
+    VersionedMemberRepository memberRepository = new VersionedMemberRepository();
+
+    @Test
+    @DisplayName("저장할 때마다 version이 올라가고, 조회한 Member를 바꿔도 저장소에는 반영되지 않아야 한다.")
+    void saveAndFind() {
+        // given
+        memberRepository.save(new Member(1L, "kim", Grade.BASIC));
+        memberRepository.save(new Member(1L, "kim", Grade.VIP));
+
+        // when
+        Member found = memberRepository.findById(1L);
+        found.setGrade(Grade.BASIC);
+
+        // then
+        MemberSnapshot snapshot = memberRepository.findSnapshot(1L);
+        assertThat(snapshot.getVersion()).isEqualTo(2);
+        assertThat(snapshot.getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findById(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("compareAndSetGrade는 현재 등급이 expected일 때만 바꿔야 한다.")
+    void compareAndSetGrade() {
+        // given
+        memberRepository.save(new Member(1L, "kim", Grade.BASIC));
+
+        // when, then
+        assertThat(memberRepository.compareAndSetGrade(1L, Grade.VIP, Grade.BASIC)).isFalse();
+        assertThat(memberRepository.compareAndSetGrade(1L, Grade.BASIC, Grade.VIP)).isTrue();
+        assertThat(memberRepository.compareAndSetGrade(1L, Grade.BASIC, Grade.VIP)).isFalse();
+        assertThat(memberRepository.compareAndSetGrade(2L, Grade.BASIC, Grade.VIP)).isFalse();
+        assertThat(memberRepository.findSnapshot(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findSnapshot(1L).getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 update해도 유실되는 변경이 없고, 읽는 쪽은 이름과 등급이 어긋난 상태를 보지 않아야 한다.")
+    void concurrentUpdate() throws Exception {
+        // given: 이름은 항상 등급 이름 + 변경 횟수로 바꾼다.
+        memberRepository.save(new Member(1L, "BASIC:0", Grade.BASIC));
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+
+        Future<Integer> reader = executor.submit(() -> {
+            start.await();
+            int torn = 0;
+            while (!done.get()) {
+                MemberSnapshot snapshot = memberRepository.findSnapshot(1L);
+                if (!snapshot.getName().startsWith(snapshot.getGrade().name() + ":")) {
+                    torn++;
+                }
+            }
+            return torn;
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                    memberRepository.update(1L, snapshot -> {
+                        Grade next = snapshot.getGrade() == Grade.VIP ? Grade.BASIC : Grade.VIP;
+                        long count = Long.parseLong(snapshot.getName().substring(snapshot.getName().indexOf(':') + 1));
+                        return snapshot.withGrade(next).withName(next.name() + ":" + (count + 1));
+                    });
+                }
+                return null;
+            }));
+        }
+
+        // when
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        done.set(true);
+
+        // then
+        assertThat(reader.get()).isEqualTo(0);
+        MemberSnapshot last = memberRepository.findSnapshot(1L);
+        assertThat(last.getVersion()).isEqualTo(1 + WRITERS * UPDATES_PER_WRITER);
+        assertThat(last.getName()).endsWith(":" + WRITERS * UPDATES_PER_WRITER);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
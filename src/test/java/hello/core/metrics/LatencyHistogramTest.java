@@ -0,0 +1,84 @@
+package hello.core.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("모든 값은 자기 구간의 최솟값과 최댓값 사이에 있어야 하고, 구간 폭은 값의 1/32 이하여야 한다.")
+    void bucketBounds() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            assertBucket(value);
+        }
+        for (int shift = 20; shift <= LatencyHistogram.MAX_MAGNITUDE; shift++) {
+            assertBucket((1L << shift) - 1);
+            assertBucket(1L << shift);
+            assertBucket((1L << shift) + 12345);
+        }
+        assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    @DisplayName("백분위 값은 실제 값과 3% 이내로 같아야 한다.")
+    void percentiles() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when (1us ~ 10ms)
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // then
+        assertThat(snapshot.getCount()).isEqualTo(10_000);
+        assertThat(snapshot.getMax()).isEqualTo(10_000_000L);
+        assertThat(snapshot.getValueAtPercentile(50)).isCloseTo(5_000_000L, withinPercentage(3));
+        assertThat(snapshot.getValueAtPercentile(99)).isCloseTo(9_900_000L, withinPercentage(3));
+        assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(10_000_000L);
+        assertThat(snapshot.getMean()).isCloseTo(5_000_500.0, withinPercentage(3));
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 기록해도 개수가 유실되지 않아야 한다.")
+    void concurrentRecord() throws Exception {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i & 1023);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(histogram.snapshot().getCount()).isEqualTo(800_000);
+        assertThat(histogram.snapshot().getMax()).isEqualTo(1023);
+    }
+
+    private static void assertBucket(long value) {
+        int bucket = LatencyHistogram.bucketOf(value);
+        assertThat(LatencyHistogram.lowerBound(bucket)).isLessThanOrEqualTo(value);
+        assertThat(LatencyHistogram.upperBound(bucket)).isGreaterThanOrEqualTo(value);
+        long width = LatencyHistogram.upperBound(bucket) - LatencyHistogram.lowerBound(bucket) + 1;
+        assertThat(width * LatencyHistogram.SUB_BUCKETS).isLessThanOrEqualTo(Math.max(value, LatencyHistogram.SUB_BUCKETS));
+    }
+}
@@ -0,0 +1,65 @@
+package hello.core.metrics;
+
+import hello.core.AppConfig;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import hello.core.order.OrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MetricsBeanPostProcessorTest {
+
+    @Test
+    @DisplayName("metrics.enabled=true 이면 서비스 빈이 계측 객체로 감싸지고 호출 수, 실패 수가 기록되어야 한다.")
+    void instrumentBeans() {
+        // given
+        AnnotationConfigApplicationContext ac = createContext("true");
+        MemberService memberService = ac.getBean("memberService", MemberService.class);
+        OrderService orderService = ac.getBean("orderService", OrderService.class);
+        MetricsRegistry registry = ac.getBean(MetricsRegistry.class);
+
+        // when
+        memberService.join(new Member(60L, "memberA", Grade.VIP));
+        orderService.createOrder(60L, "itemA", 10000);
+        assertThatThrownBy(() -> orderService.createOrder(-60L, "itemA", 10000))
+                .isInstanceOf(NullPointerException.class);
+
+        // then
+        assertThat(memberService).isInstanceOf(InstrumentedMemberService.class);
+        assertThat(registry.callMetrics("memberService.join").getCallCount()).isEqualTo(1);
+        assertThat(registry.callMetrics("memberRepository.save").getCallCount()).isEqualTo(1);
+        CallMetrics createOrder = registry.callMetrics("orderService.createOrder");
+        assertThat(createOrder.getCallCount()).isEqualTo(2);
+        assertThat(createOrder.latencySnapshot().getCount()).isEqualTo(1);
+        assertThat(createOrder.getErrorCount()).isEqualTo(1);
+        assertThat(registry.callMetrics("discountPolicy.discount").getErrorCount()).isEqualTo(1);
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("metrics.enabled 속성이 없으면 빈을 감싸지 않아야 한다.")
+    void disabled() {
+        // given
+        AnnotationConfigApplicationContext ac = createContext(null);
+
+        // then
+        assertThat(ac.getBeanNamesForType(MetricsRegistry.class)).isEmpty();
+        assertThat(ac.getBean("memberService")).isNotInstanceOf(InstrumentedMemberService.class);
+        ac.close();
+    }
+
+    private static AnnotationConfigApplicationContext createContext(String enabled) {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext();
+        if (enabled != null) {
+            TestPropertyValues.of("metrics.enabled=" + enabled, "metrics.latency.sampling-interval=2").applyTo(ac);
+        }
+        ac.register(AppConfig.class, MetricsRegistry.class, MetricsBeanPostProcessor.class);
+        ac.refresh();
+        return ac;
+    }
+}
@@ -0,0 +1,126 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AsyncOrderServiceTest {
+
+    static final int ORDERS = 10_000;
+
+    ExecutorService executor = OrderExecutors.newOrderExecutor();
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("비동기로 생성한 주문도 할인이 적용되어야 한다")
+    void createOrder() {
+        AsyncOrderService asyncOrderService = new AsyncOrderServiceImpl(
+                new OrderServiceImpl(new SlowMemberRepository(0), new RateDiscountPolicy()), executor);
+
+        Order order = asyncOrderService.createOrder(1L, "itemA", 10000).join();
+
+        assertThat(order.getDiscountPrice()).isEqualTo(1000);
+    }
+
+    /**
+     * 회원 조회에 1ms가 걸리는 저장소로 1만 건을 동시에 요청한다. (지연시간 분포는 AsyncOrderServiceBenchmark)
+     * */
+    @Test
+    @DisplayName("1만 건을 동시에 요청해도 모두 완료되고 할인이 적용되어야 한다")
+    void concurrentOrders() {
+        AsyncOrderService asyncOrderService = new AsyncOrderServiceImpl(
+                new OrderServiceImpl(new SlowMemberRepository(1), new RateDiscountPolicy()), executor);
+
+        List<CompletableFuture<Order>> futures = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            futures.add(asyncOrderService.createOrder((long) i, "item" + i, 10000));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = futures.get(i).join();
+            assertThat(order.getMemberId()).isEqualTo((long) i);
+            assertThat(order.getItemName()).isEqualTo("item" + i);
+            assertThat(order.getDiscountPrice()).isEqualTo(1000);
+        }
+    }
+
+    @Test
+    @DisplayName("bounded executor는 스레드 수를 넘지 않고, 대기열이 차면 요청한 스레드에서 실행해야 한다")
+    void boundedExecutor() {
+        ThreadPoolExecutor bounded = (ThreadPoolExecutor) OrderExecutors.newBoundedExecutor(2, 4);
+        Set<Thread> workers = ConcurrentHashMap.newKeySet();
+        MemberRepository recordingRepository = new SlowMemberRepository(1) {
+            @Override
+            public Member findById(Long memberId) {
+                workers.add(Thread.currentThread());
+                return super.findById(memberId);
+            }
+        };
+        AsyncOrderService asyncOrderService = new AsyncOrderServiceImpl(
+                new OrderServiceImpl(recordingRepository, new RateDiscountPolicy()), bounded);
+
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(asyncOrderService.createOrder((long) i, "itemA", 10000));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        bounded.shutdown();
+
+        assertThat(futures).allSatisfy(future -> assertThat(future.join().getDiscountPrice()).isEqualTo(1000));
+        assertThat(bounded.getLargestPoolSize()).isLessThanOrEqualTo(2);
+        // pool 스레드 2개 + 대기열이 찼을 때 직접 실행한 요청 스레드
+        assertThat(workers).contains(Thread.currentThread()).hasSizeLessThanOrEqualTo(3);
+    }
+
+    static class SlowMemberRepository implements MemberRepository {
+
+        private final long delayMillis;
+
+        SlowMemberRepository(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void save(Member member) {
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new Member(memberId, "member" + memberId, Grade.VIP);
+        }
+
+        /**
+         * 저장하지 않으므로 순회할 회원이 없다.
+         * */
+        @Override
+        public void forEach(Consumer<? super Member> action) {
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package hello.core.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IdempotentOrderServiceTest {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    AtomicInteger calls = new AtomicInteger();
+    OrderService countingOrderService = (memberId, itemName, itemPrice) -> {
+        calls.incrementAndGet();
+        return new Order(memberId, itemName, itemPrice, 1000);
+    };
+    AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("같은 키로 재시도하면 주문을 다시 만들지 않고 처음 만든 주문을 돌려줘야 한다.")
+    void retryReturnsOriginalOrder() {
+        // given
+        IdempotentOrderServiceImpl orderService = new IdempotentOrderServiceImpl(countingOrderService, Duration.ofMinutes(1), 100, TIMEOUT, now::get);
+        Order first = orderService.createOrder("key-1", 1L, "itemA", 10000);
+        // when
+        Order retry = orderService.createOrder("key-1", 1L, "itemA", 10000);
+        Order other = orderService.createOrder("key-2", 1L, "itemA", 10000);
+        // then
+        assertThat(retry).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(orderService.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 주문이 들어오면 예외가 발생해야 한다.")
+    void keyReusedForDifferentOrder() {
+        // given
+        IdempotentOrderServiceImpl orderService = new IdempotentOrderServiceImpl(countingOrderService, Duration.ofMinutes(1), 100, TIMEOUT, now::get);
+        orderService.createOrder("key-1", 1L, "itemA", 10000);
+        // when, then
+        assertThatThrownBy(() -> orderService.createOrder("key-1", 1L, "itemA", 20000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> orderService.createOrder("key-1", 2L, "itemA", 10000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("주문 생성이 실패하면 키를 지워서 재시도가 주문을 새로 만들어야 한다.")
+    void failedOrderIsNotRemembered() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+        OrderService failingOnce = (memberId, itemName, itemPrice) -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw new IllegalStateException("timeout");
+            }
+            return new Order(memberId, itemName, itemPrice, 0);
+        };
+        IdempotentOrderServiceImpl orderService = new IdempotentOrderServiceImpl(failingOnce, Duration.ofMinutes(1), 100, TIMEOUT, now::get);
+        // when
+        assertThatThrownBy(() -> orderService.createOrder("key-1", 1L, "itemA", 10000))
+                .isInstanceOf(IllegalStateException.class);
+        Order retry = orderService.createOrder("key-1", 1L, "itemA", 10000);
+        // then
+        assertThat(retry.getItemPrice()).isEqualTo(10000);
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(orderService.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("처리 중인 주문을 동시에 재시도해도 주문은 한 번만 만들어야 한다.")
+    void concurrentRetriesCreateOnce() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        OrderService slowOrderService = (memberId, itemName, itemPrice) -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Order(memberId, itemName, itemPrice, 0);
+        };
+        IdempotentOrderServiceImpl orderService = new IdempotentOrderServiceImpl(slowOrderService, Duration.ofMinutes(1), 100, TIMEOUT, now::get);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // when
+        List<Future<Order>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> orderService.createOrder("key-1", 1L, "itemA", 10000)));
+        }
+        while (calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        Order first = results.get(0).get();
+        // then
+        for (Future<Order> result : results) {
+            assertThat(result.get()).isSameAs(first);
+        }
+        executor.shutdown();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("키는 window 동안 기억하고, 두 세대가 지나면 잊어야 한다.")
+    void keysExpireAfterTwoGenerations() {
+        // given
+        IdempotentOrderServiceImpl orderService = new IdempotentOrderServiceImpl(countingOrderService, Duration.ofSeconds(60), 100, TIMEOUT, now::get);
+        Order first = orderService.createOrder("key-1", 1L, "itemA", 10000);
+        // when: 한 세대가 지나면 이전 세대에서 찾는다.
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+        orderService.createOrder("key-2", 1L, "itemA", 10000);
+        Order retry = orderService.createOrder("key-1", 1L, "itemA", 10000);
+        // when: 한 세대가 더 지나면 잊는다.
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+        orderService.createOrder("key-3", 1L, "itemA", 10000);
+        Order afterExpiry = orderService.createOrder("key-1", 1L, "itemA", 10000);
+        // then
+        assertThat(retry).isSameAs(first);
+        assertThat(afterExpiry).isNotSameAs(first);
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("window 안이라도 기억하는 키는 2 * maxKeys개를 넘지 않아야 한다.")
+    void memoryIsBounded() {
+        // given
+        int maxKeys = 1000;
+        IdempotentOrderServiceImpl orderService = new IdempotentOrderServiceImpl(countingOrderService, Duration.ofMinutes(1), maxKeys, TIMEOUT, now::get);
+        // when
+        for (int i = 0; i < maxKeys * 10; i++) {
+            orderService.createOrder("key-" + i, 1L, "itemA", 10000);
+        }
+        Order recent = orderService.createOrder("key-" + (maxKeys * 10 - 1), 1L, "itemA", 10000);
+        // then
+        assertThat(orderService.size()).isLessThanOrEqualTo(2L * maxKeys);
+        assertThat(recent.getItemName()).isEqualTo("itemA");
+        assertThat(calls.get()).isEqualTo(maxKeys * 10);
+    }
+
+    @Test
+    @DisplayName("처음 요청이 inProgressTimeout 안에 끝나지 않으면 재시도는 기다리지 않고 OrderInProgressException이 발생해야 한다.")
+    void retryTimesOutWhileInProgress() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        OrderService stuckOrderService = (memberId, itemName, itemPrice) -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Order(memberId, itemName, itemPrice, 0);
+        };
+        IdempotentOrderService waiting = new IdempotentOrderServiceImpl(stuckOrderService, Duration.ofMinutes(1), 100, Duration.ofMillis(50), now::get);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Order> first = executor.submit(() -> waiting.createOrder("key-1", 1L, "itemA", 10000));
+        while (calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // when, then
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> waiting.createOrder("key-1", 1L, "itemA", 10000))
+                .isInstanceOf(OrderInProgressException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+
+        release.countDown();
+        Order order = first.get();
+        executor.shutdown();
+        assertThat(waiting.createOrder("key-1", 1L, "itemA", 10000)).isSameAs(order);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("inProgressTimeout이 0이면 처리 중인 키의 재시도는 바로 OrderInProgressException이 발생해야 한다.")
+    void failFastWhileInProgress() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        OrderService stuckOrderService = (memberId, itemName, itemPrice) -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Order(memberId, itemName, itemPrice, 0);
+        };
+        IdempotentOrderService failFast = new IdempotentOrderServiceImpl(stuckOrderService, Duration.ofMinutes(1), 100, Duration.ZERO, now::get);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Order> first = executor.submit(() -> failFast.createOrder("key-1", 1L, "itemA", 10000));
+        while (calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // when, then
+        assertThatThrownBy(() -> failFast.createOrder("key-1", 1L, "itemA", 10000))
+                .isInstanceOf(OrderInProgressException.class)
+                .hasMessageContaining("key-1");
+        release.countDown();
+        first.get();
+        executor.shutdown();
+    }
+}
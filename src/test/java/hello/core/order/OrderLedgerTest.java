@@ -0,0 +1,77 @@
+package hello.core.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OrderLedgerTest {
+
+    OrderLedger ledger = new OrderLedger();
+
+    @Test
+    @DisplayName("추가한 주문을 행 번호로 그대로 꺼낼 수 있어야 한다. (chunk 경계 포함)")
+    void appendAndGet() {
+        // given
+        int rows = OrderLedger.CHUNK_SIZE * 2 + 10;
+        for (int i = 0; i < rows; i++) {
+            ledger.append(i, "item" + (i % 3), 1000 + i, i % 100);
+        }
+        // when
+        Order order = ledger.get(OrderLedger.CHUNK_SIZE);
+        // then
+        assertThat(ledger.size()).isEqualTo(rows);
+        assertThat(order.getMemberId()).isEqualTo(OrderLedger.CHUNK_SIZE);
+        assertThat(order.getItemName()).isEqualTo("item" + (OrderLedger.CHUNK_SIZE % 3));
+        assertThat(order.getItemPrice()).isEqualTo(1000 + OrderLedger.CHUNK_SIZE);
+        assertThatThrownBy(() -> ledger.get(rows)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("정산 스캔은 주문 객체로 계산한 결과와 같아야 한다.")
+    void billingScans() {
+        // given
+        List<Order> orders = List.of(
+                new Order(1L, "itemA", 10000, 1000),
+                new Order(2L, "itemB", 20000, 0),
+                new Order(1L, "itemA", 5000, 500));
+        orders.forEach(ledger::append);
+        ledger.appendAll(new OrderBatch(new long[]{3L}, new String[]{"itemB"}, new int[]{3000}, new int[]{0}));
+        // when, then
+        assertThat(ledger.totalPrice()).isEqualTo(9000 + 20000 + 4500 + 3000);
+        assertThat(ledger.totalDiscount()).isEqualTo(1500);
+        assertThat(ledger.totalPriceOf(1L)).isEqualTo(13500);
+        assertThat(ledger.countByItem()).containsEntry("itemA", 2L).containsEntry("itemB", 2L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 추가해도 유실되는 주문이 없어야 한다.")
+    void concurrentAppend() throws Exception {
+        // given
+        int threads = 16;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        // when
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ledger.append(1L, "item", 100, 10);
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        // then
+        assertThat(ledger.size()).isEqualTo((long) threads * perThread);
+        assertThat(ledger.totalPrice()).isEqualTo(90L * threads * perThread);
+    }
+}
@@ -30,4 +30,22 @@ public class OrderServiceTest {
 
         Assertions.assertThat(order.getDiscountPrice()).isEqualTo(1000);
     }
+
+    @Test
+    void createOrders() {
+        memberService.join(new Member(20L, "memberVIP", Grade.VIP));
+        memberService.join(new Member(21L, "memberBasic", Grade.BASIC));
+
+        OrderBatch orders = orderService.createOrders(
+                new long[]{20L, 21L, 20L},
+                new String[]{"itemA", "itemB", "itemC"},
+                new int[]{10000, 10000, 20000});
+
+        Assertions.assertThat(orders.size()).isEqualTo(3);
+        Assertions.assertThat(orders.getDiscountPrice(0)).isEqualTo(1000);
+        Assertions.assertThat(orders.getDiscountPrice(1)).isEqualTo(0);
+        Assertions.assertThat(orders.getDiscountPrice(2)).isEqualTo(2000);
+        Assertions.assertThat(orders.calculatePrice(2)).isEqualTo(18000);
+        Assertions.assertThat(orders.toOrder(2).getItemName()).isEqualTo("itemC");
+    }
 }
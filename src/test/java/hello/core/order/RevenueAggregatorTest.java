@@ -0,0 +1,127 @@
+package hello.core.order;
+
+import hello.core.AppConfig;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.RevenueSnapshot.Totals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RevenueAggregatorTest {
+
+    @Test
+    @DisplayName("주문을 만들면 등급별, 상품별 합계에 누적되어야 한다.")
+    void aggregateCreatedOrders() {
+        // given
+        AppConfig appConfig = new AppConfig();
+        MemberRepository memberRepository = appConfig.memberRepository();
+        memberRepository.save(new Member(40L, "memberVIP", Grade.VIP));
+        memberRepository.save(new Member(41L, "memberBasic", Grade.BASIC));
+        AggregatingOrderService orderService = new AggregatingOrderService(
+                new OrderServiceImpl(memberRepository, appConfig.discountPolicy()), memberRepository, new RevenueAggregator());
+
+        // when
+        orderService.createOrder(40L, "itemA", 10000);
+        orderService.createOrder(41L, "itemA", 20000);
+        orderService.createOrders(new long[]{40L, 41L}, new String[]{"itemB", "itemB"}, new int[]{5000, 5000});
+        RevenueSnapshot snapshot = orderService.getAggregator().snapshot();
+
+        // then
+        Totals vip = snapshot.getByGrade(Grade.VIP);
+        assertThat(vip.getOrderCount()).isEqualTo(2);
+        assertThat(vip.getGross()).isEqualTo(15000);
+        assertThat(vip.getDiscount()).isEqualTo(1500);
+        assertThat(vip.getNet()).isEqualTo(13500);
+        assertThat(snapshot.getByGrade(Grade.BASIC).getDiscount()).isZero();
+        assertThat(snapshot.getByItem().get("itemA").getGross()).isEqualTo(30000);
+        assertThat(snapshot.getTotal().getNet()).isEqualTo(13500 + 25000);
+    }
+
+    @Test
+    @DisplayName("다른 데코레이터로 감싼 OrderService도 누적하고, 등급이 없는 회원의 주문은 등급 없음으로 누적되어야 한다.")
+    void wrapAnyOrderServiceAndUngraded() {
+        // given
+        MemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(42L, "memberVIP", Grade.VIP));
+        memberRepository.save(new Member(43L, "memberNoGrade", null));
+        OrderLedger ledger = new OrderLedger();
+        AggregatingOrderService orderService = new AggregatingOrderService(
+                new LedgerOrderService(new OrderServiceImpl(memberRepository, new RateDiscountPolicy()), ledger),
+                memberRepository, new RevenueAggregator());
+
+        // when
+        orderService.createOrder(42L, "itemA", 10000);
+        orderService.createOrder(43L, "itemA", 20000);
+        orderService.createOrders(new long[]{42L, 43L, 43L}, new String[]{"itemB", "itemB", "itemB"}, new int[]{5000, 5000, 5000});
+        RevenueSnapshot snapshot = orderService.getAggregator().snapshot();
+
+        // then
+        assertThat(ledger.size()).isEqualTo(5);
+        assertThat(snapshot.getByGrade(Grade.VIP).getOrderCount()).isEqualTo(2);
+        Totals ungraded = snapshot.getUngraded();
+        assertThat(ungraded.getOrderCount()).isEqualTo(3);
+        assertThat(ungraded.getGross()).isEqualTo(30000);
+        assertThat(ungraded.getDiscount()).isZero();
+        assertThat(snapshot.getTotal().getOrderCount()).isEqualTo(5);
+        assertThat(snapshot.getTotal().getGross()).isEqualTo(45000);
+    }
+
+    @Test
+    @DisplayName("누적 중에 뜬 스냅샷도 등급별 합계와 상품별 합계가 서로 맞아야 한다.")
+    void consistentSnapshot() throws Exception {
+        // given
+        RevenueAggregator aggregator = new RevenueAggregator();
+        int threads = 16;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicBoolean done = new AtomicBoolean();
+
+        // when
+        List<Future<?>> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Grade grade = t % 2 == 0 ? Grade.VIP : Grade.BASIC;
+            producers.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    aggregator.record(grade, "item" + (i % 4), 1000, grade == Grade.VIP ? 100 : 0);
+                }
+            }));
+        }
+        ExecutorService readerExecutor = Executors.newSingleThreadExecutor();
+        Future<Integer> reader = readerExecutor.submit(() -> {
+            int inconsistent = 0;
+            while (!done.get()) {
+                RevenueSnapshot snapshot = aggregator.snapshot();
+                long itemCount = snapshot.getByItem().values().stream().mapToLong(Totals::getOrderCount).sum();
+                long itemGross = snapshot.getByItem().values().stream().mapToLong(Totals::getGross).sum();
+                if (itemCount != snapshot.getTotal().getOrderCount() || itemGross != snapshot.getTotal().getGross()) {
+                    inconsistent++;
+                }
+            }
+            return inconsistent;
+        });
+        for (Future<?> producer : producers) {
+            producer.get();
+        }
+        done.set(true);
+        executor.shutdown();
+        readerExecutor.shutdown();
+
+        // then
+        assertThat(reader.get()).isZero();
+        RevenueSnapshot snapshot = aggregator.snapshot();
+        assertThat(snapshot.getTotal().getOrderCount()).isEqualTo((long) threads * perThread);
+        assertThat(snapshot.getByGrade(Grade.VIP).getDiscount()).isEqualTo(100L * perThread * threads / 2);
+    }
+}
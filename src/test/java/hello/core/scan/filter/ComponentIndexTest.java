@@ -0,0 +1,25 @@
+package hello.core.scan.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.stereotype.Component;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ComponentIndexTest {
+
+    /**
+     * 인덱스가 없으면 스프링은 조용히 클래스패스 스캔으로 돌아가므로, 인덱스가 실제로 만들어졌는지 따로 확인한다.
+     * */
+    @Test
+    void indexGenerated() {
+        CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(getClass().getClassLoader());
+        assertThat(index).isNotNull();
+
+        assertThat(index.getCandidateTypes("hello.core.scan.filter", MyIncludeComponent.class.getName()))
+                .contains(BeanA.class.getName());
+        assertThat(index.getCandidateTypes("hello.core.member", Component.class.getName()))
+                .contains("hello.core.member.MemoryMemberRepository", "hello.core.member.MemberServiceImpl");
+    }
+}
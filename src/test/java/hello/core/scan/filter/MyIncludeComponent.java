@@ -1,10 +1,13 @@
 package hello.core.scan.filter;
 
+import org.springframework.stereotype.Indexed;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.TYPE) // TYPE: 클래스 레벨
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
+@Indexed // 컴포넌트 인덱스에 포함시켜서 includeFilters에 써도 클래스패스를 스캔하지 않게 한다.
 public @interface MyIncludeComponent {
 
 }
@@ -0,0 +1,135 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.AppConfig;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BulkOrderControllerTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("요청 한 줄마다 주문 결과 한 줄을 요청 순서대로 응답해야 한다.")
+    void processLines() throws IOException {
+        // given
+        BulkOrderController controller = createController();
+        String body = "{\"memberId\":50,\"itemName\":\"itemA\",\"itemPrice\":10000}\n"
+                + "{\"memberId\":51,\"itemName\":\"itemB\",\"itemPrice\":20000}\n";
+
+        // when
+        List<JsonNode> results = process(controller, body);
+
+        // then
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get("line").asLong()).isEqualTo(1);
+        assertThat(results.get(0).get("discountPrice").asInt()).isEqualTo(1000);
+        assertThat(results.get(0).get("price").asInt()).isEqualTo(9000);
+        assertThat(results.get(1).get("itemName").asText()).isEqualTo("itemB");
+        assertThat(results.get(1).get("discountPrice").asInt()).isZero();
+    }
+
+    @Test
+    @DisplayName("실패한 줄은 error로 응답하고 나머지 줄은 계속 처리해야 한다.")
+    void failedLine() throws IOException {
+        // given
+        BulkOrderController controller = createController();
+        String body = "{\"memberId\":50,\"itemName\":\"itemA\",\"itemPrice\":10000}\n"
+                + "{\"memberId\":-50,\"itemName\":\"itemA\",\"itemPrice\":10000}\n"
+                + "{\"itemName\":\"itemA\",\"itemPrice\":10000}\n"
+                + "{\"memberId\":51,\"itemName\":\"itemA\",\"itemPrice\":10000}\n";
+
+        // when
+        List<JsonNode> results = process(controller, body);
+
+        // then
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).has("error")).isFalse();
+        assertThat(results.get(1).get("line").asLong()).isEqualTo(2);
+        assertThat(results.get(1).has("error")).isTrue();
+        assertThat(results.get(2).get("line").asLong()).isEqualTo(3);
+        assertThat(results.get(2).get("error").asText()).contains("memberId");
+        assertThat(results.get(3).get("line").asLong()).isEqualTo(4);
+        assertThat(results.get(3).get("price").asInt()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("잘못된 JSON이나 타입이 맞지 않는 줄은 그 줄만 error로 응답하고 다음 줄부터 계속 처리해야 한다.")
+    void malformedLine() throws IOException {
+        // given
+        BulkOrderController controller = createController();
+        String body = "{\"memberId\":50,\"itemName\":\"itemA\",\"itemPrice\":10000}\n"
+                + "{\"memberId\":50,\"itemName\":\"itemA\",\"itemP\n"
+                + "{\"memberId\":\"abc\",\"itemName\":\"itemA\",\"itemPrice\":10000}\n"
+                + "{\"memberId\":51,\"itemName\":\"" + "x".repeat(BulkOrderController.MAX_LINE_LENGTH) + "\",\"itemPrice\":10000}\n"
+                + "{\"memberId\":51,\"itemName\":\"itemB\",\"itemPrice\":20000}";
+
+        // when
+        List<JsonNode> results = process(controller, body);
+
+        // then
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).get("price").asInt()).isEqualTo(9000);
+        assertThat(results.get(1).get("line").asLong()).isEqualTo(2);
+        assertThat(results.get(1).has("error")).isTrue();
+        assertThat(results.get(2).get("line").asLong()).isEqualTo(3);
+        assertThat(results.get(2).get("error").asText()).contains("abc");
+        assertThat(results.get(3).get("error").asText()).contains("longer");
+        assertThat(results.get(4).get("line").asLong()).isEqualTo(5);
+        assertThat(results.get(4).get("price").asInt()).isEqualTo(20000);
+    }
+
+    @Test
+    @DisplayName("여러 묶음(BATCH_SIZE)에 걸친 요청도 모든 줄을 처리해야 한다.")
+    void manyBatches() throws IOException {
+        // given
+        BulkOrderController controller = createController();
+        int count = BulkOrderController.BATCH_SIZE * 3 + 7;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"memberId\":50,\"itemName\":\"item").append(i).append("\",\"itemPrice\":1000}\n");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long processed = controller.process(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+        // then
+        assertThat(processed).isEqualTo(count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(count);
+        assertThat(objectMapper.readTree(lines[count - 1]).get("itemName").asText()).isEqualTo("item" + (count - 1));
+    }
+
+    private BulkOrderController createController() {
+        AppConfig appConfig = new AppConfig();
+        MemberRepository memberRepository = appConfig.memberRepository();
+        memberRepository.save(new Member(50L, "memberVIP", Grade.VIP));
+        memberRepository.save(new Member(51L, "memberBasic", Grade.BASIC));
+        return new BulkOrderController(appConfig.orderService(), objectMapper);
+    }
+
+    private List<JsonNode> process(BulkOrderController controller, String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        controller.process(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+}